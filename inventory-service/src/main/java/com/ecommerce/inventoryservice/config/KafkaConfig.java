@@ -23,6 +23,9 @@ public class KafkaConfig {
     @Value("${kafka.topics.inventory-updated}")
     private String inventoryUpdatedTopic;
 
+    @Value("${kafka.topics.inventory-status}")
+    private String inventoryStatusTopic;
+
     @Bean
     public NewTopic inventoryUpdatedTopic() {
         return TopicBuilder.name(inventoryUpdatedTopic)
@@ -31,6 +34,14 @@ public class KafkaConfig {
                 .build();
     }
 
+    @Bean
+    public NewTopic inventoryStatusTopic() {
+        return TopicBuilder.name(inventoryStatusTopic)
+                .partitions(3)
+                .replicas(1)
+                .build();
+    }
+
     @Bean
     public ConcurrentKafkaListenerContainerFactory<String, Object> kafkaListenerContainerFactory(
             ConsumerFactory<String, Object> consumerFactory) {
@@ -0,0 +1,35 @@
+package com.ecommerce.inventoryservice.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+// Outcome of reserving stock for one order, consumed by order-service
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class InventoryStatusEvent {
+    private String eventId;
+    private String eventType;
+    private LocalDateTime timestamp;
+    private Long orderId;
+    private String orderNumber;
+    private boolean isInStock;
+    private List<InventoryItem> unavailableItems;
+    
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class InventoryItem {
+        private Long productId;
+        private String productName;
+        private Integer requestedQuantity;
+        private Integer availableQuantity;
+    }
+}
@@ -3,6 +3,7 @@ package com.ecommerce.inventoryservice.service.impl;
 import com.ecommerce.inventoryservice.dto.*;
 import com.ecommerce.inventoryservice.entity.InventoryItem;
 import com.ecommerce.inventoryservice.entity.InventoryTransaction;
+import com.ecommerce.inventoryservice.event.InventoryStatusEvent;
 import com.ecommerce.inventoryservice.event.InventoryUpdatedEvent;
 import com.ecommerce.inventoryservice.event.OrderCancelledEvent;
 import com.ecommerce.inventoryservice.event.OrderCreatedEvent;
@@ -13,6 +14,7 @@ import com.ecommerce.inventoryservice.repository.InventoryTransactionRepository;
 import com.ecommerce.inventoryservice.service.InventoryService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
@@ -23,7 +25,10 @@ import org.springframework.kafka.support.Acknowledgment;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.UUID;
 import java.util.stream.Collectors;
 
 @Service
@@ -33,7 +38,10 @@ public class InventoryServiceImpl implements InventoryService {
 
     private final InventoryRepository inventoryRepository;
     private final InventoryTransactionRepository transactionRepository;
-    private final KafkaTemplate<String, InventoryUpdatedEvent> kafkaTemplate;
+    private final KafkaTemplate<String, Object> kafkaTemplate;
+    
+    @Value("${kafka.topics.inventory-status}")
+    private String inventoryStatusTopic;
     
     @Override
     @Transactional
@@ -382,6 +390,7 @@ public class InventoryServiceImpl implements InventoryService {
         
         try {
             // Reserve stock for each order item
+            List<InventoryStatusEvent.InventoryItem> unavailableItems = new ArrayList<>();
             for (OrderCreatedEvent.OrderItemDto orderItem : event.getOrderItems()) {
                 ReservationRequest reservationRequest = new ReservationRequest();
                 reservationRequest.setProductId(orderItem.getProductId());
@@ -395,11 +404,19 @@ public class InventoryServiceImpl implements InventoryService {
                 } catch (Exception e) {
                     log.error("Failed to reserve stock for product {} in order {}: {}", 
                               orderItem.getProductId(), event.getOrderNumber(), e.getMessage());
-                    // In a real system, we'd need to handle this failure better, 
-                    // perhaps by releasing already reserved items and sending a failure event
+                    unavailableItems.add(InventoryStatusEvent.InventoryItem.builder()
+                            .productId(orderItem.getProductId())
+                            .productName(orderItem.getProductName())
+                            .requestedQuantity(orderItem.getQuantity())
+                            .availableQuantity(inventoryRepository.findByProductId(orderItem.getProductId())
+                                    .map(InventoryItem::getAvailableQuantity)
+                                    .orElse(0))
+                            .build());
                 }
             }
             
+            // order-service cancels the order on a shortfall, and the cancellation releases what was reserved here
+            publishInventoryStatusEvent(event, unavailableItems);
             acknowledgment.acknowledge();
         } catch (Exception e) {
             log.error("Error processing order created event", e);
@@ -503,6 +520,22 @@ public class InventoryServiceImpl implements InventoryService {
         transactionRepository.save(transaction);
     }
     
+    // Keyed by order number so one order's inventory outcomes stay in order on this topic
+    private void publishInventoryStatusEvent(OrderCreatedEvent order, List<InventoryStatusEvent.InventoryItem> unavailableItems) {
+        InventoryStatusEvent event = InventoryStatusEvent.builder()
+                .eventId(UUID.randomUUID().toString())
+                .eventType("INVENTORY_STATUS")
+                .timestamp(LocalDateTime.now())
+                .orderId(order.getOrderId())
+                .orderNumber(order.getOrderNumber())
+                .isInStock(unavailableItems.isEmpty())
+                .unavailableItems(unavailableItems)
+                .build();
+        
+        kafkaTemplate.send(inventoryStatusTopic, order.getOrderNumber(), event);
+        log.info("Published inventory status for order {}: in stock {}", order.getOrderNumber(), event.isInStock());
+    }
+    
     private void publishInventoryUpdatedEvent(InventoryItem item) {
         InventoryUpdatedEvent event = new InventoryUpdatedEvent(
                 item.getProductId(),
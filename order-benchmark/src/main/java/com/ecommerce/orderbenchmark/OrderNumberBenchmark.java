@@ -0,0 +1,170 @@
+package com.ecommerce.orderbenchmark;
+
+import com.ecommerce.orderservice.id.OrderNumberGenerator;
+import com.ecommerce.orderservice.id.TimeOrderedIdGenerator;
+import com.ecommerce.orderservice.id.UuidOrderNumberGenerator;
+
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Inserts the same number of order rows keyed by each order number generator into a table
+ * shaped like {@code orders} (unique index on the order number) and reports insert throughput,
+ * how it degrades as the table grows, and the resulting data and index sizes. Random keys
+ * slow down once the unique index no longer fits in the buffer pool, so use enough rows to
+ * exceed it when comparing on MySQL. Options are given as {@code --name=value}.
+ */
+public class OrderNumberBenchmark {
+
+    private static final int SEGMENTS = 10;
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = parse(args);
+        int rows = Integer.parseInt(options.getOrDefault("rows", "2000000"));
+        int batchSize = Integer.parseInt(options.getOrDefault("batch-size", "1000"));
+        String url = options.getOrDefault("jdbc-url",
+                "jdbc:mysql://localhost:3306/order_benchmark?createDatabaseIfNotExist=true&useSSL=false"
+                        + "&allowPublicKeyRetrieval=true&rewriteBatchedStatements=true");
+
+        Map<String, OrderNumberGenerator> generators = new LinkedHashMap<>();
+        generators.put("uuid", new UuidOrderNumberGenerator());
+        generators.put("time-ordered", new TimeOrderedIdGenerator(1));
+
+        System.out.printf("%d rows per generator, batches of %d, %s%n%n", rows, batchSize, url);
+        for (Map.Entry<String, OrderNumberGenerator> entry : generators.entrySet()) {
+            System.out.printf("%-14s %,14.0f ids/s generated in memory%n", entry.getKey(), generationRate(entry.getValue()));
+        }
+        System.out.println();
+
+        try (Connection connection = DriverManager.getConnection(url,
+                options.getOrDefault("user", "root"), options.getOrDefault("password", "password"))) {
+            boolean mysql = connection.getMetaData().getDatabaseProductName().toLowerCase().contains("mysql");
+            for (Map.Entry<String, OrderNumberGenerator> entry : generators.entrySet()) {
+                String table = "bench_orders_" + entry.getKey().replace('-', '_');
+                Result result = run(connection, table, entry.getValue(), rows, batchSize);
+                report(entry.getKey(), result);
+                if (mysql) {
+                    reportSizes(connection, table);
+                }
+                System.out.println();
+            }
+            if (!mysql) {
+                System.out.println("Data and index sizes are only reported on MySQL");
+            }
+        }
+    }
+
+    private static double generationRate(OrderNumberGenerator generator) {
+        int count = 2_000_000;
+        // Warm up so both generators are compiled before timing
+        for (int i = 0; i < count; i++) {
+            generator.next();
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < count; i++) {
+            generator.next();
+        }
+        return count / ((System.nanoTime() - start) / 1e9);
+    }
+
+    private static Result run(Connection connection, String table, OrderNumberGenerator generator,
+                              int rows, int batchSize) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("DROP TABLE IF EXISTS " + table);
+            statement.execute("CREATE TABLE " + table + " ("
+                    + "id BIGINT AUTO_INCREMENT PRIMARY KEY, "
+                    + "order_number VARCHAR(255) NOT NULL, "
+                    + "user_id BIGINT NOT NULL, "
+                    + "total_amount DECIMAL(10, 2) NOT NULL, "
+                    + "order_date TIMESTAMP NOT NULL, "
+                    + "CONSTRAINT uk_" + table + "_order_number UNIQUE (order_number))");
+        }
+
+        boolean autoCommit = connection.getAutoCommit();
+        connection.setAutoCommit(false);
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        List<Double> segmentRates = new ArrayList<>(SEGMENTS);
+        long keyChars = 0;
+        long start = System.nanoTime();
+        long segmentStart = start;
+        int segmentSize = Math.max(rows / SEGMENTS, 1);
+
+        try (PreparedStatement ps = connection.prepareStatement("INSERT INTO " + table
+                + " (order_number, user_id, total_amount, order_date) VALUES (?, ?, ?, ?)")) {
+            for (int i = 1; i <= rows; i++) {
+                String orderNumber = generator.next();
+                keyChars += orderNumber.length();
+                ps.setString(1, orderNumber);
+                ps.setLong(2, random.nextLong(1, 100_000));
+                ps.setBigDecimal(3, BigDecimal.valueOf(random.nextLong(100, 100_000), 2));
+                ps.setTimestamp(4, new Timestamp(System.currentTimeMillis()));
+                ps.addBatch();
+                if (i % batchSize == 0 || i == rows) {
+                    ps.executeBatch();
+                    connection.commit();
+                }
+                if (i % segmentSize == 0 && segmentRates.size() < SEGMENTS) {
+                    long now = System.nanoTime();
+                    segmentRates.add(segmentSize / ((now - segmentStart) / 1e9));
+                    segmentStart = now;
+                }
+            }
+        } finally {
+            connection.setAutoCommit(autoCommit);
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+        return new Result(rows / seconds, seconds, segmentRates, (double) keyChars / rows);
+    }
+
+    private static void report(String name, Result result) {
+        System.out.printf("%-14s %,10.0f rows/s overall (%.1fs), average key %.0f chars%n",
+                name, result.rowsPerSecond(), result.seconds(), result.averageKeyLength());
+        StringBuilder segments = new StringBuilder();
+        for (double rate : result.segmentRates()) {
+            segments.append(String.format("%,9.0f", rate));
+        }
+        System.out.printf("%-14s rows/s per %d%% of the load:%s%n", "", 100 / SEGMENTS, segments);
+    }
+
+    private static void reportSizes(Connection connection, String table) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("ANALYZE TABLE " + table);
+        }
+        try (PreparedStatement ps = connection.prepareStatement("SELECT data_length, index_length FROM information_schema.tables "
+                + "WHERE table_schema = DATABASE() AND table_name = ?")) {
+            ps.setString(1, table);
+            try (ResultSet rs = ps.executeQuery()) {
+                if (rs.next()) {
+                    System.out.printf("%-14s data %.1f MiB, secondary indexes %.1f MiB%n", "",
+                            rs.getLong(1) / 1048576.0, rs.getLong(2) / 1048576.0);
+                }
+            }
+        }
+    }
+
+    private static Map<String, String> parse(String[] args) {
+        Map<String, String> values = new LinkedHashMap<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                throw new IllegalArgumentException("Expected --name=value but got: " + arg);
+            }
+            int split = arg.indexOf('=');
+            values.put(arg.substring(2, split), arg.substring(split + 1));
+        }
+        return values;
+    }
+
+    private record Result(double rowsPerSecond, double seconds, List<Double> segmentRates, double averageKeyLength) {
+    }
+}
@@ -0,0 +1,13 @@
+package com.ecommerce.orderservice.client;
+
+import org.springframework.cloud.openfeign.FeignClient;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+
+// Only used for products the local replica doesn't know yet
+@FeignClient(name = "product-service", path = "/api/products")
+public interface ProductCatalogClient {
+
+    @PostMapping("/batch")
+    ProductLookupResponse getProductsByIds(@RequestBody ProductLookupRequest request);
+}
@@ -0,0 +1,31 @@
+package com.ecommerce.orderservice.config;
+
+import com.ecommerce.orderservice.id.OrderNumberGenerator;
+import com.ecommerce.orderservice.id.TimeOrderedIdGenerator;
+import com.ecommerce.orderservice.id.UuidOrderNumberGenerator;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class OrderNumberConfig {
+
+    // Every running instance needs its own node id; nothing else is coordinated, so there is no default
+    @Bean
+    public OrderNumberGenerator orderNumberGenerator(
+            @Value("${app.order-number.generator:time-ordered}") String generator,
+            @Value("${app.order-number.node-id:#{null}}") Integer nodeId) {
+        return switch (generator) {
+            case "time-ordered" -> {
+                if (nodeId == null) {
+                    throw new IllegalStateException("app.order-number.node-id (ORDER_NODE_ID) is not set; give each "
+                            + "instance its own value between 0 and " + TimeOrderedIdGenerator.MAX_NODE_ID);
+                }
+                yield new TimeOrderedIdGenerator(nodeId);
+            }
+            case "uuid" -> new UuidOrderNumberGenerator();
+            default -> throw new IllegalArgumentException("Unknown app.order-number.generator: " + generator
+                    + ", expected time-ordered or uuid");
+        };
+    }
+}
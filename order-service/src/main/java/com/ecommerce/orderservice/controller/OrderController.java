@@ -1,9 +1,16 @@
 package com.ecommerce.orderservice.controller;
 
 import com.ecommerce.orderservice.dto.OrderDto;
+import com.ecommerce.orderservice.dto.OrderHistoryPage;
+import com.ecommerce.orderservice.dto.OrderIntakeResponse;
+import com.ecommerce.orderservice.dto.OrderIntakeStatus;
 import com.ecommerce.orderservice.dto.OrderRequest;
 import com.ecommerce.orderservice.dto.OrderResponse;
+import com.ecommerce.orderservice.dto.OrderStatusBatchRequest;
+import com.ecommerce.orderservice.dto.OrderStatusBatchResponse;
 import com.ecommerce.orderservice.dto.PagedResponse;
+import com.ecommerce.orderservice.service.IdempotencyService;
+import com.ecommerce.orderservice.service.OrderIntakeService;
 import com.ecommerce.orderservice.service.OrderService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
@@ -11,17 +18,49 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.net.URI;
+
 @RestController
 @RequestMapping("/api/orders")
 @RequiredArgsConstructor
 public class OrderController {
 
     private final OrderService orderService;
+    private final OrderIntakeService orderIntakeService;
+    private final IdempotencyService idempotencyService;
 
     @PostMapping
-    public ResponseEntity<OrderResponse> createOrder(@Valid @RequestBody OrderRequest orderRequest) {
-        OrderResponse createdOrder = orderService.createOrder(orderRequest);
-        return new ResponseEntity<>(createdOrder, HttpStatus.CREATED);
+    public ResponseEntity<OrderResponse> createOrder(
+            @Valid @RequestBody OrderRequest orderRequest,
+            @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey) {
+        if (idempotencyKey == null) {
+            OrderResponse createdOrder = orderService.createOrder(orderRequest);
+            return new ResponseEntity<>(createdOrder, HttpStatus.CREATED);
+        }
+        // A retry gets the original response back, flagged so clients can tell it apart
+        IdempotencyService.IdempotentResult result = idempotencyService.createOrder(idempotencyKey, orderRequest);
+        return ResponseEntity.status(HttpStatus.CREATED)
+                .header("Idempotent-Replayed", String.valueOf(result.replayed()))
+                .body(result.response());
+    }
+
+    // Queues the order and answers 202 with a status URL to poll until it is CREATED or FAILED
+    @PostMapping("/async")
+    public ResponseEntity<OrderIntakeResponse> submitOrder(@Valid @RequestBody OrderRequest orderRequest) {
+        OrderIntakeResponse accepted = orderIntakeService.submitOrder(orderRequest);
+        return ResponseEntity.accepted()
+                .location(URI.create(accepted.getStatusUrl()))
+                .body(accepted);
+    }
+
+    // UNKNOWN is still 202: the order may be queued on another instance and not written yet
+    @GetMapping("/intake/{orderNumber}")
+    public ResponseEntity<OrderIntakeResponse> getIntakeStatus(@PathVariable String orderNumber) {
+        OrderIntakeResponse status = orderIntakeService.getIntakeStatus(orderNumber);
+        if (status.getStatus() == OrderIntakeStatus.UNKNOWN) {
+            return ResponseEntity.accepted().body(status);
+        }
+        return ResponseEntity.ok(status);
     }
 
     @GetMapping("/{id}")
@@ -39,6 +78,16 @@ public class OrderController {
         return ResponseEntity.ok(orders);
     }
 
+    // Cursor-paged history, newest first; pass nextCursor from the previous page to continue
+    @GetMapping("/user/{userId}/history")
+    public ResponseEntity<OrderHistoryPage> getOrderHistory(
+            @PathVariable Long userId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(defaultValue = "false") boolean includeTotal) {
+        return ResponseEntity.ok(orderService.getOrderHistory(userId, cursor, size, includeTotal));
+    }
+
     @GetMapping
     public ResponseEntity<PagedResponse<OrderDto>> getAllOrders(
             @RequestParam(defaultValue = "0") int page,
@@ -55,6 +104,12 @@ public class OrderController {
         return ResponseEntity.ok(updatedOrder);
     }
 
+    // Applies many status changes in one transaction; each update gets its own outcome in the response
+    @PostMapping("/status-batch")
+    public ResponseEntity<OrderStatusBatchResponse> updateOrderStatuses(@Valid @RequestBody OrderStatusBatchRequest request) {
+        return ResponseEntity.ok(orderService.updateOrderStatuses(request.getUpdates()));
+    }
+
     @DeleteMapping("/{id}")
     public ResponseEntity<Void> cancelOrder(@PathVariable Long id) {
         orderService.cancelOrder(id);
@@ -0,0 +1,25 @@
+package com.ecommerce.orderservice.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderHistoryPage {
+    private List<OrderDto> content;
+    private int size;
+    // Pass back as cursor to get the next page; null on the last page
+    private String nextCursor;
+    private boolean last;
+    
+    // Only present when requested with includeTotal=true
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Long totalElements;
+}
@@ -0,0 +1,20 @@
+package com.ecommerce.orderservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderIntakeResponse {
+    private String orderNumber;
+    private OrderIntakeStatus status;
+    private String statusUrl;
+    // Set once the order is CREATED
+    private Long orderId;
+    // Set when the order FAILED
+    private String message;
+}
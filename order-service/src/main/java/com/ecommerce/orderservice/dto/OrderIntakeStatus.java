@@ -0,0 +1,12 @@
+package com.ecommerce.orderservice.dto;
+
+public enum OrderIntakeStatus {
+    // Accepted and waiting in the intake queue
+    QUEUED,
+    // Persisted; the order can be loaded by id
+    CREATED,
+    // Could not be persisted; see the message
+    FAILED,
+    // Not persisted and not queued on the instance that answered; it may sit in another instance's queue
+    UNKNOWN
+}
@@ -1,7 +1,6 @@
 package com.ecommerce.orderservice.dto;
 
 import jakarta.validation.constraints.Min;
-import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
@@ -19,14 +18,12 @@ public class OrderItemRequest {
     @NotNull(message = "Product ID is required")
     private Long productId;
     
-    @NotBlank(message = "Product name is required")
+    // Name and price are optional and ignored; lines are priced from the product catalog
     private String productName;
     
     @NotNull(message = "Quantity is required")
     @Min(value = 1, message = "Quantity must be at least 1")
     private Integer quantity;
     
-    @NotNull(message = "Price is required")
-    @Min(value = 0, message = "Price must not be negative")
     private BigDecimal price;
 }
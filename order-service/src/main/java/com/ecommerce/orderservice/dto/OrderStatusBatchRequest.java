@@ -0,0 +1,35 @@
+package com.ecommerce.orderservice.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderStatusBatchRequest {
+    
+    @NotEmpty(message = "Updates cannot be empty")
+    @Valid
+    private List<Update> updates;
+    
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Update {
+        @NotNull(message = "Order ID is required")
+        private Long orderId;
+        
+        @NotBlank(message = "Status is required")
+        private String status;
+    }
+}
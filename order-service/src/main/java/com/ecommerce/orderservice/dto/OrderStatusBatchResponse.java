@@ -0,0 +1,32 @@
+package com.ecommerce.orderservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderStatusBatchResponse {
+    private int requested;
+    private int updated;
+    private int unchanged;
+    private int failed;
+    // One result per requested update, in request order
+    private List<Result> results;
+    
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Result {
+        private Long orderId;
+        private String status;
+        private OrderStatusOutcome outcome;
+        private String message;
+    }
+}
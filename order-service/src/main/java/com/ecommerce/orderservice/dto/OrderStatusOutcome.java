@@ -0,0 +1,11 @@
+package com.ecommerce.orderservice.dto;
+
+public enum OrderStatusOutcome {
+    // Moved to the requested status
+    UPDATED,
+    // Already had the requested status; no event was published
+    UNCHANGED,
+    NOT_FOUND,
+    // Unknown status, a transition the lifecycle does not allow, or a repeated order id
+    REJECTED
+}
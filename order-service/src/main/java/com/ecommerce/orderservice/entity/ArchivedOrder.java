@@ -0,0 +1,52 @@
+package com.ecommerce.orderservice.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * A completed order moved out of {@code orders}, {@code order_items} and {@code payments}.
+ * The summary columns serve history pages; everything else is in the compressed payload.
+ */
+@Entity
+@Table(name = "order_archive", indexes = {
+        // Same shape as idx_orders_user_date_id, so archived history pages are read from the index alone
+        @Index(name = "idx_order_archive_user_date_id", columnList = "userId, orderDate, id, status, totalAmount, orderNumber")
+})
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ArchivedOrder {
+    // The original order id, so lookups by id keep working after archiving
+    @Id
+    private Long id;
+
+    @Column(nullable = false, length = 64)
+    private String orderNumber;
+
+    @Column(nullable = false)
+    private Long userId;
+
+    @Column(nullable = false)
+    private LocalDateTime orderDate;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 32)
+    private OrderStatus status;
+
+    @Column(nullable = false)
+    private BigDecimal totalAmount;
+
+    @Column(nullable = false)
+    private LocalDateTime archivedAt;
+
+    // Gzipped JSON of the full order response, including items and payment
+    @Column(nullable = false, columnDefinition = "mediumblob")
+    private byte[] payload;
+}
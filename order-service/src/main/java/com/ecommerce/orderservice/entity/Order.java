@@ -12,7 +12,13 @@ import java.util.ArrayList;
 import java.util.List;
 
 @Entity
-@Table(name = "orders")
+@Table(name = "orders", indexes = {
+        @Index(name = "idx_orders_order_number", columnList = "orderNumber", unique = true),
+        // Seeks straight to a position in a user's history; the trailing columns cover the summary projection
+        @Index(name = "idx_orders_user_date_id", columnList = "userId, orderDate, id, status, totalAmount, orderNumber"),
+        // The archiver's claim scans and locks only old orders in final statuses, never the range new orders insert into
+        @Index(name = "idx_orders_status_date", columnList = "status, orderDate")
+})
 @Data
 @Builder
 @NoArgsConstructor
@@ -39,6 +45,9 @@ public class Order {
     
     private LocalDateTime orderDate;
     
+    // Null until inventory-service reports whether the items could be reserved
+    private Boolean inventoryReserved;
+    
     @OneToMany(mappedBy = "order", cascade = CascadeType.ALL, orphanRemoval = true)
     private List<OrderItem> orderItems = new ArrayList<>();
     
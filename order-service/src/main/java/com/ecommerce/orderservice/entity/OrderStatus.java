@@ -9,5 +9,20 @@ public enum OrderStatus {
     SHIPPED,
     DELIVERED,
     CANCELLED,
-    REFUNDED
+    REFUNDED;
+
+    // The order lifecycle; any move not listed here is rejected
+    public boolean canTransitionTo(OrderStatus target) {
+        return switch (this) {
+            case CREATED -> target == PAYMENT_PENDING || target == PAYMENT_COMPLETED
+                    || target == PAYMENT_FAILED || target == CANCELLED;
+            case PAYMENT_PENDING -> target == PAYMENT_COMPLETED || target == PAYMENT_FAILED || target == CANCELLED;
+            case PAYMENT_COMPLETED -> target == PROCESSING || target == CANCELLED || target == REFUNDED;
+            case PAYMENT_FAILED -> target == PAYMENT_PENDING || target == CANCELLED;
+            case PROCESSING -> target == SHIPPED || target == CANCELLED;
+            case SHIPPED -> target == DELIVERED;
+            case DELIVERED, CANCELLED -> target == REFUNDED;
+            case REFUNDED -> false;
+        };
+    }
 }
@@ -0,0 +1,55 @@
+package com.ecommerce.orderservice.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "order_outbox", indexes = {
+        // The relay scans unsent rows in id order
+        @Index(name = "idx_order_outbox_sent_id", columnList = "sent_at, id"),
+        // Finds earlier unsent events of the same order when deciding whether one may go out
+        @Index(name = "idx_order_outbox_aggregate_id", columnList = "aggregate_id, id")
+})
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class OutboxEvent {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    // Order number, used as the Kafka key so an order's events stay on one partition
+    @Column(name = "aggregate_id", nullable = false, length = 64)
+    private String aggregateId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "event_type", nullable = false, length = 32)
+    private OutboxEventType eventType;
+
+    @Column(nullable = false)
+    private String topic;
+
+    @Column(nullable = false, columnDefinition = "mediumtext")
+    private String payload;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "sent_at")
+    private LocalDateTime sentAt;
+
+    // Failed sends so far; the relay backs off exponentially between attempts
+    @Builder.Default
+    @Column(nullable = false, columnDefinition = "int default 0")
+    private int attempts = 0;
+
+    // Parked until then after a failed send, along with the later events of the same order
+    @Column(name = "next_attempt_at")
+    private LocalDateTime nextAttemptAt;
+}
@@ -0,0 +1,24 @@
+package com.ecommerce.orderservice.entity;
+
+import com.ecommerce.orderservice.event.OrderCancelledEvent;
+import com.ecommerce.orderservice.event.OrderCreatedEvent;
+import com.ecommerce.orderservice.event.OrderUpdatedEvent;
+
+/**
+ * Events that are written to the outbox, with the class the relay reads the payload back into.
+ */
+public enum OutboxEventType {
+    ORDER_CREATED(OrderCreatedEvent.class),
+    ORDER_UPDATED(OrderUpdatedEvent.class),
+    ORDER_CANCELLED(OrderCancelledEvent.class);
+
+    private final Class<?> eventClass;
+
+    OutboxEventType(Class<?> eventClass) {
+        this.eventClass = eventClass;
+    }
+
+    public Class<?> getEventClass() {
+        return eventClass;
+    }
+}
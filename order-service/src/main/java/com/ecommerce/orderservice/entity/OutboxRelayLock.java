@@ -0,0 +1,19 @@
+package com.ecommerce.orderservice.entity;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// Single row the outbox relay locks for each batch, so only one instance relays at a time
+@Entity
+@Table(name = "outbox_relay_lock")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OutboxRelayLock {
+    @Id
+    private Integer id;
+}
@@ -17,6 +17,7 @@ public class InventoryStatusEvent {
     private String eventType = "INVENTORY_STATUS";
     private LocalDateTime timestamp;
     private Long orderId;
+    private String orderNumber;
     private boolean isInStock;
     private List<InventoryItem> unavailableItems;
     
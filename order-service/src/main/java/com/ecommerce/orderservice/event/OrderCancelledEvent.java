@@ -0,0 +1,13 @@
+package com.ecommerce.orderservice.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class OrderCancelledEvent {
+    private Long orderId;
+    private String orderNumber;
+}
@@ -15,4 +15,5 @@ public class PaymentCompletedEvent {
     private String paymentId;
     private BigDecimal amount;
     private String status;
+    private String transactionId;
 }
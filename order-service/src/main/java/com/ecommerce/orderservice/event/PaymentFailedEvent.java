@@ -0,0 +1,18 @@
+package com.ecommerce.orderservice.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class PaymentFailedEvent {
+    private Long orderId;
+    private String orderNumber;
+    private String paymentId;
+    private BigDecimal amount;
+    private String errorMessage;
+}
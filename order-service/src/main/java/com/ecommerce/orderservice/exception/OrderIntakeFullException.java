@@ -0,0 +1,7 @@
+package com.ecommerce.orderservice.exception;
+
+public class OrderIntakeFullException extends RuntimeException {
+    public OrderIntakeFullException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,7 @@
+package com.ecommerce.orderservice.exception;
+
+public class ProductCatalogUnavailableException extends RuntimeException {
+    public ProductCatalogUnavailableException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,10 @@
+package com.ecommerce.orderservice.id;
+
+/**
+ * Produces the public order number for a new order. Implementations must be thread-safe
+ * and must never return the same value twice across the deployment.
+ */
+public interface OrderNumberGenerator {
+
+    String next();
+}
@@ -0,0 +1,80 @@
+package com.ecommerce.orderservice.id;
+
+import java.time.Clock;
+import java.time.Instant;
+
+/**
+ * 64-bit ids laid out as 41 bits of milliseconds since {@link #EPOCH}, 10 bits of node id and
+ * 12 bits of per-millisecond sequence, rendered as 13 Crockford base32 characters. Ids from one
+ * node are strictly increasing and the fixed-width text sorts the same way as the number, so new
+ * orders append to the end of any index on the order number. Nodes only need distinct node ids.
+ */
+public class TimeOrderedIdGenerator implements OrderNumberGenerator {
+
+    public static final Instant EPOCH = Instant.parse("2024-01-01T00:00:00Z");
+
+    static final int NODE_BITS = 10;
+    static final int SEQUENCE_BITS = 12;
+    public static final int MAX_NODE_ID = (1 << NODE_BITS) - 1;
+    private static final int MAX_SEQUENCE = (1 << SEQUENCE_BITS) - 1;
+
+    private static final char[] ALPHABET = "0123456789ABCDEFGHJKMNPQRSTVWXYZ".toCharArray();
+    static final int LENGTH = 13;
+
+    private final long node;
+    private final Clock clock;
+    private final long epochMillis = EPOCH.toEpochMilli();
+
+    private long lastMillis = -1;
+    private long sequence;
+
+    public TimeOrderedIdGenerator(int nodeId) {
+        this(nodeId, Clock.systemUTC());
+    }
+
+    public TimeOrderedIdGenerator(int nodeId, Clock clock) {
+        if (nodeId < 0 || nodeId > MAX_NODE_ID) {
+            throw new IllegalArgumentException("Node id must be between 0 and " + MAX_NODE_ID + " but was " + nodeId);
+        }
+        this.node = nodeId;
+        this.clock = clock;
+    }
+
+    @Override
+    public String next() {
+        return format(nextId());
+    }
+
+    public synchronized long nextId() {
+        long millis = clock.millis() - epochMillis;
+        if (millis > lastMillis) {
+            lastMillis = millis;
+            sequence = 0;
+        } else if (sequence < MAX_SEQUENCE) {
+            // Same millisecond, or the clock stepped back: keep counting from the last timestamp
+            sequence++;
+        } else {
+            // Sequence exhausted; wait for the clock to reach the next millisecond instead of running ahead of it
+            do {
+                Thread.onSpinWait();
+                millis = clock.millis() - epochMillis;
+            } while (millis <= lastMillis);
+            lastMillis = millis;
+            sequence = 0;
+        }
+        return (lastMillis << (NODE_BITS + SEQUENCE_BITS)) | (node << SEQUENCE_BITS) | sequence;
+    }
+
+    public static String format(long id) {
+        char[] chars = new char[LENGTH];
+        for (int i = LENGTH - 1; i >= 0; i--) {
+            chars[i] = ALPHABET[(int) (id & 31)];
+            id >>>= 5;
+        }
+        return new String(chars);
+    }
+
+    public static Instant timestampOf(long id) {
+        return Instant.ofEpochMilli((id >>> (NODE_BITS + SEQUENCE_BITS)) + EPOCH.toEpochMilli());
+    }
+}
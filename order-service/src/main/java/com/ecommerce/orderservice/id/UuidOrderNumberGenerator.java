@@ -0,0 +1,14 @@
+package com.ecommerce.orderservice.id;
+
+import java.util.UUID;
+
+/**
+ * Random 36-character UUIDs, the original order number format.
+ */
+public class UuidOrderNumberGenerator implements OrderNumberGenerator {
+
+    @Override
+    public String next() {
+        return UUID.randomUUID().toString();
+    }
+}
@@ -0,0 +1,9 @@
+package com.ecommerce.orderservice.outbox;
+
+import com.ecommerce.orderservice.entity.OutboxEventType;
+
+/**
+ * One event to append to the outbox, keyed by the order it belongs to.
+ */
+public record OutboxMessage(String orderNumber, OutboxEventType type, Object event) {
+}
@@ -0,0 +1,174 @@
+package com.ecommerce.orderservice.outbox;
+
+import com.ecommerce.orderservice.entity.OutboxEvent;
+import com.ecommerce.orderservice.repository.OutboxEventRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Tails {@code order_outbox} and publishes unsent rows to Kafka. Only one instance relays at a
+ * time: each batch runs while holding the {@code outbox_relay_lock} row, and the other instances
+ * skip their poll while it is taken. With a single relay, an order's events leave in id order.
+ * The batch is handed to the producer in one go so it compresses and ships as a few large
+ * requests, and the rows that were acknowledged are marked sent with a single update.
+ *
+ * <p>A row that fails to send is parked with an exponential back-off, and later events of the
+ * same order wait behind it, so a few stuck rows never hold up everything else.
+ *
+ * <p>Delivery is at-least-once: if the instance dies between the broker ack and the commit,
+ * the rows are published again on the next poll.
+ */
+@Component
+@Slf4j
+public class OutboxRelay {
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final KafkaTemplate<String, Object> kafkaTemplate;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+    private final int maxBatchesPerPoll;
+    private final long sendTimeoutMs;
+    private final long retentionHours;
+    private final long retryBackoffMs;
+    private final long maxRetryBackoffMs;
+    private volatile boolean relayLockCreated;
+
+    public OutboxRelay(OutboxEventRepository outboxEventRepository,
+                       KafkaTemplate<String, Object> kafkaTemplate,
+                       ObjectMapper objectMapper,
+                       PlatformTransactionManager transactionManager,
+                       @Value("${app.outbox.batch-size:500}") int batchSize,
+                       @Value("${app.outbox.max-batches-per-poll:20}") int maxBatchesPerPoll,
+                       @Value("${app.outbox.send-timeout-ms:10000}") long sendTimeoutMs,
+                       @Value("${app.outbox.retention-hours:24}") long retentionHours,
+                       @Value("${app.outbox.retry-backoff-ms:1000}") long retryBackoffMs,
+                       @Value("${app.outbox.max-retry-backoff-ms:300000}") long maxRetryBackoffMs) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.kafkaTemplate = kafkaTemplate;
+        this.objectMapper = objectMapper;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.batchSize = batchSize;
+        this.maxBatchesPerPoll = maxBatchesPerPoll;
+        this.sendTimeoutMs = sendTimeoutMs;
+        this.retentionHours = retentionHours;
+        this.retryBackoffMs = retryBackoffMs;
+        this.maxRetryBackoffMs = maxRetryBackoffMs;
+    }
+
+    // Keeps draining while batches come back full, then sleeps until the next poll
+    @Scheduled(fixedDelayString = "${app.outbox.poll-interval-ms:200}")
+    public void poll() {
+        if (!relayLockCreated) {
+            transactionTemplate.executeWithoutResult(status -> outboxEventRepository.createRelayLock());
+            relayLockCreated = true;
+        }
+        for (int i = 0; i < maxBatchesPerPoll; i++) {
+            Integer claimed = transactionTemplate.execute(status -> relayBatch());
+            if (claimed == null || claimed < batchSize) {
+                return;
+            }
+        }
+    }
+
+    private int relayBatch() {
+        // Another instance is relaying; it drains the outbox meanwhile
+        if (outboxEventRepository.tryLockRelay().isEmpty()) {
+            return 0;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        List<OutboxEvent> events = outboxEventRepository.findRelayable(now, batchSize);
+        if (events.isEmpty()) {
+            return 0;
+        }
+
+        // An order's events after its first failure are held back, or left unsent, so the retry keeps them in order
+        Set<String> failedAggregates = new HashSet<>();
+        List<CompletableFuture<SendResult<String, Object>>> sends = new ArrayList<>(events.size());
+        for (OutboxEvent event : events) {
+            CompletableFuture<SendResult<String, Object>> send = null;
+            if (!failedAggregates.contains(event.getAggregateId())) {
+                send = send(event);
+                if (send.isCompletedExceptionally()) {
+                    failed(event, send.handle((result, e) -> e).join(), failedAggregates, now);
+                    send = null;
+                }
+            }
+            sends.add(send);
+        }
+        kafkaTemplate.flush();
+
+        List<Long> sentIds = new ArrayList<>(events.size());
+        for (int i = 0; i < events.size(); i++) {
+            OutboxEvent event = events.get(i);
+            CompletableFuture<SendResult<String, Object>> send = sends.get(i);
+            if (send == null || failedAggregates.contains(event.getAggregateId())) {
+                continue;
+            }
+            try {
+                send.get(sendTimeoutMs, TimeUnit.MILLISECONDS);
+                sentIds.add(event.getId());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            } catch (Exception e) {
+                failed(event, e, failedAggregates, now);
+            }
+        }
+        if (!sentIds.isEmpty()) {
+            outboxEventRepository.markSent(sentIds, LocalDateTime.now());
+        }
+        log.debug("Relayed {} of {} outbox events", sentIds.size(), events.size());
+        return events.size();
+    }
+
+    // Left unsent and parked; the order's later events wait until it goes through
+    private void failed(OutboxEvent event, Throwable cause, Set<String> failedAggregates, LocalDateTime now) {
+        failedAggregates.add(event.getAggregateId());
+        int attempts = event.getAttempts() + 1;
+        long backoffMs = Math.min(maxRetryBackoffMs, retryBackoffMs << Math.min(attempts - 1, 20));
+        outboxEventRepository.markFailed(event.getId(), now.plusNanos(backoffMs * 1_000_000));
+        log.warn("Failed to publish outbox event {} for order {} (attempt {}), retrying in {} ms",
+                event.getId(), event.getAggregateId(), attempts, backoffMs, cause);
+    }
+
+    private CompletableFuture<SendResult<String, Object>> send(OutboxEvent event) {
+        try {
+            Object payload = objectMapper.readValue(event.getPayload(), event.getEventType().getEventClass());
+            return kafkaTemplate.send(event.getTopic(), event.getAggregateId(), payload);
+        } catch (Exception e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    // Sent rows are only kept around for troubleshooting; delete in chunks to keep transactions short
+    @Scheduled(fixedDelayString = "${app.outbox.purge-interval-ms:3600000}",
+            initialDelayString = "${app.outbox.purge-interval-ms:3600000}")
+    public void purgeSent() {
+        LocalDateTime sentBefore = LocalDateTime.now().minusHours(retentionHours);
+        int total = 0;
+        int deleted;
+        do {
+            deleted = transactionTemplate.execute(status -> outboxEventRepository.deleteSentBefore(sentBefore, 1000));
+            total += deleted;
+        } while (deleted == 1000);
+        if (total > 0) {
+            log.info("Purged {} sent outbox events", total);
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package com.ecommerce.orderservice.outbox;
+
+import com.ecommerce.orderservice.entity.OutboxEvent;
+import com.ecommerce.orderservice.entity.OutboxEventType;
+import com.ecommerce.orderservice.repository.OrderBatchRepository;
+import com.ecommerce.orderservice.repository.OutboxEventRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Records events in the caller's transaction instead of sending them to Kafka directly, so an
+ * event exists exactly when the order change that produced it was committed.
+ * {@link OutboxRelay} publishes the rows afterwards.
+ */
+@Component
+@RequiredArgsConstructor
+public class OutboxWriter {
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final OrderBatchRepository orderBatchRepository;
+    private final ObjectMapper objectMapper;
+
+    @Value("${app.kafka.topics.order-created}")
+    private String orderCreatedTopic;
+
+    @Value("${app.kafka.topics.order-updated}")
+    private String orderUpdatedTopic;
+
+    @Value("${app.kafka.topics.order-cancelled}")
+    private String orderCancelledTopic;
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void append(String orderNumber, OutboxEventType type, Object event) {
+        outboxEventRepository.save(toRow(orderNumber, type, event));
+    }
+
+    // Same as append, as one JDBC batch
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void appendAll(List<OutboxMessage> messages) {
+        if (messages.isEmpty()) {
+            return;
+        }
+        List<OutboxEvent> rows = new ArrayList<>(messages.size());
+        for (OutboxMessage message : messages) {
+            rows.add(toRow(message.orderNumber(), message.type(), message.event()));
+        }
+        orderBatchRepository.insertOutboxEvents(rows);
+    }
+
+    private OutboxEvent toRow(String orderNumber, OutboxEventType type, Object event) {
+        String payload;
+        try {
+            payload = objectMapper.writeValueAsString(event);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize " + type + " event for order " + orderNumber, e);
+        }
+        return OutboxEvent.builder()
+                .aggregateId(orderNumber)
+                .eventType(type)
+                .topic(topicFor(type))
+                .payload(payload)
+                .createdAt(LocalDateTime.now())
+                .build();
+    }
+
+    private String topicFor(OutboxEventType type) {
+        return switch (type) {
+            case ORDER_CREATED -> orderCreatedTopic;
+            case ORDER_UPDATED -> orderUpdatedTopic;
+            case ORDER_CANCELLED -> orderCancelledTopic;
+        };
+    }
+}
@@ -0,0 +1,34 @@
+package com.ecommerce.orderservice.repository;
+
+import com.ecommerce.orderservice.entity.ArchivedOrder;
+import com.ecommerce.orderservice.repository.projection.OrderSummaryView;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface ArchivedOrderRepository extends JpaRepository<ArchivedOrder, Long> {
+    
+    // Mirrors the history queries on OrderRepository so the two can be merged page by page
+    List<OrderSummaryView> findSummariesByUserId(Long userId, Pageable pageable);
+    
+    @Query("SELECT a.id AS id, a.orderNumber AS orderNumber, a.totalAmount AS totalAmount, a.status AS status, " +
+           "a.orderDate AS orderDate FROM ArchivedOrder a WHERE a.userId = :userId ORDER BY a.orderDate DESC, a.id DESC")
+    List<OrderSummaryView> findHistoryFirstPage(@Param("userId") Long userId, Pageable pageable);
+    
+    @Query("SELECT a.id AS id, a.orderNumber AS orderNumber, a.totalAmount AS totalAmount, a.status AS status, " +
+           "a.orderDate AS orderDate FROM ArchivedOrder a WHERE a.userId = :userId " +
+           "AND (a.orderDate < :orderDate OR (a.orderDate = :orderDate AND a.id < :id)) " +
+           "ORDER BY a.orderDate DESC, a.id DESC")
+    List<OrderSummaryView> findHistoryAfter(@Param("userId") Long userId,
+                                            @Param("orderDate") LocalDateTime orderDate,
+                                            @Param("id") Long id,
+                                            Pageable pageable);
+    
+    long countByUserId(Long userId);
+}
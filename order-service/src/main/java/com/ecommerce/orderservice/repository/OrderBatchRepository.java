@@ -0,0 +1,104 @@
+package com.ecommerce.orderservice.repository;
+
+import com.ecommerce.orderservice.entity.ArchivedOrder;
+import com.ecommerce.orderservice.entity.Order;
+import com.ecommerce.orderservice.entity.OrderItem;
+import com.ecommerce.orderservice.entity.OutboxEvent;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Plain JDBC batch writes for queued order intake, the outbox and the order archive. With
+ * rewriteBatchedStatements each batch goes out as multi-row inserts. Runs inside the caller's transaction.
+ */
+@Repository
+@RequiredArgsConstructor
+public class OrderBatchRepository {
+
+    private static final String INSERT_ORDER_SQL =
+            "INSERT INTO orders (order_number, user_id, total_amount, status, shipping_address, billing_address, " +
+            "payment_method, order_date) VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private static final String INSERT_ORDER_ITEM_SQL =
+            "INSERT INTO order_items (order_id, product_id, product_name, quantity, unit_price, subtotal) " +
+            "VALUES (?, ?, ?, ?, ?, ?)";
+
+    private static final String INSERT_OUTBOX_SQL =
+            "INSERT INTO order_outbox (aggregate_id, event_type, topic, payload, created_at) VALUES (?, ?, ?, ?, ?)";
+
+    private static final String INSERT_ARCHIVED_ORDER_SQL =
+            "INSERT INTO order_archive (id, order_number, user_id, order_date, status, total_amount, archived_at, payload) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Inserts the orders and their items, and sets the generated order ids on the entities.
+     */
+    public void insertOrders(List<Order> orders) {
+        jdbcTemplate.execute((ConnectionCallback<Void>) connection -> {
+            try (PreparedStatement ps = connection.prepareStatement(INSERT_ORDER_SQL, Statement.RETURN_GENERATED_KEYS)) {
+                for (Order order : orders) {
+                    ps.setString(1, order.getOrderNumber());
+                    ps.setLong(2, order.getUserId());
+                    ps.setBigDecimal(3, order.getTotalAmount());
+                    ps.setString(4, order.getStatus().name());
+                    ps.setString(5, order.getShippingAddress());
+                    ps.setString(6, order.getBillingAddress());
+                    ps.setString(7, order.getPaymentMethod());
+                    ps.setTimestamp(8, Timestamp.valueOf(order.getOrderDate()));
+                    ps.addBatch();
+                }
+                ps.executeBatch();
+
+                int index = 0;
+                try (ResultSet keys = ps.getGeneratedKeys()) {
+                    while (keys.next() && index < orders.size()) {
+                        orders.get(index++).setId(keys.getLong(1));
+                    }
+                }
+                if (index != orders.size()) {
+                    throw new IllegalStateException("Expected " + orders.size() + " generated ids but got " + index);
+                }
+                return null;
+            }
+        });
+
+        List<Object[]> items = new ArrayList<>();
+        for (Order order : orders) {
+            for (OrderItem item : order.getOrderItems()) {
+                items.add(new Object[]{order.getId(), item.getProductId(), item.getProductName(), item.getQuantity(),
+                        item.getUnitPrice(), item.getSubtotal()});
+            }
+        }
+        jdbcTemplate.batchUpdate(INSERT_ORDER_ITEM_SQL, items);
+    }
+
+    public void insertOutboxEvents(List<OutboxEvent> events) {
+        List<Object[]> rows = new ArrayList<>(events.size());
+        for (OutboxEvent event : events) {
+            rows.add(new Object[]{event.getAggregateId(), event.getEventType().name(), event.getTopic(),
+                    event.getPayload(), Timestamp.valueOf(event.getCreatedAt())});
+        }
+        jdbcTemplate.batchUpdate(INSERT_OUTBOX_SQL, rows);
+    }
+
+    public void insertArchivedOrders(List<ArchivedOrder> orders) {
+        List<Object[]> rows = new ArrayList<>(orders.size());
+        for (ArchivedOrder order : orders) {
+            rows.add(new Object[]{order.getId(), order.getOrderNumber(), order.getUserId(),
+                    Timestamp.valueOf(order.getOrderDate()), order.getStatus().name(), order.getTotalAmount(),
+                    Timestamp.valueOf(order.getArchivedAt()), order.getPayload()});
+        }
+        jdbcTemplate.batchUpdate(INSERT_ARCHIVED_ORDER_SQL, rows);
+    }
+}
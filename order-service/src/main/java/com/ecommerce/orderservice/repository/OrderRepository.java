@@ -1,12 +1,88 @@
 package com.ecommerce.orderservice.repository;
 
 import com.ecommerce.orderservice.entity.Order;
+import com.ecommerce.orderservice.entity.OrderStatus;
+import com.ecommerce.orderservice.repository.projection.OrderSummaryView;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
 @Repository
 public interface OrderRepository extends JpaRepository<Order, Long> {
-    Page<Order> findByUserId(Long userId, Pageable pageable);
+    Page<OrderSummaryView> findSummariesByUserId(Long userId, Pageable pageable);
+    
+    // Keyset pages over idx_orders_user_date_id, newest first; the pageable only supplies the limit
+    @Query("SELECT o.id AS id, o.orderNumber AS orderNumber, o.totalAmount AS totalAmount, o.status AS status, " +
+           "o.orderDate AS orderDate FROM Order o WHERE o.userId = :userId ORDER BY o.orderDate DESC, o.id DESC")
+    List<OrderSummaryView> findHistoryFirstPage(@Param("userId") Long userId, Pageable pageable);
+    
+    @Query("SELECT o.id AS id, o.orderNumber AS orderNumber, o.totalAmount AS totalAmount, o.status AS status, " +
+           "o.orderDate AS orderDate FROM Order o WHERE o.userId = :userId " +
+           "AND (o.orderDate < :orderDate OR (o.orderDate = :orderDate AND o.id < :id)) " +
+           "ORDER BY o.orderDate DESC, o.id DESC")
+    List<OrderSummaryView> findHistoryAfter(@Param("userId") Long userId,
+                                            @Param("orderDate") LocalDateTime orderDate,
+                                            @Param("id") Long id,
+                                            Pageable pageable);
+    
+    long countByUserId(Long userId);
+    
+    List<OrderSummaryView> findSummariesByIdIn(Collection<Long> ids);
+    
+    // Claims completed orders for the archiver; rows another instance is archiving are skipped.
+    // Walks idx_orders_status_date without sorting, so the scan and its locks stop at the limit
+    @Query(value = "SELECT id FROM orders WHERE status IN (:statuses) AND order_date < :cutoff " +
+                   "LIMIT :limit FOR UPDATE SKIP LOCKED", nativeQuery = true)
+    List<Long> lockArchivable(@Param("statuses") Collection<String> statuses,
+                              @Param("cutoff") LocalDateTime cutoff,
+                              @Param("limit") int limit);
+    
+    @Query("SELECT DISTINCT o FROM Order o LEFT JOIN FETCH o.orderItems LEFT JOIN FETCH o.payment WHERE o.id IN :ids")
+    List<Order> findDetailsByIdIn(@Param("ids") Collection<Long> ids);
+    
+    @Modifying
+    @Query("DELETE FROM Order o WHERE o.id IN :ids")
+    int deleteByIdIn(@Param("ids") Collection<Long> ids);
+    
+    // Only rows still in the expected status move, so a concurrent change shows up in the returned count
+    @Modifying
+    @Query("UPDATE Order o SET o.status = :target WHERE o.id IN :ids AND o.status = :current")
+    int updateStatus(@Param("ids") Collection<Long> ids,
+                     @Param("current") OrderStatus current,
+                     @Param("target") OrderStatus target);
+    
+    Optional<Order> findByOrderNumber(String orderNumber);
+    
+    // Order detail in one statement: items and the mappedBy payment are joined instead of loaded one by one
+    @Query("SELECT o FROM Order o LEFT JOIN FETCH o.orderItems LEFT JOIN FETCH o.payment WHERE o.id = :id")
+    Optional<Order> findDetailById(@Param("id") Long id);
+    
+    // Status changes read, check and write the whole order; the row lock keeps concurrent writers from overwriting each other
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT o FROM Order o LEFT JOIN FETCH o.orderItems LEFT JOIN FETCH o.payment WHERE o.id = :id")
+    Optional<Order> findDetailForUpdateById(@Param("id") Long id);
+    
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT o FROM Order o WHERE o.id = :id")
+    Optional<Order> findForUpdateById(@Param("id") Long id);
+    
+    // Saga batches lock every order they touch, with its payment, in one query per key type
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT o FROM Order o LEFT JOIN FETCH o.payment WHERE o.orderNumber IN :orderNumbers")
+    List<Order> findWithPaymentByOrderNumberIn(@Param("orderNumbers") Collection<String> orderNumbers);
+    
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT o FROM Order o LEFT JOIN FETCH o.payment WHERE o.id IN :ids")
+    List<Order> findWithPaymentByIdIn(@Param("ids") Collection<Long> ids);
 }
@@ -0,0 +1,44 @@
+package com.ecommerce.orderservice.repository;
+
+import com.ecommerce.orderservice.entity.OutboxEvent;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Long> {
+
+    // Skips parked rows and everything queued behind a parked row of the same order, so an order's events go out in order
+    @Query(value = "SELECT * FROM order_outbox o WHERE o.sent_at IS NULL " +
+                   "AND (o.next_attempt_at IS NULL OR o.next_attempt_at <= :now) " +
+                   "AND NOT EXISTS (SELECT 1 FROM order_outbox p WHERE p.aggregate_id = o.aggregate_id " +
+                   "AND p.id < o.id AND p.sent_at IS NULL AND p.next_attempt_at > :now) " +
+                   "ORDER BY o.id LIMIT :limit", nativeQuery = true)
+    List<OutboxEvent> findRelayable(@Param("now") LocalDateTime now, @Param("limit") int limit);
+
+    // Empty while another instance holds the relay lock
+    @Query(value = "SELECT id FROM outbox_relay_lock WHERE id = 1 FOR UPDATE SKIP LOCKED", nativeQuery = true)
+    List<Integer> tryLockRelay();
+
+    @Modifying
+    @Query(value = "INSERT INTO outbox_relay_lock (id) VALUES (1) ON DUPLICATE KEY UPDATE id = id", nativeQuery = true)
+    int createRelayLock();
+
+    @Modifying
+    @Query("UPDATE OutboxEvent e SET e.attempts = e.attempts + 1, e.nextAttemptAt = :nextAttemptAt WHERE e.id = :id")
+    int markFailed(@Param("id") Long id, @Param("nextAttemptAt") LocalDateTime nextAttemptAt);
+
+    @Modifying
+    @Query("UPDATE OutboxEvent e SET e.sentAt = :sentAt WHERE e.id IN :ids")
+    int markSent(@Param("ids") Collection<Long> ids, @Param("sentAt") LocalDateTime sentAt);
+
+    @Modifying
+    @Query(value = "DELETE FROM order_outbox WHERE sent_at < :sentBefore LIMIT :limit", nativeQuery = true)
+    int deleteSentBefore(@Param("sentBefore") LocalDateTime sentBefore, @Param("limit") int limit);
+}
@@ -0,0 +1,22 @@
+package com.ecommerce.orderservice.repository.projection;
+
+import com.ecommerce.orderservice.entity.OrderStatus;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Columns shown in an order history row. Selected directly so history pages never load
+ * items, payments or addresses, and all of them are in the user history index.
+ */
+public interface OrderSummaryView {
+    Long getId();
+
+    String getOrderNumber();
+
+    BigDecimal getTotalAmount();
+
+    OrderStatus getStatus();
+
+    LocalDateTime getOrderDate();
+}
@@ -0,0 +1,13 @@
+package com.ecommerce.orderservice.service;
+
+import com.ecommerce.orderservice.dto.OrderRequest;
+import com.ecommerce.orderservice.dto.OrderResponse;
+
+public interface IdempotencyService {
+    
+    IdempotentResult createOrder(String idempotencyKey, OrderRequest orderRequest);
+    
+    // replayed is true when the response was stored by an earlier request with the same key
+    record IdempotentResult(OrderResponse response, boolean replayed) {
+    }
+}
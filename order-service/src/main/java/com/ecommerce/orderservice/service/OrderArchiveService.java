@@ -0,0 +1,15 @@
+package com.ecommerce.orderservice.service;
+
+import com.ecommerce.orderservice.dto.OrderResponse;
+
+import java.util.Optional;
+
+public interface OrderArchiveService {
+    
+    // Moves completed orders past the retention period out of the hot tables; returns how many were moved
+    int archiveCompletedOrders();
+    
+    Optional<OrderResponse> findArchivedOrder(Long id);
+    
+    boolean isArchived(Long id);
+}
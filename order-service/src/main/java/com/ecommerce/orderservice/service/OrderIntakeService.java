@@ -0,0 +1,11 @@
+package com.ecommerce.orderservice.service;
+
+import com.ecommerce.orderservice.dto.OrderIntakeResponse;
+import com.ecommerce.orderservice.dto.OrderRequest;
+
+public interface OrderIntakeService {
+    
+    OrderIntakeResponse submitOrder(OrderRequest orderRequest);
+    
+    OrderIntakeResponse getIntakeStatus(String orderNumber);
+}
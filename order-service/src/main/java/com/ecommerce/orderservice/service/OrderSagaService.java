@@ -0,0 +1,10 @@
+package com.ecommerce.orderservice.service;
+
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+
+import java.util.List;
+
+public interface OrderSagaService {
+    
+    void handleOrderOutcomes(List<ConsumerRecord<String, String>> records);
+}
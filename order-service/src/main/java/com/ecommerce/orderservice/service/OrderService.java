@@ -1,10 +1,15 @@
 package com.ecommerce.orderservice.service;
 
 import com.ecommerce.orderservice.dto.OrderDto;
+import com.ecommerce.orderservice.dto.OrderHistoryPage;
 import com.ecommerce.orderservice.dto.OrderRequest;
 import com.ecommerce.orderservice.dto.OrderResponse;
+import com.ecommerce.orderservice.dto.OrderStatusBatchRequest;
+import com.ecommerce.orderservice.dto.OrderStatusBatchResponse;
 import com.ecommerce.orderservice.dto.PagedResponse;
 
+import java.util.List;
+
 public interface OrderService {
     
     OrderResponse createOrder(OrderRequest orderRequest);
@@ -13,9 +18,13 @@ public interface OrderService {
     
     PagedResponse<OrderDto> getOrdersByUserId(Long userId, int page, int size);
     
+    OrderHistoryPage getOrderHistory(Long userId, String cursor, int size, boolean includeTotal);
+    
     PagedResponse<OrderDto> getAllOrders(int page, int size);
     
     OrderResponse updateOrderStatus(Long id, String status);
     
+    OrderStatusBatchResponse updateOrderStatuses(List<OrderStatusBatchRequest.Update> updates);
+    
     void cancelOrder(Long id);
 }
@@ -0,0 +1,17 @@
+package com.ecommerce.orderservice.service;
+
+import com.ecommerce.orderservice.dto.OrderItemRequest;
+import com.ecommerce.productclient.ProductSnapshot;
+
+import java.util.List;
+import java.util.Map;
+
+public interface ProductPricingService {
+    
+    /**
+     * Looks up the current catalog entry for every product on the order, keyed by product id.
+     *
+     * @throws IllegalArgumentException if a product is unknown or no longer active
+     */
+    Map<Long, ProductSnapshot> priceItems(List<OrderItemRequest> items);
+}
@@ -0,0 +1,224 @@
+package com.ecommerce.orderservice.service.impl;
+
+import com.ecommerce.orderservice.dto.OrderRequest;
+import com.ecommerce.orderservice.dto.OrderResponse;
+import com.ecommerce.orderservice.entity.IdempotencyKey;
+import com.ecommerce.orderservice.repository.IdempotencyKeyRepository;
+import com.ecommerce.orderservice.service.IdempotencyService;
+import com.ecommerce.orderservice.service.OrderService;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Makes order creation safe to retry under an {@code Idempotency-Key} header. The first
+ * request with a key claims it by inserting a row into {@code order_idempotency_keys} in the
+ * same transaction that creates the order, and stores the response there. Later requests with
+ * the key get that response back without touching the order tables.
+ *
+ * <p>Keys seen by this instance are kept in a bounded in-memory map of futures, so a replay is
+ * a map lookup and a duplicate that arrives while the first request is still running waits for
+ * its result. Duplicates that land on another instance are serialized by the unique key: the
+ * second insert blocks until the first transaction commits, then fails and reads the stored row.
+ */
+@Service
+@Slf4j
+public class IdempotencyServiceImpl implements IdempotencyService {
+
+    private static final int MAX_KEY_LENGTH = 128;
+
+    private final OrderService orderService;
+    private final IdempotencyKeyRepository idempotencyKeyRepository;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final long ttlHours;
+    private final long waitTimeoutMs;
+    private final int maxEntries;
+    private final LinkedHashMap<String, Entry> entries;
+
+    public IdempotencyServiceImpl(OrderService orderService,
+                                  IdempotencyKeyRepository idempotencyKeyRepository,
+                                  ObjectMapper objectMapper,
+                                  PlatformTransactionManager transactionManager,
+                                  @Value("${app.idempotency.ttl-hours:24}") long ttlHours,
+                                  @Value("${app.idempotency.wait-timeout-ms:30000}") long waitTimeoutMs,
+                                  @Value("${app.idempotency.max-entries:100000}") int maxEntries) {
+        this.orderService = orderService;
+        this.idempotencyKeyRepository = idempotencyKeyRepository;
+        this.objectMapper = objectMapper;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.ttlHours = ttlHours;
+        this.waitTimeoutMs = waitTimeoutMs;
+        this.maxEntries = maxEntries;
+        // Access order turns the map into an LRU; evicted keys are still found in the table
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                return size() > IdempotencyServiceImpl.this.maxEntries;
+            }
+        };
+    }
+
+    @Override
+    public IdempotentResult createOrder(String idempotencyKey, OrderRequest orderRequest) {
+        if (idempotencyKey.isBlank() || idempotencyKey.length() > MAX_KEY_LENGTH) {
+            throw new IllegalArgumentException("Idempotency-Key must be 1 to " + MAX_KEY_LENGTH + " characters");
+        }
+        String requestHash = hash(orderRequest);
+
+        CompletableFuture<Stored> claim = new CompletableFuture<>();
+        CompletableFuture<Stored> existing;
+        synchronized (entries) {
+            Entry entry = entries.get(idempotencyKey);
+            if (entry != null && entry.expiresAt() > System.currentTimeMillis()) {
+                existing = entry.result();
+            } else {
+                existing = null;
+                entries.put(idempotencyKey, new Entry(claim, System.currentTimeMillis() + TimeUnit.HOURS.toMillis(ttlHours)));
+            }
+        }
+        if (existing != null) {
+            return replay(idempotencyKey, requestHash, await(existing));
+        }
+
+        Stored stored;
+        try {
+            stored = loadOrCreate(idempotencyKey, requestHash, orderRequest);
+        } catch (RuntimeException e) {
+            // Nothing was stored, so a retry should run the request again
+            synchronized (entries) {
+                entries.remove(idempotencyKey);
+            }
+            claim.completeExceptionally(e);
+            throw e;
+        }
+        claim.complete(stored);
+        return stored.created() ? new IdempotentResult(stored.response(), false) : replay(idempotencyKey, requestHash, stored);
+    }
+
+    private Stored loadOrCreate(String idempotencyKey, String requestHash, OrderRequest orderRequest) {
+        Optional<IdempotencyKey> row = idempotencyKeyRepository.findByIdempotencyKey(idempotencyKey);
+        if (row.isPresent() && row.get().getExpiresAt().isAfter(LocalDateTime.now())) {
+            return stored(row.get());
+        }
+        try {
+            return transactionTemplate.execute(status -> {
+                row.ifPresent(expired -> {
+                    idempotencyKeyRepository.delete(expired);
+                    idempotencyKeyRepository.flush();
+                });
+                LocalDateTime now = LocalDateTime.now();
+                // Claim the key before doing any work, so a concurrent duplicate blocks here instead of creating an order
+                IdempotencyKey key = idempotencyKeyRepository.saveAndFlush(IdempotencyKey.builder()
+                        .idempotencyKey(idempotencyKey)
+                        .requestHash(requestHash)
+                        .createdAt(now)
+                        .expiresAt(now.plusHours(ttlHours))
+                        .build());
+                OrderResponse response = orderService.createOrder(orderRequest);
+                key.setOrderId(response.getId());
+                key.setResponse(toJson(response));
+                return new Stored(requestHash, response, true);
+            });
+        } catch (DataIntegrityViolationException e) {
+            // Another instance claimed the key; its transaction has committed by the time our insert fails
+            log.debug("Idempotency key {} was claimed concurrently", idempotencyKey);
+            return idempotencyKeyRepository.findByIdempotencyKey(idempotencyKey)
+                    .map(this::stored)
+                    .orElseThrow(() -> e);
+        }
+    }
+
+    private IdempotentResult replay(String idempotencyKey, String requestHash, Stored stored) {
+        if (!stored.requestHash().equals(requestHash)) {
+            throw new IllegalArgumentException("Idempotency-Key " + idempotencyKey + " was already used for a different order");
+        }
+        return new IdempotentResult(stored.response(), true);
+    }
+
+    private Stored await(CompletableFuture<Stored> inFlight) {
+        try {
+            return inFlight.get(waitTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for the original request", e);
+        } catch (TimeoutException e) {
+            throw new IllegalStateException("The original request with this Idempotency-Key is still in progress");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    private Stored stored(IdempotencyKey key) {
+        try {
+            return new Stored(key.getRequestHash(), objectMapper.readValue(key.getResponse(), OrderResponse.class), false);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Stored response for Idempotency-Key " + key.getIdempotencyKey() + " is unreadable", e);
+        }
+    }
+
+    private String toJson(OrderResponse response) {
+        try {
+            return objectMapper.writeValueAsString(response);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize order response", e);
+        }
+    }
+
+    private String hash(OrderRequest orderRequest) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(objectMapper.writeValueAsString(orderRequest).getBytes(StandardCharsets.UTF_8)));
+        } catch (JsonProcessingException | NoSuchAlgorithmException e) {
+            throw new IllegalStateException("Could not hash order request", e);
+        }
+    }
+
+    // Deletes in chunks to keep each transaction short
+    @Scheduled(fixedDelayString = "${app.idempotency.purge-interval-ms:3600000}",
+            initialDelayString = "${app.idempotency.purge-interval-ms:3600000}")
+    public void purgeExpired() {
+        long now = System.currentTimeMillis();
+        synchronized (entries) {
+            entries.values().removeIf(entry -> entry.expiresAt() < now && entry.result().isDone());
+        }
+        int total = 0;
+        int deleted;
+        do {
+            deleted = transactionTemplate.execute(status -> idempotencyKeyRepository.deleteExpired(LocalDateTime.now(), 1000));
+            total += deleted;
+        } while (deleted == 1000);
+        if (total > 0) {
+            log.info("Purged {} expired idempotency keys", total);
+        }
+    }
+
+    private record Entry(CompletableFuture<Stored> result, long expiresAt) {
+    }
+
+    // created is true only for the request that actually created the order
+    private record Stored(String requestHash, OrderResponse response, boolean created) {
+    }
+}
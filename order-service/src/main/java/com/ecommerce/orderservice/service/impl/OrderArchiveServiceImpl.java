@@ -0,0 +1,155 @@
+package com.ecommerce.orderservice.service.impl;
+
+import com.ecommerce.orderservice.dto.OrderResponse;
+import com.ecommerce.orderservice.entity.ArchivedOrder;
+import com.ecommerce.orderservice.entity.Order;
+import com.ecommerce.orderservice.entity.OrderStatus;
+import com.ecommerce.orderservice.repository.ArchivedOrderRepository;
+import com.ecommerce.orderservice.repository.OrderBatchRepository;
+import com.ecommerce.orderservice.repository.OrderItemRepository;
+import com.ecommerce.orderservice.repository.OrderRepository;
+import com.ecommerce.orderservice.repository.PaymentRepository;
+import com.ecommerce.orderservice.service.OrderArchiveService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Moves DELIVERED, CANCELLED and REFUNDED orders older than the retention period into
+ * {@code order_archive}, one gzipped JSON row per order, and deletes them from the hot tables.
+ * Each chunk is claimed with {@code FOR UPDATE SKIP LOCKED} and copied and deleted in its own
+ * short transaction, so instances can archive side by side and a failure loses nothing.
+ */
+@Service
+@Slf4j
+public class OrderArchiveServiceImpl implements OrderArchiveService {
+
+    private static final List<String> ARCHIVED_STATUSES = List.of(
+            OrderStatus.DELIVERED.name(), OrderStatus.CANCELLED.name(), OrderStatus.REFUNDED.name());
+
+    private final OrderRepository orderRepository;
+    private final OrderItemRepository orderItemRepository;
+    private final PaymentRepository paymentRepository;
+    private final ArchivedOrderRepository archivedOrderRepository;
+    private final OrderBatchRepository orderBatchRepository;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final long afterDays;
+    private final int chunkSize;
+    private final int maxChunksPerRun;
+
+    public OrderArchiveServiceImpl(OrderRepository orderRepository,
+                                   OrderItemRepository orderItemRepository,
+                                   PaymentRepository paymentRepository,
+                                   ArchivedOrderRepository archivedOrderRepository,
+                                   OrderBatchRepository orderBatchRepository,
+                                   ObjectMapper objectMapper,
+                                   PlatformTransactionManager transactionManager,
+                                   @Value("${app.archive.after-days:90}") long afterDays,
+                                   @Value("${app.archive.chunk-size:500}") int chunkSize,
+                                   @Value("${app.archive.max-chunks-per-run:200}") int maxChunksPerRun) {
+        this.orderRepository = orderRepository;
+        this.orderItemRepository = orderItemRepository;
+        this.paymentRepository = paymentRepository;
+        this.archivedOrderRepository = archivedOrderRepository;
+        this.orderBatchRepository = orderBatchRepository;
+        this.objectMapper = objectMapper;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.afterDays = afterDays;
+        this.chunkSize = chunkSize;
+        this.maxChunksPerRun = maxChunksPerRun;
+    }
+
+    @Override
+    @Scheduled(fixedDelayString = "${app.archive.interval-ms:3600000}",
+            initialDelayString = "${app.archive.interval-ms:3600000}")
+    public int archiveCompletedOrders() {
+        LocalDateTime cutoff = LocalDateTime.now().minusDays(afterDays);
+        int total = 0;
+        for (int i = 0; i < maxChunksPerRun; i++) {
+            Integer archived = transactionTemplate.execute(status -> archiveChunk(cutoff));
+            total += archived;
+            if (archived < chunkSize) {
+                break;
+            }
+        }
+        if (total > 0) {
+            log.info("Archived {} orders placed before {}", total, cutoff);
+        }
+        return total;
+    }
+
+    private int archiveChunk(LocalDateTime cutoff) {
+        List<Long> ids = orderRepository.lockArchivable(ARCHIVED_STATUSES, cutoff, chunkSize);
+        if (ids.isEmpty()) {
+            return 0;
+        }
+
+        LocalDateTime archivedAt = LocalDateTime.now();
+        List<ArchivedOrder> rows = new ArrayList<>(ids.size());
+        for (Order order : orderRepository.findDetailsByIdIn(ids)) {
+            rows.add(ArchivedOrder.builder()
+                    .id(order.getId())
+                    .orderNumber(order.getOrderNumber())
+                    .userId(order.getUserId())
+                    .orderDate(order.getOrderDate())
+                    .status(order.getStatus())
+                    .totalAmount(order.getTotalAmount())
+                    .archivedAt(archivedAt)
+                    .payload(compress(OrderMapper.toOrderResponse(order)))
+                    .build());
+        }
+        orderBatchRepository.insertArchivedOrders(rows);
+
+        // Children first; the bulk deletes bypass cascades
+        paymentRepository.deleteByOrderIdIn(ids);
+        orderItemRepository.deleteByOrderIdIn(ids);
+        orderRepository.deleteByIdIn(ids);
+        return ids.size();
+    }
+
+    @Override
+    public Optional<OrderResponse> findArchivedOrder(Long id) {
+        return archivedOrderRepository.findById(id).map(archived -> decompress(archived.getPayload()));
+    }
+
+    @Override
+    public boolean isArchived(Long id) {
+        return archivedOrderRepository.existsById(id);
+    }
+
+    private byte[] compress(OrderResponse order) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(512);
+        try (OutputStream out = new GZIPOutputStream(bytes)) {
+            objectMapper.writeValue(out, order);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not archive order " + order.getId(), e);
+        }
+        return bytes.toByteArray();
+    }
+
+    private OrderResponse decompress(byte[] payload) {
+        try (InputStream in = new GZIPInputStream(new ByteArrayInputStream(payload))) {
+            return objectMapper.readValue(in, OrderResponse.class);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not read archived order", e);
+        }
+    }
+}
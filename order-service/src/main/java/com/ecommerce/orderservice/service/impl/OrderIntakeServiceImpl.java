@@ -0,0 +1,203 @@
+package com.ecommerce.orderservice.service.impl;
+
+import com.ecommerce.orderservice.dto.OrderIntakeResponse;
+import com.ecommerce.orderservice.dto.OrderIntakeStatus;
+import com.ecommerce.orderservice.dto.OrderRequest;
+import com.ecommerce.orderservice.entity.Order;
+import com.ecommerce.orderservice.entity.OutboxEventType;
+import com.ecommerce.orderservice.exception.OrderIntakeFullException;
+import com.ecommerce.orderservice.id.OrderNumberGenerator;
+import com.ecommerce.orderservice.outbox.OutboxMessage;
+import com.ecommerce.orderservice.outbox.OutboxWriter;
+import com.ecommerce.orderservice.repository.OrderBatchRepository;
+import com.ecommerce.orderservice.repository.OrderRepository;
+import com.ecommerce.orderservice.service.OrderIntakeService;
+import com.ecommerce.orderservice.service.ProductPricingService;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Accept-then-confirm order intake. A submitted order is validated, given its order number
+ * and put on a bounded in-memory queue; the caller gets 202 straight away and polls the
+ * status URL. Worker threads drain the queue in batches and write each batch, its items and
+ * its outbox events in one transaction with multi-row inserts, so a checkout spike turns into
+ * a few large writes instead of one connection per request.
+ *
+ * <p>The queue is not durable: orders still queued when the process dies are lost. A full
+ * queue is reported as 503 so callers back off instead of piling up requests. Queued and failed
+ * statuses live only on the instance that accepted the order, so a poll that lands elsewhere
+ * before the order is written gets UNKNOWN; callers keep polling until CREATED or their own
+ * deadline.
+ */
+@Service
+@Slf4j
+public class OrderIntakeServiceImpl implements OrderIntakeService {
+
+    private final OrderRepository orderRepository;
+    private final OrderBatchRepository orderBatchRepository;
+    private final OutboxWriter outboxWriter;
+    private final OrderNumberGenerator orderNumberGenerator;
+    private final ProductPricingService productPricingService;
+    private final TransactionTemplate transactionTemplate;
+    private final BlockingQueue<Order> queue;
+    private final ExecutorService workers;
+    private final int batchSize;
+    private final long statusTtlMs;
+    // Orders that are queued or failed; created orders are looked up in the database
+    private final Map<String, Tracked> pending = new ConcurrentHashMap<>();
+    private volatile boolean running = true;
+
+    public OrderIntakeServiceImpl(OrderRepository orderRepository,
+                                  OrderBatchRepository orderBatchRepository,
+                                  OutboxWriter outboxWriter,
+                                  OrderNumberGenerator orderNumberGenerator,
+                                  ProductPricingService productPricingService,
+                                  PlatformTransactionManager transactionManager,
+                                  @Value("${app.order-intake.queue-capacity:10000}") int queueCapacity,
+                                  @Value("${app.order-intake.worker-threads:2}") int workerThreads,
+                                  @Value("${app.order-intake.batch-size:200}") int batchSize,
+                                  @Value("${app.order-intake.status-ttl-ms:600000}") long statusTtlMs) {
+        this.orderRepository = orderRepository;
+        this.orderBatchRepository = orderBatchRepository;
+        this.outboxWriter = outboxWriter;
+        this.orderNumberGenerator = orderNumberGenerator;
+        this.productPricingService = productPricingService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.batchSize = batchSize;
+        this.statusTtlMs = statusTtlMs;
+        this.workers = Executors.newFixedThreadPool(workerThreads, runnable -> {
+            Thread thread = new Thread(runnable, "order-intake");
+            thread.setDaemon(true);
+            return thread;
+        });
+        for (int i = 0; i < workerThreads; i++) {
+            workers.submit(this::drain);
+        }
+    }
+
+    @Override
+    public OrderIntakeResponse submitOrder(OrderRequest orderRequest) {
+        if (!running) {
+            throw new OrderIntakeFullException("Order intake is shutting down");
+        }
+        // Priced before queueing so unknown or inactive products are rejected with the request
+        Order order = OrderMapper.newOrder(orderRequest, orderNumberGenerator.next(),
+                productPricingService.priceItems(orderRequest.getOrderItems()));
+        Tracked tracked = new Tracked(OrderIntakeStatus.QUEUED, null, System.currentTimeMillis());
+        pending.put(order.getOrderNumber(), tracked);
+        if (!queue.offer(order)) {
+            pending.remove(order.getOrderNumber());
+            throw new OrderIntakeFullException("Order intake queue is full, retry shortly");
+        }
+        return response(order.getOrderNumber(), tracked, null);
+    }
+
+    @Override
+    public OrderIntakeResponse getIntakeStatus(String orderNumber) {
+        Tracked tracked = pending.get(orderNumber);
+        if (tracked != null) {
+            return response(orderNumber, tracked, null);
+        }
+        return orderRepository.findByOrderNumber(orderNumber)
+                .map(order -> response(orderNumber, new Tracked(OrderIntakeStatus.CREATED, null, 0), order.getId()))
+                .orElseGet(() -> response(orderNumber, new Tracked(OrderIntakeStatus.UNKNOWN, null, 0), null));
+    }
+
+    private void drain() {
+        List<Order> batch = new ArrayList<>(batchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                Order first = queue.poll(500, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, batchSize - 1);
+                persist(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (Exception e) {
+                log.error("Order intake worker failed on a batch of {} orders", batch.size(), e);
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void persist(List<Order> batch) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> write(batch));
+            batch.forEach(order -> pending.remove(order.getOrderNumber()));
+            log.debug("Persisted {} queued orders", batch.size());
+        } catch (Exception e) {
+            if (batch.size() == 1) {
+                Order order = batch.get(0);
+                log.warn("Failed to persist queued order {}", order.getOrderNumber(), e);
+                pending.put(order.getOrderNumber(), new Tracked(OrderIntakeStatus.FAILED, e.getMessage(), System.currentTimeMillis()));
+                return;
+            }
+            // One bad order shouldn't fail the rest; retry them one by one to isolate it
+            log.warn("Batch of {} queued orders failed, retrying individually", batch.size(), e);
+            for (Order order : batch) {
+                order.setId(null);
+                persist(List.of(order));
+            }
+        }
+    }
+
+    private void write(List<Order> batch) {
+        orderBatchRepository.insertOrders(batch);
+        List<OutboxMessage> events = new ArrayList<>(batch.size());
+        for (Order order : batch) {
+            events.add(new OutboxMessage(order.getOrderNumber(), OutboxEventType.ORDER_CREATED, OrderMapper.toCreatedEvent(order)));
+        }
+        outboxWriter.appendAll(events);
+    }
+
+    // Failed statuses are kept long enough for clients to poll them, then forgotten
+    @Scheduled(fixedDelayString = "${app.order-intake.status-ttl-ms:600000}")
+    public void expireStatuses() {
+        long cutoff = System.currentTimeMillis() - statusTtlMs;
+        pending.values().removeIf(tracked -> tracked.status() == OrderIntakeStatus.FAILED && tracked.updatedAt() < cutoff);
+    }
+
+    // Stop accepting, then give the workers a chance to write what is already queued
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        running = false;
+        workers.shutdown();
+        if (!workers.awaitTermination(30, TimeUnit.SECONDS)) {
+            log.warn("Order intake stopped with {} orders still queued", queue.size());
+        }
+    }
+
+    private OrderIntakeResponse response(String orderNumber, Tracked tracked, Long orderId) {
+        return OrderIntakeResponse.builder()
+                .orderNumber(orderNumber)
+                .status(tracked.status())
+                .statusUrl("/api/orders/intake/" + orderNumber)
+                .orderId(orderId)
+                .message(tracked.message())
+                .build();
+    }
+
+    private record Tracked(OrderIntakeStatus status, String message, long updatedAt) {
+    }
+}
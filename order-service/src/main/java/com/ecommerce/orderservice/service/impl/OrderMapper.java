@@ -0,0 +1,161 @@
+package com.ecommerce.orderservice.service.impl;
+
+import com.ecommerce.orderservice.dto.OrderDto;
+import com.ecommerce.orderservice.dto.OrderItemDto;
+import com.ecommerce.orderservice.dto.OrderResponse;
+import com.ecommerce.orderservice.dto.PaymentDto;
+import com.ecommerce.orderservice.dto.OrderRequest;
+import com.ecommerce.orderservice.entity.Order;
+import com.ecommerce.orderservice.entity.OrderItem;
+import com.ecommerce.orderservice.entity.OrderStatus;
+import com.ecommerce.orderservice.entity.Payment;
+import com.ecommerce.orderservice.event.OrderCancelledEvent;
+import com.ecommerce.orderservice.event.OrderCreatedEvent;
+import com.ecommerce.orderservice.event.OrderUpdatedEvent;
+import com.ecommerce.orderservice.repository.projection.OrderSummaryView;
+import com.ecommerce.productclient.ProductSnapshot;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+/**
+ * Builds orders and the events published about them; shared by the intake paths and the saga.
+ */
+final class OrderMapper {
+
+    private OrderMapper() {
+    }
+
+    // Lines are priced from the catalog entries in products; the prices and names sent by the client are ignored
+    static Order newOrder(OrderRequest orderRequest, String orderNumber, Map<Long, ProductSnapshot> products) {
+        Order order = new Order();
+        order.setOrderNumber(orderNumber);
+        order.setUserId(orderRequest.getUserId());
+        order.setShippingAddress(orderRequest.getShippingAddress());
+        order.setBillingAddress(orderRequest.getBillingAddress());
+        order.setPaymentMethod(orderRequest.getPaymentMethod());
+        order.setOrderDate(LocalDateTime.now());
+        order.setStatus(OrderStatus.CREATED);
+        
+        // Map order items
+        List<OrderItem> orderItems = orderRequest.getOrderItems().stream()
+                .map(itemRequest -> {
+                    ProductSnapshot product = products.get(itemRequest.getProductId());
+                    OrderItem orderItem = new OrderItem();
+                    orderItem.setProductId(itemRequest.getProductId());
+                    orderItem.setProductName(product.getName());
+                    orderItem.setQuantity(itemRequest.getQuantity());
+                    orderItem.setUnitPrice(product.getPrice());
+                    orderItem.setSubtotal(product.getPrice().multiply(BigDecimal.valueOf(itemRequest.getQuantity())));
+                    orderItem.setOrder(order);
+                    return orderItem;
+                })
+                .collect(Collectors.toList());
+        order.setOrderItems(orderItems);
+        
+        // Calculate total amount based on the order items
+        order.setTotalAmount(orderItems.stream()
+                .map(OrderItem::getSubtotal)
+                .reduce(BigDecimal.ZERO, BigDecimal::add));
+        return order;
+    }
+
+    static OrderCreatedEvent toCreatedEvent(Order order) {
+        return new OrderCreatedEvent(
+                order.getId(),
+                order.getOrderNumber(),
+                order.getUserId(),
+                order.getTotalAmount(),
+                order.getOrderItems().stream()
+                        .map(item -> new OrderItemDto(
+                                item.getProductId(),
+                                item.getProductName(),
+                                item.getQuantity(),
+                                item.getUnitPrice()))
+                        .collect(Collectors.toList()));
+    }
+
+    static OrderResponse toOrderResponse(Order order) {
+        List<OrderItemDto> orderItems = order.getOrderItems().stream()
+                .map(item -> new OrderItemDto(
+                        item.getProductId(),
+                        item.getProductName(),
+                        item.getQuantity(),
+                        item.getUnitPrice()))
+                .collect(Collectors.toList());
+                
+        PaymentDto paymentDto = null;
+        if (order.getPayment() != null) {
+            Payment payment = order.getPayment();
+            paymentDto = new PaymentDto(
+                    payment.getId(),
+                    payment.getPaymentMethod(),
+                    payment.getAmount(),
+                    payment.getTransactionId(),
+                    payment.getStatus().toString()
+            );
+        }
+        
+        return new OrderResponse(
+                order.getId(),
+                order.getOrderNumber(),
+                order.getUserId(),
+                orderItems,
+                order.getTotalAmount(),
+                order.getStatus().toString(),
+                order.getShippingAddress(),
+                order.getBillingAddress(),
+                order.getPaymentMethod(),
+                paymentDto,
+                order.getOrderDate()
+        );
+    }
+
+    static OrderDto toOrderDto(Order order) {
+        return new OrderDto(
+                order.getId(),
+                order.getOrderNumber(),
+                order.getTotalAmount(),
+                order.getStatus().toString(),
+                order.getOrderDate()
+        );
+    }
+
+    static OrderDto toOrderDto(OrderSummaryView order) {
+        return new OrderDto(
+                order.getId(),
+                order.getOrderNumber(),
+                order.getTotalAmount(),
+                order.getStatus().toString(),
+                order.getOrderDate()
+        );
+    }
+
+    // Detached order carrying just the summary columns, enough to check a transition and build its events
+    static Order toOrder(OrderSummaryView view) {
+        return Order.builder()
+                .id(view.getId())
+                .orderNumber(view.getOrderNumber())
+                .totalAmount(view.getTotalAmount())
+                .status(view.getStatus())
+                .orderDate(view.getOrderDate())
+                .build();
+    }
+
+    static OrderUpdatedEvent toUpdatedEvent(Order order) {
+        return OrderUpdatedEvent.builder()
+                .eventId(UUID.randomUUID().toString())
+                .eventType("ORDER_UPDATED")
+                .timestamp(LocalDateTime.now())
+                .order(toOrderDto(order))
+                .build();
+    }
+
+    static OrderCancelledEvent toCancelledEvent(Order order) {
+        return new OrderCancelledEvent(order.getId(), order.getOrderNumber());
+    }
+}
@@ -0,0 +1,242 @@
+package com.ecommerce.orderservice.service.impl;
+
+import com.ecommerce.orderservice.entity.Order;
+import com.ecommerce.orderservice.entity.OrderStatus;
+import com.ecommerce.orderservice.entity.Payment;
+import com.ecommerce.orderservice.entity.PaymentStatus;
+import com.ecommerce.orderservice.event.InventoryStatusEvent;
+import com.ecommerce.orderservice.event.PaymentCompletedEvent;
+import com.ecommerce.orderservice.event.PaymentFailedEvent;
+import com.ecommerce.orderservice.event.PaymentStatusEvent;
+import com.ecommerce.orderservice.outbox.OutboxMessage;
+import com.ecommerce.orderservice.outbox.OutboxWriter;
+import com.ecommerce.orderservice.repository.OrderRepository;
+import com.ecommerce.orderservice.service.OrderSagaService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Advances orders from the outcomes reported by payment-service and inventory-service, which
+ * reports one reservation result per order-created event. An order moves to PROCESSING once it
+ * is both paid and reserved; a failed payment or missing stock cancels it, and the
+ * order-cancelled event releases whatever was reserved.
+ *
+ * <p>The listener spans four topics, so an order's events are not guaranteed to arrive in the
+ * order they were produced. A poll is handled as one batch: the orders it touches are loaded
+ * and row-locked up front, the events are applied in arrival order, and the status updates
+ * and outgoing events are written in one transaction. The lock keeps API status changes and
+ * other consumers from overwriting the batch, or being overwritten by it. Events that would
+ * move an order backwards (redeliveries, late arrivals after a cancellation) are logged and
+ * skipped.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class OrderSagaServiceImpl implements OrderSagaService {
+
+    private final OrderRepository orderRepository;
+    private final OutboxWriter outboxWriter;
+    private final ObjectMapper objectMapper;
+
+    @Value("${app.kafka.topics.payment-completed}")
+    private String paymentCompletedTopic;
+
+    @Value("${app.kafka.topics.payment-failed}")
+    private String paymentFailedTopic;
+
+    @Value("${app.kafka.topics.payment-status}")
+    private String paymentStatusTopic;
+
+    @Value("${app.kafka.topics.inventory-status}")
+    private String inventoryStatusTopic;
+
+    // Payloads come from several services with their own class names, so they are read as JSON per topic
+    @Override
+    @Transactional
+    @KafkaListener(topics = {"${app.kafka.topics.payment-completed}", "${app.kafka.topics.payment-failed}",
+                    "${app.kafka.topics.payment-status}", "${app.kafka.topics.inventory-status}"},
+            groupId = "${spring.kafka.consumer.group-id}", batch = "true",
+            properties = "value.deserializer=org.apache.kafka.common.serialization.StringDeserializer")
+    public void handleOrderOutcomes(List<ConsumerRecord<String, String>> records) {
+        List<Outcome> outcomes = new ArrayList<>(records.size());
+        for (ConsumerRecord<String, String> record : records) {
+            try {
+                Outcome outcome = parse(record);
+                if (outcome != null) {
+                    outcomes.add(outcome);
+                }
+            } catch (Exception e) {
+                // A malformed event must not block the partition
+                log.error("Skipping unreadable event on {} at offset {}", record.topic(), record.offset(), e);
+            }
+        }
+        if (!outcomes.isEmpty()) {
+            apply(outcomes);
+        }
+    }
+
+    private void apply(List<Outcome> outcomes) {
+        Set<String> orderNumbers = new HashSet<>();
+        Set<Long> orderIds = new HashSet<>();
+        for (Outcome outcome : outcomes) {
+            if (outcome.orderNumber() != null) {
+                orderNumbers.add(outcome.orderNumber());
+            } else {
+                orderIds.add(outcome.orderId());
+            }
+        }
+        Map<String, Order> byNumber = new HashMap<>();
+        Map<Long, Order> byId = new HashMap<>();
+        List<Order> orders = new ArrayList<>();
+        if (!orderNumbers.isEmpty()) {
+            orders.addAll(orderRepository.findWithPaymentByOrderNumberIn(orderNumbers));
+        }
+        if (!orderIds.isEmpty()) {
+            orders.addAll(orderRepository.findWithPaymentByIdIn(orderIds));
+        }
+        for (Order order : orders) {
+            byNumber.put(order.getOrderNumber(), order);
+            byId.put(order.getId(), order);
+        }
+
+        List<OutboxMessage> events = new ArrayList<>();
+        for (Outcome outcome : outcomes) {
+            Order order = outcome.orderNumber() != null ? byNumber.get(outcome.orderNumber()) : byId.get(outcome.orderId());
+            if (order == null) {
+                log.warn("Ignoring {} for unknown order {}", outcome.kind(),
+                        outcome.orderNumber() != null ? outcome.orderNumber() : outcome.orderId());
+                continue;
+            }
+            apply(order, outcome, events);
+        }
+        // The status changes are flushed as batched updates on commit, together with these rows
+        outboxWriter.appendAll(events);
+        log.debug("Applied {} order outcomes, {} events queued", outcomes.size(), events.size());
+    }
+
+    private void apply(Order order, Outcome outcome, List<OutboxMessage> events) {
+        switch (outcome.kind()) {
+            case PAYMENT_PENDING -> advance(order, OrderStatus.PAYMENT_PENDING, outcome, events);
+            case PAYMENT_COMPLETED -> {
+                recordPayment(order, outcome, PaymentStatus.COMPLETED);
+                if (advance(order, OrderStatus.PAYMENT_COMPLETED, outcome, events)
+                        && Boolean.TRUE.equals(order.getInventoryReserved())) {
+                    advance(order, OrderStatus.PROCESSING, outcome, events);
+                }
+            }
+            case PAYMENT_FAILED -> {
+                recordPayment(order, outcome, PaymentStatus.FAILED);
+                if (advance(order, OrderStatus.PAYMENT_FAILED, outcome, events)) {
+                    advance(order, OrderStatus.CANCELLED, outcome, events);
+                }
+            }
+            case PAYMENT_REFUNDED -> {
+                recordPayment(order, outcome, PaymentStatus.REFUNDED);
+                advance(order, OrderStatus.REFUNDED, outcome, events);
+            }
+            case INVENTORY_RESERVED -> {
+                order.setInventoryReserved(true);
+                if (order.getStatus() == OrderStatus.PAYMENT_COMPLETED) {
+                    advance(order, OrderStatus.PROCESSING, outcome, events);
+                }
+            }
+            case INVENTORY_UNAVAILABLE -> {
+                order.setInventoryReserved(false);
+                advance(order, OrderStatus.CANCELLED, outcome, events);
+            }
+        }
+    }
+
+    // True if the order is in the target status afterwards
+    private boolean advance(Order order, OrderStatus target, Outcome outcome, List<OutboxMessage> events) {
+        try {
+            OrderTransitions.apply(order, target, events);
+            return true;
+        } catch (IllegalStateException e) {
+            log.warn("Ignoring {} for order {} in status {}", outcome.kind(), order.getOrderNumber(), order.getStatus());
+            return false;
+        }
+    }
+
+    private void recordPayment(Order order, Outcome outcome, PaymentStatus status) {
+        Payment payment = order.getPayment();
+        if (payment == null) {
+            payment = new Payment();
+            payment.setOrder(order);
+            payment.setPaymentMethod(order.getPaymentMethod());
+            order.setPayment(payment);
+        }
+        if (outcome.paymentId() != null) {
+            payment.setPaymentId(outcome.paymentId());
+        }
+        if (outcome.amount() != null) {
+            payment.setAmount(outcome.amount());
+        }
+        if (outcome.transactionId() != null) {
+            payment.setTransactionId(outcome.transactionId());
+        }
+        payment.setStatus(status);
+        payment.setPaymentDate(LocalDateTime.now());
+    }
+
+    private Outcome parse(ConsumerRecord<String, String> record) throws Exception {
+        String topic = record.topic();
+        if (topic.equals(paymentCompletedTopic)) {
+            PaymentCompletedEvent event = objectMapper.readValue(record.value(), PaymentCompletedEvent.class);
+            return new Outcome(Kind.PAYMENT_COMPLETED, event.getOrderNumber(), event.getOrderId(),
+                    event.getPaymentId(), event.getAmount(), event.getTransactionId());
+        }
+        if (topic.equals(paymentFailedTopic)) {
+            PaymentFailedEvent event = objectMapper.readValue(record.value(), PaymentFailedEvent.class);
+            return new Outcome(Kind.PAYMENT_FAILED, event.getOrderNumber(), event.getOrderId(),
+                    event.getPaymentId(), event.getAmount(), null);
+        }
+        if (topic.equals(paymentStatusTopic)) {
+            // orderId is a string on this event and holds the order number
+            PaymentStatusEvent event = objectMapper.readValue(record.value(), PaymentStatusEvent.class);
+            Kind kind = switch (event.getStatus()) {
+                case PENDING -> Kind.PAYMENT_PENDING;
+                case COMPLETED -> Kind.PAYMENT_COMPLETED;
+                case FAILED -> Kind.PAYMENT_FAILED;
+                case REFUNDED -> Kind.PAYMENT_REFUNDED;
+            };
+            return new Outcome(kind, event.getOrderId(), null, event.getPaymentId(), event.getAmount(),
+                    event.getTransactionId());
+        }
+        if (topic.equals(inventoryStatusTopic)) {
+            InventoryStatusEvent event = objectMapper.readValue(record.value(), InventoryStatusEvent.class);
+            return new Outcome(event.isInStock() ? Kind.INVENTORY_RESERVED : Kind.INVENTORY_UNAVAILABLE,
+                    event.getOrderNumber(), event.getOrderId(), null, null, null);
+        }
+        return null;
+    }
+
+    private enum Kind {
+        PAYMENT_PENDING,
+        PAYMENT_COMPLETED,
+        PAYMENT_FAILED,
+        PAYMENT_REFUNDED,
+        INVENTORY_RESERVED,
+        INVENTORY_UNAVAILABLE
+    }
+
+    // Orders are matched by number when the event has one, by id otherwise
+    private record Outcome(Kind kind, String orderNumber, Long orderId, String paymentId,
+                           BigDecimal amount, String transactionId) {
+    }
+}
@@ -2,28 +2,39 @@ package com.ecommerce.orderservice.service.impl;
 
 import com.ecommerce.orderservice.dto.*;
 import com.ecommerce.orderservice.entity.Order;
-import com.ecommerce.orderservice.entity.OrderItem;
 import com.ecommerce.orderservice.entity.OrderStatus;
-import com.ecommerce.orderservice.entity.Payment;
-import com.ecommerce.orderservice.event.OrderCreatedEvent;
+import com.ecommerce.orderservice.entity.OutboxEventType;
 import com.ecommerce.orderservice.exception.OrderNotFoundException;
 import com.ecommerce.orderservice.exception.ResourceNotFoundException;
+import com.ecommerce.orderservice.id.OrderNumberGenerator;
+import com.ecommerce.orderservice.outbox.OutboxMessage;
+import com.ecommerce.orderservice.outbox.OutboxWriter;
+import com.ecommerce.orderservice.repository.ArchivedOrderRepository;
 import com.ecommerce.orderservice.repository.OrderRepository;
+import com.ecommerce.orderservice.repository.projection.OrderSummaryView;
+import com.ecommerce.orderservice.service.OrderArchiveService;
 import com.ecommerce.orderservice.service.OrderService;
+import com.ecommerce.orderservice.service.ProductPricingService;
+import com.ecommerce.productclient.ProductSnapshot;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
-import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.math.BigDecimal;
-import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
-import java.util.UUID;
+import java.util.Map;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 @Service
@@ -32,177 +43,281 @@ import java.util.stream.Collectors;
 public class OrderServiceImpl implements OrderService {
 
     private final OrderRepository orderRepository;
-    private final KafkaTemplate<String, OrderCreatedEvent> kafkaTemplate;
+    private final ArchivedOrderRepository archivedOrderRepository;
+    private final OrderArchiveService orderArchiveService;
+    private final OutboxWriter outboxWriter;
+    private final OrderNumberGenerator orderNumberGenerator;
+    private final ProductPricingService productPricingService;
+    
+    @Value("${app.order-history.max-page-size:100}")
+    private int historyMaxPageSize;
+    
+    @Value("${app.order-status-batch.max-size:5000}")
+    private int statusBatchMaxSize;
+    
+    @Value("${app.order-status-batch.chunk-size:1000}")
+    private int statusBatchChunkSize;
     
     @Override
     @Transactional
     public OrderResponse createOrder(OrderRequest orderRequest) {
-        Order order = mapOrderRequestToEntity(orderRequest);
-        
-        // Generate unique order number
-        order.setOrderNumber(UUID.randomUUID().toString());
-        order.setOrderDate(LocalDateTime.now());
-        order.setStatus(OrderStatus.CREATED);
-        
-        // Calculate total amount based on the order items
-        BigDecimal totalAmount = orderRequest.getOrderItems().stream()
-                .map(item -> item.getPrice().multiply(BigDecimal.valueOf(item.getQuantity())))
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
-                
-        order.setTotalAmount(totalAmount);
-        
-        Order savedOrder = orderRepository.save(order);
-        
-        // Publish order created event to Kafka
-        OrderCreatedEvent orderCreatedEvent = new OrderCreatedEvent(
-                savedOrder.getId(),
-                savedOrder.getOrderNumber(),
-                savedOrder.getUserId(),
-                savedOrder.getTotalAmount(),
-                savedOrder.getOrderItems().stream()
-                        .map(item -> new OrderItemDto(
-                                item.getProductId(),
-                                item.getProductName(),
-                                item.getQuantity(),
-                                item.getPrice()))
-                        .collect(Collectors.toList())
-        );
+        Map<Long, ProductSnapshot> products = productPricingService.priceItems(orderRequest.getOrderItems());
+        Order savedOrder = orderRepository.save(OrderMapper.newOrder(orderRequest, orderNumberGenerator.next(), products));
         
-        kafkaTemplate.send("order-created", orderCreatedEvent);
-        log.info("Order created and event published: {}", savedOrder.getOrderNumber());
+        // Written to the outbox in this transaction and published by the relay after commit
+        outboxWriter.append(savedOrder.getOrderNumber(), OutboxEventType.ORDER_CREATED, OrderMapper.toCreatedEvent(savedOrder));
+        log.info("Order created: {}", savedOrder.getOrderNumber());
         
-        return mapEntityToOrderResponse(savedOrder);
+        return OrderMapper.toOrderResponse(savedOrder);
     }
 
     @Override
     @Transactional(readOnly = true)
     public OrderResponse getOrderById(Long id) {
-        Order order = orderRepository.findById(id)
+        // Completed orders move to the archive after a while; the archive is only read on a miss
+        return orderRepository.findDetailById(id)
+                .map(OrderMapper::toOrderResponse)
+                .or(() -> orderArchiveService.findArchivedOrder(id))
                 .orElseThrow(() -> new OrderNotFoundException("Order not found with id: " + id));
-        return mapEntityToOrderResponse(order);
     }
 
     @Override
     @Transactional(readOnly = true)
     public PagedResponse<OrderDto> getOrdersByUserId(Long userId, int page, int size) {
-        Pageable pageable = PageRequest.of(page, size, Sort.by("orderDate").descending());
-        Page<Order> orderPage = orderRepository.findByUserId(userId, pageable);
-        return createPagedResponse(orderPage);
+        // The id tie-breaker keeps pages stable and matches idx_orders_user_date_id
+        Sort newestFirst = Sort.by("orderDate").descending().and(Sort.by("id").descending());
+        long archived = archivedOrderRepository.countByUserId(userId);
+        if (archived == 0) {
+            Page<OrderDto> orderPage = orderRepository.findSummariesByUserId(userId, PageRequest.of(page, size, newestFirst))
+                    .map(OrderMapper::toOrderDto);
+            return createPagedResponse(orderPage);
+        }
+        
+        // Merge the first (page + 1) * size rows of both tables; OFFSET paging costs that much anyway
+        int window = Math.multiplyExact(page + 1, size);
+        Page<OrderSummaryView> hot = orderRepository.findSummariesByUserId(userId, PageRequest.of(0, window, newestFirst));
+        List<OrderSummaryView> merged = mergeNewestFirst(hot.getContent(),
+                archivedOrderRepository.findSummariesByUserId(userId, PageRequest.of(0, window, newestFirst)), window);
+        List<OrderDto> content = merged.subList(Math.min(page * size, merged.size()), merged.size()).stream()
+                .map(OrderMapper::toOrderDto)
+                .collect(Collectors.toList());
+        return createPagedResponse(new PageImpl<>(content, PageRequest.of(page, size), hot.getTotalElements() + archived));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public OrderHistoryPage getOrderHistory(Long userId, String cursor, int size, boolean includeTotal) {
+        if (size < 1 || size > historyMaxPageSize) {
+            throw new IllegalArgumentException("Size must be between 1 and " + historyMaxPageSize);
+        }
+        
+        // One extra row tells us whether there is a next page without counting
+        Pageable limit = PageRequest.of(0, size + 1);
+        List<OrderSummaryView> hot;
+        List<OrderSummaryView> archived;
+        if (cursor == null || cursor.isBlank()) {
+            hot = orderRepository.findHistoryFirstPage(userId, limit);
+            archived = archivedOrderRepository.findHistoryFirstPage(userId, limit);
+        } else {
+            HistoryCursor position = HistoryCursor.decode(cursor);
+            hot = orderRepository.findHistoryAfter(userId, position.orderDate(), position.id(), limit);
+            archived = archivedOrderRepository.findHistoryAfter(userId, position.orderDate(), position.id(), limit);
+        }
+        List<OrderSummaryView> rows = mergeNewestFirst(hot, archived, size + 1);
+        
+        boolean last = rows.size() <= size;
+        List<OrderSummaryView> pageRows = last ? rows : rows.subList(0, size);
+        String nextCursor = null;
+        if (!last) {
+            OrderSummaryView tail = pageRows.get(pageRows.size() - 1);
+            nextCursor = new HistoryCursor(tail.getOrderDate(), tail.getId()).encode();
+        }
+        
+        return OrderHistoryPage.builder()
+                .content(pageRows.stream().map(OrderMapper::toOrderDto).collect(Collectors.toList()))
+                .size(size)
+                .nextCursor(nextCursor)
+                .last(last)
+                .totalElements(includeTotal ? orderRepository.countByUserId(userId) + archivedOrderRepository.countByUserId(userId) : null)
+                .build();
     }
 
     @Override
     @Transactional(readOnly = true)
     public PagedResponse<OrderDto> getAllOrders(int page, int size) {
         Pageable pageable = PageRequest.of(page, size, Sort.by("orderDate").descending());
-        Page<Order> orderPage = orderRepository.findAll(pageable);
+        Page<OrderDto> orderPage = orderRepository.findAll(pageable).map(OrderMapper::toOrderDto);
         return createPagedResponse(orderPage);
     }
 
     @Override
     @Transactional
     public OrderResponse updateOrderStatus(Long id, String status) {
-        Order order = orderRepository.findById(id)
-                .orElseThrow(() -> new OrderNotFoundException("Order not found with id: " + id));
+        Order order = orderRepository.findDetailForUpdateById(id)
+                .orElseThrow(() -> orderNotFound(id));
         
+        OrderStatus newStatus;
         try {
-            OrderStatus newStatus = OrderStatus.valueOf(status.toUpperCase());
-            order.setStatus(newStatus);
-            Order updatedOrder = orderRepository.save(order);
-            
-            // If relevant, publish an event for order status change
-            
-            return mapEntityToOrderResponse(updatedOrder);
+            newStatus = OrderStatus.valueOf(status.toUpperCase());
         } catch (IllegalArgumentException e) {
             throw new IllegalArgumentException("Invalid order status: " + status);
         }
+        
+        List<OutboxMessage> events = new ArrayList<>();
+        OrderTransitions.apply(order, newStatus, events);
+        outboxWriter.appendAll(events);
+        
+        return OrderMapper.toOrderResponse(order);
+    }
+
+    @Override
+    @Transactional
+    public OrderStatusBatchResponse updateOrderStatuses(List<OrderStatusBatchRequest.Update> updates) {
+        if (updates.size() > statusBatchMaxSize) {
+            throw new IllegalArgumentException("At most " + statusBatchMaxSize + " updates are allowed per batch");
+        }
+        
+        List<Long> ids = updates.stream().map(OrderStatusBatchRequest.Update::getOrderId).distinct().toList();
+        Map<Long, OrderSummaryView> current = new HashMap<>(ids.size() * 2);
+        for (List<Long> chunk : chunks(ids)) {
+            orderRepository.findSummariesByIdIn(chunk).forEach(view -> current.put(view.getId(), view));
+        }
+        
+        // Transitions are checked in memory; the accepted ones are grouped by (from, to) for the bulk updates
+        List<OrderStatusBatchResponse.Result> results = new ArrayList<>(updates.size());
+        Map<OrderStatus, Map<OrderStatus, List<Long>>> moves = new EnumMap<>(OrderStatus.class);
+        List<OutboxMessage> events = new ArrayList<>();
+        Set<Long> seen = new HashSet<>();
+        int updated = 0;
+        int unchanged = 0;
+        for (OrderStatusBatchRequest.Update update : updates) {
+            Long id = update.getOrderId();
+            if (!seen.add(id)) {
+                results.add(statusResult(update, OrderStatusOutcome.REJECTED, "Order appears more than once in the batch"));
+                continue;
+            }
+            OrderStatus target;
+            try {
+                target = OrderStatus.valueOf(update.getStatus().toUpperCase());
+            } catch (IllegalArgumentException e) {
+                results.add(statusResult(update, OrderStatusOutcome.REJECTED, "Invalid order status: " + update.getStatus()));
+                continue;
+            }
+            OrderSummaryView view = current.get(id);
+            if (view == null) {
+                results.add(statusResult(update, OrderStatusOutcome.NOT_FOUND, "Order not found with id: " + id));
+                continue;
+            }
+            
+            Order order = OrderMapper.toOrder(view);
+            try {
+                if (OrderTransitions.apply(order, target, events)) {
+                    moves.computeIfAbsent(view.getStatus(), from -> new EnumMap<>(OrderStatus.class))
+                            .computeIfAbsent(target, to -> new ArrayList<>())
+                            .add(id);
+                    results.add(statusResult(update, OrderStatusOutcome.UPDATED, null));
+                    updated++;
+                } else {
+                    results.add(statusResult(update, OrderStatusOutcome.UNCHANGED, null));
+                    unchanged++;
+                }
+            } catch (IllegalStateException e) {
+                results.add(statusResult(update, OrderStatusOutcome.REJECTED, e.getMessage()));
+            }
+        }
+        
+        for (Map.Entry<OrderStatus, Map<OrderStatus, List<Long>>> from : moves.entrySet()) {
+            for (Map.Entry<OrderStatus, List<Long>> to : from.getValue().entrySet()) {
+                for (List<Long> chunk : chunks(to.getValue())) {
+                    int moved = orderRepository.updateStatus(chunk, from.getKey(), to.getKey());
+                    if (moved != chunk.size()) {
+                        // Rolls back the whole batch so the results and events never disagree with the rows
+                        throw new IllegalStateException("Some orders changed status while the batch was being applied; retry the batch");
+                    }
+                }
+            }
+        }
+        outboxWriter.appendAll(events);
+        log.info("Status batch: {} requested, {} updated, {} unchanged", updates.size(), updated, unchanged);
+        
+        return OrderStatusBatchResponse.builder()
+                .requested(updates.size())
+                .updated(updated)
+                .unchanged(unchanged)
+                .failed(updates.size() - updated - unchanged)
+                .results(results)
+                .build();
     }
 
     @Override
     @Transactional
     public void cancelOrder(Long id) {
-        Order order = orderRepository.findById(id)
-                .orElseThrow(() -> new OrderNotFoundException("Order not found with id: " + id));
+        Order order = orderRepository.findForUpdateById(id)
+                .orElseThrow(() -> orderNotFound(id));
         
-        // Only allow cancellation if order is not yet shipped or delivered
-        if (order.getStatus() == OrderStatus.SHIPPED || order.getStatus() == OrderStatus.DELIVERED) {
+        // Shipped and delivered orders can no longer be cancelled
+        if (!order.getStatus().canTransitionTo(OrderStatus.CANCELLED) && order.getStatus() != OrderStatus.CANCELLED) {
             throw new IllegalStateException("Cannot cancel order with status: " + order.getStatus());
         }
         
-        order.setStatus(OrderStatus.CANCELLED);
-        orderRepository.save(order);
-        
-        // Publish order cancelled event to Kafka
-        // kafkaTemplate.send("order-cancelled", new OrderCancelledEvent(order.getId(), order.getOrderNumber()));
-        log.info("Order cancelled: {}", order.getOrderNumber());
+        // The order-cancelled event releases the stock reserved for the order
+        List<OutboxMessage> events = new ArrayList<>();
+        if (OrderTransitions.apply(order, OrderStatus.CANCELLED, events)) {
+            outboxWriter.appendAll(events);
+            log.info("Order cancelled: {}", order.getOrderNumber());
+        }
     }
     
-    private Order mapOrderRequestToEntity(OrderRequest orderRequest) {
-        Order order = new Order();
-        order.setUserId(orderRequest.getUserId());
-        order.setShippingAddress(orderRequest.getShippingAddress());
-        order.setBillingAddress(orderRequest.getBillingAddress());
-        order.setPaymentMethod(orderRequest.getPaymentMethod());
-        
-        // Map order items
-        List<OrderItem> orderItems = orderRequest.getOrderItems().stream()
-                .map(itemRequest -> {
-                    OrderItem orderItem = new OrderItem();
-                    orderItem.setProductId(itemRequest.getProductId());
-                    orderItem.setProductName(itemRequest.getProductName());
-                    orderItem.setQuantity(itemRequest.getQuantity());
-                    orderItem.setPrice(itemRequest.getPrice());
-                    orderItem.setOrder(order);
-                    return orderItem;
-                })
-                .collect(Collectors.toList());
-                
-        order.setOrderItems(orderItems);
-        return order;
+    // Archived orders are read-only; tell the caller why rather than pretending they don't exist
+    private RuntimeException orderNotFound(Long id) {
+        if (orderArchiveService.isArchived(id)) {
+            return new IllegalStateException("Order " + id + " is archived and can no longer be changed");
+        }
+        return new OrderNotFoundException("Order not found with id: " + id);
     }
     
-    private OrderResponse mapEntityToOrderResponse(Order order) {
-        List<OrderItemDto> orderItems = order.getOrderItems().stream()
-                .map(item -> new OrderItemDto(
-                        item.getProductId(),
-                        item.getProductName(),
-                        item.getQuantity(),
-                        item.getPrice()))
-                .collect(Collectors.toList());
-                
-        PaymentDto paymentDto = null;
-        if (order.getPayment() != null) {
-            Payment payment = order.getPayment();
-            paymentDto = new PaymentDto(
-                    payment.getId(),
-                    payment.getPaymentMethod(),
-                    payment.getAmount(),
-                    payment.getTransactionId(),
-                    payment.getStatus().toString()
-            );
+    // Both lists are sorted newest first; an order is only ever in one of them
+    private static List<OrderSummaryView> mergeNewestFirst(List<OrderSummaryView> first, List<OrderSummaryView> second, int limit) {
+        if (second.isEmpty()) {
+            return first.size() <= limit ? first : first.subList(0, limit);
         }
-        
-        return new OrderResponse(
-                order.getId(),
-                order.getOrderNumber(),
-                order.getUserId(),
-                orderItems,
-                order.getTotalAmount(),
-                order.getStatus().toString(),
-                order.getShippingAddress(),
-                order.getBillingAddress(),
-                order.getPaymentMethod(),
-                paymentDto,
-                order.getOrderDate()
-        );
+        Comparator<OrderSummaryView> newestFirst = Comparator.comparing(OrderSummaryView::getOrderDate)
+                .thenComparing(OrderSummaryView::getId)
+                .reversed();
+        List<OrderSummaryView> merged = new ArrayList<>(Math.min(limit, first.size() + second.size()));
+        int i = 0;
+        int j = 0;
+        while (merged.size() < limit && (i < first.size() || j < second.size())) {
+            if (j >= second.size() || (i < first.size() && newestFirst.compare(first.get(i), second.get(j)) <= 0)) {
+                merged.add(first.get(i++));
+            } else {
+                merged.add(second.get(j++));
+            }
+        }
+        return merged;
     }
     
-    private PagedResponse<OrderDto> createPagedResponse(Page<Order> orderPage) {
-        List<OrderDto> orderDtos = orderPage.getContent().stream()
-                .map(this::mapEntityToOrderDto)
-                .collect(Collectors.toList());
-                
+    private List<List<Long>> chunks(List<Long> ids) {
+        List<List<Long>> chunks = new ArrayList<>();
+        for (int from = 0; from < ids.size(); from += statusBatchChunkSize) {
+            chunks.add(ids.subList(from, Math.min(from + statusBatchChunkSize, ids.size())));
+        }
+        return chunks;
+    }
+    
+    private static OrderStatusBatchResponse.Result statusResult(OrderStatusBatchRequest.Update update,
+                                                                OrderStatusOutcome outcome, String message) {
+        return OrderStatusBatchResponse.Result.builder()
+                .orderId(update.getOrderId())
+                .status(update.getStatus())
+                .outcome(outcome)
+                .message(message)
+                .build();
+    }
+    
+    private PagedResponse<OrderDto> createPagedResponse(Page<OrderDto> orderPage) {
         return new PagedResponse<>(
-                orderDtos,
+                orderPage.getContent(),
                 orderPage.getNumber(),
                 orderPage.getSize(),
                 orderPage.getTotalElements(),
@@ -210,14 +325,4 @@ public class OrderServiceImpl implements OrderService {
                 orderPage.isLast()
         );
     }
-    
-    private OrderDto mapEntityToOrderDto(Order order) {
-        return new OrderDto(
-                order.getId(),
-                order.getOrderNumber(),
-                order.getTotalAmount(),
-                order.getStatus().toString(),
-                order.getOrderDate()
-        );
-    }
 }
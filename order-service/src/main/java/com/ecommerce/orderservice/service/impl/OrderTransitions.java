@@ -0,0 +1,39 @@
+package com.ecommerce.orderservice.service.impl;
+
+import com.ecommerce.orderservice.entity.Order;
+import com.ecommerce.orderservice.entity.OrderStatus;
+import com.ecommerce.orderservice.entity.OutboxEventType;
+import com.ecommerce.orderservice.outbox.OutboxMessage;
+
+import java.util.List;
+
+/**
+ * Moves an order through {@link OrderStatus#canTransitionTo} and queues the events each move
+ * publishes: order-updated always, order-cancelled as well when the order is cancelled.
+ */
+final class OrderTransitions {
+
+    private OrderTransitions() {
+    }
+
+    /**
+     * Returns false, leaving the order untouched, if it already has the target status.
+     *
+     * @throws IllegalStateException if the lifecycle does not allow the move
+     */
+    static boolean apply(Order order, OrderStatus target, List<OutboxMessage> events) {
+        if (order.getStatus() == target) {
+            return false;
+        }
+        if (!order.getStatus().canTransitionTo(target)) {
+            throw new IllegalStateException("Cannot change order " + order.getOrderNumber() + " from "
+                    + order.getStatus() + " to " + target);
+        }
+        order.setStatus(target);
+        events.add(new OutboxMessage(order.getOrderNumber(), OutboxEventType.ORDER_UPDATED, OrderMapper.toUpdatedEvent(order)));
+        if (target == OrderStatus.CANCELLED) {
+            events.add(new OutboxMessage(order.getOrderNumber(), OutboxEventType.ORDER_CANCELLED, OrderMapper.toCancelledEvent(order)));
+        }
+        return true;
+    }
+}
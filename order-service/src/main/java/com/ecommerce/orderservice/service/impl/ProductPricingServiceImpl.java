@@ -0,0 +1,110 @@
+package com.ecommerce.orderservice.service.impl;
+
+import com.ecommerce.orderservice.client.ProductCatalogClient;
+import com.ecommerce.orderservice.client.ProductLookupRequest;
+import com.ecommerce.orderservice.client.ProductLookupResponse;
+import com.ecommerce.orderservice.dto.OrderItemRequest;
+import com.ecommerce.orderservice.exception.ProductCatalogUnavailableException;
+import com.ecommerce.orderservice.service.ProductPricingService;
+import com.ecommerce.productclient.ProductReplica;
+import com.ecommerce.productclient.ProductSnapshot;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Prices order lines from the local product replica, which follows the product-snapshot topic.
+ * Products the replica hasn't seen yet (it is still loading, or the product was created moments
+ * ago) are fetched from product-service in one batch call; nothing else leaves the process.
+ */
+@Service
+@Slf4j
+public class ProductPricingServiceImpl implements ProductPricingService {
+
+    private final ProductReplica productReplica;
+    private final ProductCatalogClient productCatalogClient;
+
+    public ProductPricingServiceImpl(ObjectProvider<ProductReplica> productReplica,
+                                     ProductCatalogClient productCatalogClient) {
+        // Absent when product.replica.enabled is false, in which case every lookup goes to product-service
+        this.productReplica = productReplica.getIfAvailable();
+        this.productCatalogClient = productCatalogClient;
+    }
+
+    @Override
+    public Map<Long, ProductSnapshot> priceItems(List<OrderItemRequest> items) {
+        Set<Long> productIds = new LinkedHashSet<>();
+        items.forEach(item -> productIds.add(item.getProductId()));
+
+        Map<Long, ProductSnapshot> products = productReplica != null
+                ? new HashMap<>(productReplica.getAll(productIds))
+                : new HashMap<>();
+        List<Long> missing = new ArrayList<>();
+        for (Long productId : productIds) {
+            if (!products.containsKey(productId)) {
+                missing.add(productId);
+            }
+        }
+        if (!missing.isEmpty()) {
+            products.putAll(lookup(missing));
+        }
+
+        Set<Long> unknown = new TreeSet<>();
+        Set<Long> inactive = new TreeSet<>();
+        for (Long productId : productIds) {
+            ProductSnapshot product = products.get(productId);
+            if (product == null || product.getPrice() == null) {
+                unknown.add(productId);
+            } else if (!product.isActive()) {
+                inactive.add(productId);
+            }
+        }
+        if (!unknown.isEmpty() || !inactive.isEmpty()) {
+            StringBuilder message = new StringBuilder("Order contains products that cannot be ordered:");
+            if (!unknown.isEmpty()) {
+                message.append(" unknown ").append(unknown);
+            }
+            if (!inactive.isEmpty()) {
+                message.append(" inactive ").append(inactive);
+            }
+            throw new IllegalArgumentException(message.toString());
+        }
+        return products;
+    }
+
+    private Map<Long, ProductSnapshot> lookup(List<Long> productIds) {
+        ProductLookupResponse response;
+        try {
+            response = productCatalogClient.getProductsByIds(new ProductLookupRequest(productIds));
+        } catch (RuntimeException e) {
+            throw new ProductCatalogUnavailableException("Could not look up products " + productIds + ", retry shortly", e);
+        }
+        if (response == null || response.getResults() == null) {
+            return Collections.emptyMap();
+        }
+
+        Map<Long, ProductSnapshot> found = new HashMap<>();
+        for (ProductLookupResponse.Result result : response.getResults()) {
+            ProductLookupResponse.Product product = result.getProduct();
+            if (result.isFound() && product != null) {
+                found.put(result.getId(), ProductSnapshot.builder()
+                        .id(result.getId())
+                        .name(product.getName())
+                        .price(product.getPrice())
+                        .active(product.isActive())
+                        .build());
+            }
+        }
+        log.debug("Looked up {} of {} products missing from the replica", found.size(), productIds.size());
+        return found;
+    }
+}
@@ -0,0 +1,130 @@
+package com.ecommerce.orderservice.id;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class TimeOrderedIdGeneratorTest {
+
+    private static final long START = TimeOrderedIdGenerator.EPOCH.toEpochMilli() + 1_000_000L;
+    private static final int SEQUENCE_SIZE = 1 << TimeOrderedIdGenerator.SEQUENCE_BITS;
+
+    @Test
+    void idsWithinOneMillisecondAreStrictlyIncreasing() {
+        TestClock clock = new TestClock(START);
+        TimeOrderedIdGenerator generator = new TimeOrderedIdGenerator(7, clock);
+
+        long previous = generator.nextId();
+        for (int i = 1; i < SEQUENCE_SIZE; i++) {
+            long id = generator.nextId();
+            assertTrue(id > previous, "id " + id + " after " + previous);
+            previous = id;
+        }
+        assertEquals(Instant.ofEpochMilli(START), TimeOrderedIdGenerator.timestampOf(previous));
+    }
+
+    @Test
+    void textSortsLikeTheNumber() {
+        TestClock clock = new TestClock(START);
+        TimeOrderedIdGenerator generator = new TimeOrderedIdGenerator(TimeOrderedIdGenerator.MAX_NODE_ID, clock);
+
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < 2_000; i++) {
+            // Jumps of up to 2^34 ms push carries through the timestamp digits, not just the sequence
+            clock.millis += (i % 3 == 0) ? 1L << (i % 35) : 0;
+            ids.add(generator.nextId());
+        }
+        for (int i = 1; i < ids.size(); i++) {
+            String previous = TimeOrderedIdGenerator.format(ids.get(i - 1));
+            String current = TimeOrderedIdGenerator.format(ids.get(i));
+            assertEquals(TimeOrderedIdGenerator.LENGTH, current.length());
+            assertEquals(Long.signum(Long.compare(ids.get(i), ids.get(i - 1))), Integer.signum(current.compareTo(previous)),
+                    current + " vs " + previous);
+        }
+    }
+
+    @Test
+    void keepsIncreasingWhenTheClockStepsBack() {
+        TestClock clock = new TestClock(START);
+        TimeOrderedIdGenerator generator = new TimeOrderedIdGenerator(3, clock);
+
+        long before = generator.nextId();
+        clock.millis -= 5_000;
+        long after = generator.nextId();
+
+        assertTrue(after > before);
+        assertEquals(Instant.ofEpochMilli(START), TimeOrderedIdGenerator.timestampOf(after));
+    }
+
+    @Test
+    void waitsForTheNextMillisecondWhenTheSequenceRunsOut() {
+        // Stays on START for one read past the exhausted sequence, then ticks over
+        TestClock clock = new TestClock(START, SEQUENCE_SIZE + 1);
+        TimeOrderedIdGenerator generator = new TimeOrderedIdGenerator(1, clock);
+
+        for (int i = 0; i < SEQUENCE_SIZE; i++) {
+            generator.nextId();
+        }
+        long id = generator.nextId();
+
+        assertTrue(clock.reads > SEQUENCE_SIZE + 1, "generator should have polled the clock again");
+        assertEquals(Instant.ofEpochMilli(START + 1), TimeOrderedIdGenerator.timestampOf(id));
+        assertFalse(TimeOrderedIdGenerator.timestampOf(id).isAfter(Instant.ofEpochMilli(clock.millis)));
+    }
+
+    @Test
+    void rejectsNodeIdsOutOfRange() {
+        assertThrows(IllegalArgumentException.class, () -> new TimeOrderedIdGenerator(-1, new TestClock(START)));
+        assertThrows(IllegalArgumentException.class,
+                () -> new TimeOrderedIdGenerator(TimeOrderedIdGenerator.MAX_NODE_ID + 1, new TestClock(START)));
+    }
+
+    private static class TestClock extends Clock {
+
+        long millis;
+        int reads;
+        private final int tickAfterReads;
+
+        TestClock(long millis) {
+            this(millis, Integer.MAX_VALUE);
+        }
+
+        TestClock(long millis, int tickAfterReads) {
+            this.millis = millis;
+            this.tickAfterReads = tickAfterReads;
+        }
+
+        @Override
+        public long millis() {
+            if (++reads > tickAfterReads) {
+                millis = START + 1;
+            }
+            return millis;
+        }
+
+        @Override
+        public Instant instant() {
+            return Instant.ofEpochMilli(millis());
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+    }
+}
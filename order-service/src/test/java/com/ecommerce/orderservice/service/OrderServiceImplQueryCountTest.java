@@ -0,0 +1,128 @@
+package com.ecommerce.orderservice.service;
+
+import com.ecommerce.orderservice.config.OrderNumberConfig;
+import com.ecommerce.orderservice.dto.OrderResponse;
+import com.ecommerce.orderservice.entity.Order;
+import com.ecommerce.orderservice.entity.OrderItem;
+import com.ecommerce.orderservice.entity.OrderStatus;
+import com.ecommerce.orderservice.entity.Payment;
+import com.ecommerce.orderservice.entity.PaymentStatus;
+import com.ecommerce.orderservice.outbox.OutboxWriter;
+import com.ecommerce.orderservice.repository.OrderBatchRepository;
+import com.ecommerce.orderservice.service.impl.OrderServiceImpl;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+// Guards against the order detail view falling back to one query per association
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "spring.cloud.discovery.enabled=false",
+        "eureka.client.enabled=false",
+        "app.order-number.node-id=1"
+})
+@Import({OrderServiceImpl.class, OutboxWriter.class, OrderBatchRepository.class, OrderNumberConfig.class, JacksonAutoConfiguration.class})
+public class OrderServiceImplQueryCountTest {
+
+    @Autowired
+    private OrderServiceImpl orderService;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @MockBean
+    private ProductPricingService productPricingService;
+
+    @MockBean
+    private OrderArchiveService orderArchiveService;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @Test
+    void getOrderById_WithItemsAndPayment_UsesOneStatement() {
+        // Arrange
+        Order order = persistOrder(3, true);
+
+        // Act
+        statistics.clear();
+        OrderResponse response = orderService.getOrderById(order.getId());
+
+        // Assert
+        assertEquals(1, statistics.getPrepareStatementCount());
+        assertEquals(3, response.getOrderItems().size());
+        assertNotNull(response.getPayment());
+        assertEquals("TX-1", response.getPayment().getTransactionId());
+    }
+
+    @Test
+    void getOrderById_WithoutPayment_UsesOneStatement() {
+        // Arrange
+        Order order = persistOrder(2, false);
+
+        // Act
+        statistics.clear();
+        OrderResponse response = orderService.getOrderById(order.getId());
+
+        // Assert
+        assertEquals(1, statistics.getPrepareStatementCount());
+        assertEquals(2, response.getOrderItems().size());
+        assertNull(response.getPayment());
+    }
+
+    private Order persistOrder(int itemCount, boolean withPayment) {
+        Order order = Order.builder()
+                .orderNumber("ORDER-" + itemCount + "-" + withPayment)
+                .userId(1L)
+                .totalAmount(new BigDecimal("30.00"))
+                .status(OrderStatus.CREATED)
+                .orderDate(LocalDateTime.now())
+                .orderItems(new ArrayList<>())
+                .build();
+        for (int i = 0; i < itemCount; i++) {
+            order.addOrderItem(OrderItem.builder()
+                    .productId((long) i + 1)
+                    .productName("Product " + i)
+                    .quantity(1)
+                    .unitPrice(BigDecimal.TEN)
+                    .subtotal(BigDecimal.TEN)
+                    .build());
+        }
+        entityManager.persist(order);
+        if (withPayment) {
+            entityManager.persist(Payment.builder()
+                    .order(order)
+                    .amount(order.getTotalAmount())
+                    .status(PaymentStatus.COMPLETED)
+                    .transactionId("TX-1")
+                    .build());
+        }
+        entityManager.flush();
+        entityManager.clear();
+        return order;
+    }
+}
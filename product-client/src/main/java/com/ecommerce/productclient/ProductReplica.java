@@ -0,0 +1,270 @@
+package com.ecommerce.productclient;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.ConsumerRecords;
+import org.apache.kafka.clients.consumer.KafkaConsumer;
+import org.apache.kafka.common.PartitionInfo;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.errors.WakeupException;
+import org.apache.kafka.common.serialization.ByteArrayDeserializer;
+import org.apache.kafka.common.serialization.StringDeserializer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * In-memory copy of the catalog built from the compacted product-snapshot topic.
+ * <p>
+ * On {@link #start()} a background thread reads every partition from the beginning up to the
+ * end offsets observed at startup, after which the replica reports itself ready, then keeps
+ * tailing the topic. The consumer is assigned partitions directly, so it uses no consumer group
+ * and every instance holds the complete catalog. It never creates the topic: until product-service
+ * has declared it (compacted) the replica waits and stays not ready, and partitions added later
+ * are picked up by a periodic metadata check.
+ */
+public class ProductReplica implements AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(ProductReplica.class);
+    private static final Duration PARTITION_CHECK_INTERVAL = Duration.ofSeconds(30);
+
+    private final String topic;
+    private final Map<String, Object> consumerConfig;
+    private final ObjectMapper objectMapper;
+    private final Map<Long, ProductSnapshot> products = new ConcurrentHashMap<>();
+    private final List<Consumer<ProductSnapshot>> listeners = new CopyOnWriteArrayList<>();
+    private final CountDownLatch ready = new CountDownLatch(1);
+
+    private volatile boolean running;
+    private volatile KafkaConsumer<String, byte[]> consumer;
+    private Thread thread;
+
+    public ProductReplica(String bootstrapServers, String topic) {
+        this(Map.of(ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers), topic);
+    }
+
+    public ProductReplica(Map<String, Object> consumerConfig, String topic) {
+        this.topic = topic;
+        this.consumerConfig = new HashMap<>(consumerConfig);
+        this.consumerConfig.put(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, false);
+        this.consumerConfig.put(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "earliest");
+        // An auto-created topic would not be compacted
+        this.consumerConfig.put(ConsumerConfig.ALLOW_AUTO_CREATE_TOPICS_CONFIG, false);
+        this.consumerConfig.putIfAbsent(ConsumerConfig.MAX_POLL_RECORDS_CONFIG, 5000);
+        this.objectMapper = new ObjectMapper()
+                .registerModule(new JavaTimeModule())
+                .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+    }
+
+    public synchronized void start() {
+        if (running) {
+            return;
+        }
+        running = true;
+        thread = new Thread(this::run, "product-replica-" + topic);
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    public Optional<ProductSnapshot> get(Long productId) {
+        return Optional.ofNullable(products.get(productId));
+    }
+
+    /**
+     * Returns the snapshots known for the given ids; unknown ids are absent from the map.
+     */
+    public Map<Long, ProductSnapshot> getAll(Collection<Long> productIds) {
+        Map<Long, ProductSnapshot> found = new HashMap<>();
+        for (Long id : productIds) {
+            ProductSnapshot snapshot = products.get(id);
+            if (snapshot != null) {
+                found.put(id, snapshot);
+            }
+        }
+        return found;
+    }
+
+    public int size() {
+        return products.size();
+    }
+
+    public boolean isReady() {
+        return ready.getCount() == 0;
+    }
+
+    /**
+     * Blocks until the initial load has caught up with the topic, or the timeout elapses.
+     */
+    public boolean awaitReady(Duration timeout) throws InterruptedException {
+        return ready.await(timeout.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    // Called on the replica thread for every snapshot applied after the initial load
+    public void addListener(Consumer<ProductSnapshot> listener) {
+        listeners.add(listener);
+    }
+
+    @Override
+    public void close() {
+        running = false;
+        KafkaConsumer<String, byte[]> current = consumer;
+        if (current != null) {
+            current.wakeup();
+        }
+        if (thread != null) {
+            try {
+                thread.join(TimeUnit.SECONDS.toMillis(10));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private void run() {
+        while (running) {
+            try (KafkaConsumer<String, byte[]> kafkaConsumer =
+                         new KafkaConsumer<>(consumerConfig, new StringDeserializer(), new ByteArrayDeserializer())) {
+                consumer = kafkaConsumer;
+                consume(kafkaConsumer);
+            } catch (WakeupException e) {
+                // Shutting down
+            } catch (RuntimeException e) {
+                // Start over from the beginning; re-applying compacted snapshots is idempotent
+                log.warn("Product replica consumer failed, restarting: {}", e.getMessage());
+                sleepQuietly(Duration.ofSeconds(5));
+            } finally {
+                consumer = null;
+            }
+        }
+    }
+
+    private void consume(KafkaConsumer<String, byte[]> kafkaConsumer) {
+        // Don't report ready on an empty catalog just because the topic isn't there yet
+        Set<TopicPartition> partitions = partitionsOf(kafkaConsumer);
+        while (running && partitions.isEmpty()) {
+            log.info("Product replica waiting for topic {} to be created", topic);
+            sleepQuietly(Duration.ofSeconds(5));
+            partitions = partitionsOf(kafkaConsumer);
+        }
+        kafkaConsumer.assign(partitions);
+        kafkaConsumer.seekToBeginning(partitions);
+
+        Map<TopicPartition, Long> endOffsets = new HashMap<>(kafkaConsumer.endOffsets(partitions));
+        long start = System.currentTimeMillis();
+        long nextPartitionCheck = start + PARTITION_CHECK_INTERVAL.toMillis();
+        boolean loading = !isReady();
+
+        while (running) {
+            if (loading && caughtUp(kafkaConsumer, endOffsets)) {
+                loading = false;
+                ready.countDown();
+                log.info("Product replica loaded {} products from {} in {} ms",
+                        products.size(), topic, System.currentTimeMillis() - start);
+            }
+            if (System.currentTimeMillis() >= nextPartitionCheck) {
+                partitions = assignNewPartitions(kafkaConsumer, partitions);
+                nextPartitionCheck = System.currentTimeMillis() + PARTITION_CHECK_INTERVAL.toMillis();
+            }
+            ConsumerRecords<String, byte[]> records = kafkaConsumer.poll(Duration.ofMillis(500));
+            for (ConsumerRecord<String, byte[]> record : records) {
+                apply(record, !loading);
+            }
+        }
+    }
+
+    private Set<TopicPartition> partitionsOf(KafkaConsumer<String, byte[]> kafkaConsumer) {
+        Set<TopicPartition> partitions = new HashSet<>();
+        List<PartitionInfo> infos = kafkaConsumer.partitionsFor(topic);
+        if (infos != null) {
+            for (PartitionInfo info : infos) {
+                partitions.add(new TopicPartition(topic, info.partition()));
+            }
+        }
+        return partitions;
+    }
+
+    // Partitions already assigned keep their positions; new ones are read from the beginning
+    private Set<TopicPartition> assignNewPartitions(KafkaConsumer<String, byte[]> kafkaConsumer,
+                                                    Set<TopicPartition> assigned) {
+        Set<TopicPartition> current = partitionsOf(kafkaConsumer);
+        current.addAll(assigned);
+        if (current.size() == assigned.size()) {
+            return assigned;
+        }
+        Set<TopicPartition> added = new HashSet<>(current);
+        added.removeAll(assigned);
+        kafkaConsumer.assign(current);
+        kafkaConsumer.seekToBeginning(added);
+        log.info("Product replica picked up new partitions {}", added);
+        return current;
+    }
+
+    private boolean caughtUp(KafkaConsumer<String, byte[]> kafkaConsumer, Map<TopicPartition, Long> endOffsets) {
+        for (Map.Entry<TopicPartition, Long> entry : endOffsets.entrySet()) {
+            if (kafkaConsumer.position(entry.getKey()) < entry.getValue()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void apply(ConsumerRecord<String, byte[]> record, boolean notify) {
+        if (record.value() == null) {
+            // Tombstone: the product was purged from the topic
+            if (record.key() != null) {
+                products.remove(Long.valueOf(record.key()));
+            }
+            return;
+        }
+        ProductSnapshot snapshot;
+        try {
+            snapshot = objectMapper.readValue(record.value(), ProductSnapshot.class);
+        } catch (IOException e) {
+            log.warn("Skipping unreadable product snapshot at {}-{}@{}: {}",
+                    record.topic(), record.partition(), record.offset(), e.getMessage());
+            return;
+        }
+        if (snapshot.getId() == null) {
+            return;
+        }
+        // Two instances can publish the same product close together; keep the newer snapshot
+        ProductSnapshot applied = products.merge(snapshot.getId(), snapshot,
+                (existing, incoming) -> isOlder(incoming, existing) ? existing : incoming);
+        if (applied != snapshot) {
+            return;
+        }
+        if (notify) {
+            for (Consumer<ProductSnapshot> listener : listeners) {
+                try {
+                    listener.accept(snapshot);
+                } catch (RuntimeException e) {
+                    log.warn("Product replica listener failed for product {}: {}", snapshot.getId(), e.getMessage());
+                }
+            }
+        }
+    }
+
+    private static boolean isOlder(ProductSnapshot incoming, ProductSnapshot existing) {
+        return incoming.getUpdatedAt() != null && existing.getUpdatedAt() != null
+                && incoming.getUpdatedAt().isBefore(existing.getUpdatedAt());
+    }
+
+    private static void sleepQuietly(Duration duration) {
+        try {
+            Thread.sleep(duration.toMillis());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package com.ecommerce.productclient;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Registers a started {@link ProductReplica} in services that set {@code product.replica.enabled=true}.
+ */
+@AutoConfiguration
+@ConditionalOnProperty(prefix = "product.replica", name = "enabled", havingValue = "true")
+public class ProductReplicaAutoConfiguration {
+
+    @Bean(initMethod = "start", destroyMethod = "close")
+    @ConditionalOnMissingBean
+    public ProductReplica productReplica(
+            @Value("${product.replica.bootstrap-servers:${spring.kafka.bootstrap-servers:localhost:9092}}") String bootstrapServers,
+            @Value("${product.replica.topic:product-snapshot}") String topic,
+            @Value("${spring.application.name:app}") String applicationName) {
+        Map<String, Object> config = new HashMap<>();
+        config.put("bootstrap.servers", bootstrapServers);
+        config.put("client.id", applicationName + "-product-replica");
+        return new ProductReplica(config, topic);
+    }
+}
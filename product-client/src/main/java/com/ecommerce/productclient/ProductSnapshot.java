@@ -0,0 +1,30 @@
+package com.ecommerce.productclient;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Full state of one product as published to the compacted product-snapshot topic,
+ * keyed by product id. Deleted products stay on the topic with {@code active = false}.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductSnapshot {
+    private Long id;
+    private String name;
+    private String description;
+    private BigDecimal price;
+    private Long categoryId;
+    private String imageUrl;
+    private boolean active;
+    private Integer quantity;
+    private Integer availableQuantity;
+    private LocalDateTime updatedAt;
+}
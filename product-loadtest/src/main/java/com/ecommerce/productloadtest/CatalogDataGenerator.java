@@ -0,0 +1,211 @@
+package com.ecommerce.productloadtest;
+
+import com.ecommerce.productservice.entity.AttributeName;
+import com.ecommerce.productservice.entity.AttributeValue;
+
+import javax.sql.DataSource;
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Fills the schema created by Hibernate with a synthetic catalog: a three level category
+ * tree, products spread over the leaf categories, three dictionary-encoded attributes per
+ * product and an inventory row for each. Ids are assigned explicitly and the generator is
+ * seeded, so two runs with the same options browse the same catalog.
+ */
+public class CatalogDataGenerator {
+
+    static final int CATEGORY_FANOUT = 10;
+    static final int BRAND_COUNT = 2000;
+    private static final int BATCH_SIZE = 5000;
+
+    static final String[] NOUNS = {"chair", "table", "lamp", "jacket", "shoe", "backpack", "watch", "kettle",
+            "speaker", "blanket", "mug", "desk", "sofa", "shirt", "bottle", "headphones", "rug", "pan"};
+    private static final String[] ADJECTIVES = {"classic", "modern", "compact", "deluxe", "rustic", "urban",
+            "vintage", "sleek", "premium", "everyday", "outdoor", "lightweight"};
+    private static final String[] MATERIALS = {"oak", "steel", "cotton", "leather", "bamboo", "ceramic",
+            "wool", "glass", "linen", "aluminium"};
+    private static final String[] COLORS = {"black", "white", "grey", "red", "blue", "green", "yellow",
+            "orange", "purple", "brown", "beige", "navy"};
+    private static final String[] SIZES = {"XS", "S", "M", "L", "XL", "XXL"};
+    private static final String[] ATTRIBUTE_NAMES = {"color", "size", "brand"};
+
+    private final DataSource dataSource;
+    private final Random random;
+
+    public CatalogDataGenerator(DataSource dataSource, long seed) {
+        this.dataSource = dataSource;
+        this.random = new Random(seed);
+    }
+
+    public Catalog generate(int productCount) throws SQLException {
+        try (Connection connection = dataSource.getConnection()) {
+            connection.setAutoCommit(false);
+            List<Long> leafCategoryIds = insertCategories(connection);
+            insertDictionaries(connection);
+            insertProducts(connection, productCount, leafCategoryIds);
+            restartIdentities(connection);
+            connection.commit();
+            return new Catalog(productCount, leafCategoryIds);
+        }
+    }
+
+    private List<Long> insertCategories(Connection connection) throws SQLException {
+        List<Long> leaves = new ArrayList<>();
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        try (PreparedStatement ps = connection.prepareStatement(
+                "INSERT INTO categories (id, name, description, parent_id, created_at) VALUES (?, ?, ?, ?, ?)")) {
+            long id = 0;
+            for (int a = 0; a < CATEGORY_FANOUT; a++) {
+                long top = ++id;
+                addCategory(ps, top, "Department " + a, null, now);
+                for (int b = 0; b < CATEGORY_FANOUT; b++) {
+                    long middle = ++id;
+                    addCategory(ps, middle, "Department " + a + " / Aisle " + b, top, now);
+                    for (int c = 0; c < CATEGORY_FANOUT; c++) {
+                        long leaf = ++id;
+                        addCategory(ps, leaf, "Department " + a + " / Aisle " + b + " / Shelf " + c, middle, now);
+                        leaves.add(leaf);
+                    }
+                }
+            }
+            ps.executeBatch();
+        }
+        return leaves;
+    }
+
+    private void addCategory(PreparedStatement ps, long id, String name, Long parentId, Timestamp createdAt) throws SQLException {
+        ps.setLong(1, id);
+        ps.setString(2, name);
+        ps.setString(3, "Generated category " + name);
+        ps.setObject(4, parentId);
+        ps.setTimestamp(5, createdAt);
+        ps.addBatch();
+    }
+
+    // Names get ids 1..3 in ATTRIBUTE_NAMES order; values are colors, then sizes, then brands
+    private void insertDictionaries(Connection connection) throws SQLException {
+        try (PreparedStatement ps = connection.prepareStatement("INSERT INTO attribute_names (id, name, name_key) VALUES (?, ?, ?)")) {
+            for (int i = 0; i < ATTRIBUTE_NAMES.length; i++) {
+                ps.setInt(1, i + 1);
+                ps.setString(2, ATTRIBUTE_NAMES[i]);
+                ps.setString(3, AttributeName.keyOf(ATTRIBUTE_NAMES[i]));
+                ps.addBatch();
+            }
+            ps.executeBatch();
+        }
+        try (PreparedStatement ps = connection.prepareStatement("INSERT INTO attribute_values (id, value, value_key) VALUES (?, ?, ?)")) {
+            int id = 0;
+            for (String color : COLORS) {
+                addValue(ps, ++id, color);
+            }
+            for (String size : SIZES) {
+                addValue(ps, ++id, size);
+            }
+            for (int i = 0; i < BRAND_COUNT; i++) {
+                addValue(ps, ++id, brand(i));
+            }
+            ps.executeBatch();
+        }
+    }
+
+    private void addValue(PreparedStatement ps, int id, String value) throws SQLException {
+        ps.setInt(1, id);
+        ps.setString(2, value);
+        ps.setString(3, AttributeValue.keyOf(value));
+        ps.addBatch();
+    }
+
+    private void insertProducts(Connection connection, int productCount, List<Long> leafCategoryIds) throws SQLException {
+        LocalDateTime now = LocalDateTime.now();
+        try (PreparedStatement products = connection.prepareStatement(
+                "INSERT INTO products (id, name, description, price, category_id, image_url, created_at, active) " +
+                "VALUES (?, ?, ?, ?, ?, ?, ?, ?)");
+             PreparedStatement attributes = connection.prepareStatement(
+                "INSERT INTO product_attribute (product_id, name_id, value_id) VALUES (?, ?, ?)");
+             PreparedStatement inventory = connection.prepareStatement(
+                "INSERT INTO product_inventory (id, product_id, quantity, reserved_quantity, created_at) VALUES (?, ?, ?, 0, ?)")) {
+            for (long id = 1; id <= productCount; id++) {
+                String name = pick(ADJECTIVES) + " " + pick(MATERIALS) + " " + pick(NOUNS);
+                Timestamp createdAt = Timestamp.valueOf(now.minusMinutes(random.nextInt(365 * 24 * 60)));
+
+                products.setLong(1, id);
+                products.setString(2, name);
+                products.setString(3, "Generated product " + id + ": " + name);
+                products.setBigDecimal(4, BigDecimal.valueOf(100 + random.nextInt(100_000), 2));
+                products.setLong(5, leafCategoryIds.get(random.nextInt(leafCategoryIds.size())));
+                products.setString(6, "https://images.example.com/products/" + id + ".jpg");
+                products.setTimestamp(7, createdAt);
+                products.setBoolean(8, isActive(id));
+                products.addBatch();
+
+                addAttribute(attributes, id, 1, 1 + random.nextInt(COLORS.length));
+                addAttribute(attributes, id, 2, 1 + COLORS.length + random.nextInt(SIZES.length));
+                addAttribute(attributes, id, 3, 1 + COLORS.length + SIZES.length + random.nextInt(BRAND_COUNT));
+
+                inventory.setLong(1, id);
+                inventory.setLong(2, id);
+                // Roughly one product in ten is out of stock
+                inventory.setInt(3, random.nextInt(10) == 0 ? 0 : random.nextInt(500));
+                inventory.setTimestamp(4, createdAt);
+                inventory.addBatch();
+
+                if (id % BATCH_SIZE == 0 || id == productCount) {
+                    products.executeBatch();
+                    attributes.executeBatch();
+                    inventory.executeBatch();
+                    connection.commit();
+                }
+            }
+        }
+    }
+
+    private void addAttribute(PreparedStatement ps, long productId, int nameId, int valueId) throws SQLException {
+        ps.setLong(1, productId);
+        ps.setInt(2, nameId);
+        ps.setInt(3, valueId);
+        ps.addBatch();
+    }
+
+    // Explicit ids leave the identity columns at 1, so later inserts through the API would collide
+    private void restartIdentities(Connection connection) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            for (String table : List.of("categories", "attribute_names", "attribute_values", "products", "product_inventory")) {
+                long next;
+                try (ResultSet rs = statement.executeQuery("SELECT COALESCE(MAX(id), 0) + 1 FROM " + table)) {
+                    rs.next();
+                    next = rs.getLong(1);
+                }
+                statement.execute("ALTER TABLE " + table + " ALTER COLUMN id RESTART WITH " + next);
+            }
+        }
+    }
+
+    private String pick(String[] values) {
+        return values[random.nextInt(values.length)];
+    }
+
+    // Every twentieth product is soft-deleted, at ids the driver can avoid when fetching by id
+    static boolean isActive(long productId) {
+        return productId % 20 != 0;
+    }
+
+    static String brand(int index) {
+        return String.format("Brand %04d", index);
+    }
+
+    /**
+     * What the workload driver needs to know to build requests that hit existing rows.
+     */
+    public record Catalog(int productCount, List<Long> leafCategoryIds) {
+    }
+}
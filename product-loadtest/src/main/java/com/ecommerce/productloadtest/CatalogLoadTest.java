@@ -0,0 +1,108 @@
+package com.ecommerce.productloadtest;
+
+import com.ecommerce.productservice.ProductServiceApplication;
+import com.ecommerce.productservice.cache.CatalogRankings;
+import com.ecommerce.productservice.cache.CategoryTreeCache;
+import com.ecommerce.productservice.service.CategoryCountService;
+import com.ecommerce.productservice.service.SuggestionService;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.servlet.context.ServletWebServerApplicationContext;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.Stream;
+
+/**
+ * Starts product-service in-process against an in-memory H2 database in MySQL mode, loads
+ * a synthetic catalog, then browses it over HTTP and prints latency percentiles, throughput
+ * and SQL statements per request for each endpoint. Kafka and service discovery are switched
+ * off, so nothing outside the JVM is needed.
+ *
+ * <pre>
+ * java -Xmx4g -jar product-loadtest/target/product-loadtest-1.0-SNAPSHOT.jar \
+ *     --products=1000000 --threads=16 --warmup-seconds=15 --duration-seconds=60 \
+ *     --mix=get-by-id:50,category:25,search:15,attribute:10
+ * </pre>
+ */
+public class CatalogLoadTest {
+
+    public static void main(String[] args) throws Exception {
+        LoadTestOptions options = LoadTestOptions.parse(args);
+
+        // Passed as command line arguments so they override product-service's application.yml
+        String[] overrides = Stream.of(
+                        "server.port=0",
+                        "server.tomcat.threads.max=" + Math.max(200, options.threads() * 2),
+                        "spring.datasource.url=jdbc:h2:mem:catalog;MODE=MySQL;DB_CLOSE_DELAY=-1;NON_KEYWORDS=VALUE",
+                        "spring.datasource.driver-class-name=org.h2.Driver",
+                        "spring.datasource.username=sa",
+                        "spring.datasource.password=",
+                        "spring.datasource.hikari.maximum-pool-size=" + Math.max(10, options.threads()),
+                        "spring.jpa.hibernate.ddl-auto=create",
+                        "spring.jpa.show-sql=false",
+                        "spring.jpa.properties.hibernate.format_sql=false",
+                        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+                        "eureka.client.enabled=false",
+                        "spring.cloud.discovery.enabled=false",
+                        "spring.kafka.admin.auto-create=false",
+                        // The in-memory structures are rebuilt explicitly once the catalog is loaded
+                        "catalog.suggest.initial-delay-ms=3600000",
+                        "logging.level.root=WARN")
+                .map(property -> "--" + property)
+                .toArray(String[]::new);
+        ServletWebServerApplicationContext context = (ServletWebServerApplicationContext) new SpringApplicationBuilder(
+                ProductServiceApplication.class, LoadTestConfiguration.class)
+                .run(overrides);
+        try {
+            System.out.printf("Generating %,d products...%n", options.products());
+            long start = System.currentTimeMillis();
+            CatalogDataGenerator.Catalog catalog = new CatalogDataGenerator(context.getBean(DataSource.class), options.seed())
+                    .generate(options.products());
+            context.getBean(CategoryTreeCache.class).rebuild();
+            context.getBean(CategoryCountService.class).rebuildCounts();
+            context.getBean(CatalogRankings.class).reload();
+            context.getBean(SuggestionService.class).rebuildIndex();
+            System.out.printf("Catalog ready in %,d ms%n", System.currentTimeMillis() - start);
+
+            WorkloadDriver driver = new WorkloadDriver(
+                    "http://localhost:" + context.getWebServer().getPort(), catalog, options);
+            SqlStatementCounter counter = context.getBean(SqlStatementCounter.class);
+
+            System.out.printf("Warming up for %d s with %d threads...%n", options.warmup().toSeconds(), options.threads());
+            driver.run(options.warmup(), options.seed());
+            counter.reset();
+
+            System.out.printf("Measuring for %d s...%n", options.duration().toSeconds());
+            long measureStart = System.nanoTime();
+            Map<String, LatencyStats> results = driver.run(options.duration(), options.seed() + options.threads());
+            Duration elapsed = Duration.ofNanos(System.nanoTime() - measureStart);
+
+            report(new TreeMap<>(results), counter.snapshot(), elapsed);
+        } finally {
+            context.close();
+        }
+    }
+
+    private static void report(Map<String, LatencyStats> results, Map<String, Long> statements, Duration elapsed) {
+        System.out.println();
+        System.out.printf("%-10s %10s %7s %9s %8s %8s %8s %8s %8s %9s%n",
+                "endpoint", "requests", "errors", "req/s", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms", "sql/req");
+        LatencyStats total = new LatencyStats();
+        long totalStatements = 0;
+        for (Map.Entry<String, LatencyStats> entry : results.entrySet()) {
+            long endpointStatements = statements.getOrDefault(entry.getKey(), 0L);
+            print(entry.getKey(), entry.getValue().summarize(elapsed, endpointStatements));
+            total.merge(entry.getValue());
+            totalStatements += endpointStatements;
+        }
+        print("all", total.summarize(elapsed, totalStatements));
+    }
+
+    private static void print(String endpoint, LatencyStats.Summary summary) {
+        System.out.printf("%-10s %,10d %7d %,9.0f %8.2f %8.2f %8.2f %8.2f %8.2f %9.2f%n",
+                endpoint, summary.requests(), summary.errors(), summary.throughput(), summary.p50(), summary.p90(),
+                summary.p99(), summary.p999(), summary.max(), summary.statementsPerRequest());
+    }
+}
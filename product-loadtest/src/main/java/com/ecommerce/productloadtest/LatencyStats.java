@@ -0,0 +1,64 @@
+package com.ecommerce.productloadtest;
+
+import java.time.Duration;
+import java.util.Arrays;
+
+/**
+ * Latencies for one endpoint. Each driver thread records into its own instance without
+ * locking; the instances are merged once the measured phase is over and every sample is
+ * kept, so the percentiles are exact rather than bucketed.
+ */
+public class LatencyStats {
+
+    private long[] samples = new long[1024];
+    private int count;
+    private long errors;
+
+    public void record(long nanos) {
+        if (count == samples.length) {
+            samples = Arrays.copyOf(samples, count * 2);
+        }
+        samples[count++] = nanos;
+    }
+
+    public void recordError() {
+        errors++;
+    }
+
+    public void merge(LatencyStats other) {
+        if (count + other.count > samples.length) {
+            samples = Arrays.copyOf(samples, Math.max(samples.length * 2, count + other.count));
+        }
+        System.arraycopy(other.samples, 0, samples, count, other.count);
+        count += other.count;
+        errors += other.errors;
+    }
+
+    public Summary summarize(Duration elapsed, long sqlStatements) {
+        long[] sorted = Arrays.copyOf(samples, count);
+        Arrays.sort(sorted);
+        return new Summary(
+                count,
+                errors,
+                count / Math.max(elapsed.toMillis() / 1000.0, 0.001),
+                percentile(sorted, 50),
+                percentile(sorted, 90),
+                percentile(sorted, 99),
+                percentile(sorted, 99.9),
+                count > 0 ? sorted[count - 1] / 1_000_000.0 : 0,
+                count > 0 ? (double) sqlStatements / count : 0);
+    }
+
+    // Nearest-rank percentile, in milliseconds
+    private static double percentile(long[] sorted, double percentile) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int rank = (int) Math.ceil(percentile / 100 * sorted.length);
+        return sorted[Math.max(rank - 1, 0)] / 1_000_000.0;
+    }
+
+    public record Summary(long requests, long errors, double throughput, double p50, double p90,
+                          double p99, double p999, double max, double statementsPerRequest) {
+    }
+}
@@ -0,0 +1,56 @@
+package com.ecommerce.productloadtest;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Command line options, given as {@code --name=value}. Unset options keep their defaults.
+ */
+public record LoadTestOptions(
+        int products,
+        int threads,
+        Duration warmup,
+        Duration duration,
+        long seed,
+        Map<String, Integer> mix) {
+
+    public static LoadTestOptions parse(String[] args) {
+        Map<String, String> values = new LinkedHashMap<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                throw new IllegalArgumentException("Expected --name=value but got: " + arg);
+            }
+            int split = arg.indexOf('=');
+            values.put(arg.substring(2, split), arg.substring(split + 1));
+        }
+
+        LoadTestOptions options = new LoadTestOptions(
+                Integer.parseInt(values.getOrDefault("products", "1000000")),
+                Integer.parseInt(values.getOrDefault("threads", "16")),
+                Duration.ofSeconds(Long.parseLong(values.getOrDefault("warmup-seconds", "15"))),
+                Duration.ofSeconds(Long.parseLong(values.getOrDefault("duration-seconds", "60"))),
+                Long.parseLong(values.getOrDefault("seed", "42")),
+                parseMix(values.getOrDefault("mix", "get-by-id:50,category:25,search:15,attribute:10")));
+        if (options.products() < 1 || options.threads() < 1) {
+            throw new IllegalArgumentException("products and threads must be positive");
+        }
+        return options;
+    }
+
+    // e.g. "get-by-id:50,category:25,search:15,attribute:10"; weights need not add up to 100
+    private static Map<String, Integer> parseMix(String mix) {
+        Map<String, Integer> weights = new LinkedHashMap<>();
+        for (String part : mix.split(",")) {
+            String[] entry = part.trim().split(":");
+            if (entry.length != 2) {
+                throw new IllegalArgumentException("Expected endpoint:weight in mix but got: " + part);
+            }
+            if (!WorkloadDriver.ENDPOINTS.contains(entry[0])) {
+                throw new IllegalArgumentException("Unknown endpoint in mix: " + entry[0] + ", expected one of " + WorkloadDriver.ENDPOINTS);
+            }
+            weights.put(entry[0], Integer.parseInt(entry[1]));
+        }
+        return weights;
+    }
+}
@@ -0,0 +1,131 @@
+package com.ecommerce.productloadtest;
+
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Sends catalog browsing requests from a fixed number of closed-loop threads: each thread
+ * waits for its response before sending the next request, picking the endpoint at random
+ * according to the configured mix.
+ */
+public class WorkloadDriver {
+
+    public static final List<String> ENDPOINTS = List.of("get-by-id", "category", "search", "attribute");
+
+    private static final int PAGE_SIZE = 20;
+
+    private final HttpClient client = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+    private final String baseUrl;
+    private final CatalogDataGenerator.Catalog catalog;
+    private final LoadTestOptions options;
+    private final String[] weightedEndpoints;
+
+    public WorkloadDriver(String baseUrl, CatalogDataGenerator.Catalog catalog, LoadTestOptions options) {
+        this.baseUrl = baseUrl;
+        this.catalog = catalog;
+        this.options = options;
+
+        // One slot per unit of weight, so a uniform pick follows the mix
+        List<String> slots = new ArrayList<>();
+        options.mix().forEach((endpoint, weight) -> {
+            for (int i = 0; i < weight; i++) {
+                slots.add(endpoint);
+            }
+        });
+        if (slots.isEmpty()) {
+            throw new IllegalArgumentException("The request mix has no positive weights");
+        }
+        this.weightedEndpoints = slots.toArray(String[]::new);
+    }
+
+    /**
+     * Runs all threads for the given duration and returns the merged latencies per endpoint.
+     */
+    public Map<String, LatencyStats> run(Duration duration, long seed) throws Exception {
+        long deadline = System.nanoTime() + duration.toNanos();
+        ExecutorService executor = Executors.newFixedThreadPool(options.threads());
+        try {
+            List<Future<Map<String, LatencyStats>>> workers = new ArrayList<>();
+            for (int i = 0; i < options.threads(); i++) {
+                Random random = new Random(seed + i);
+                workers.add(executor.submit(() -> drive(random, deadline)));
+            }
+
+            Map<String, LatencyStats> merged = new HashMap<>();
+            for (Future<Map<String, LatencyStats>> worker : workers) {
+                worker.get().forEach((endpoint, stats) ->
+                        merged.computeIfAbsent(endpoint, key -> new LatencyStats()).merge(stats));
+            }
+            return merged;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private Map<String, LatencyStats> drive(Random random, long deadline) {
+        Map<String, LatencyStats> stats = new HashMap<>();
+        while (System.nanoTime() < deadline) {
+            String endpoint = weightedEndpoints[random.nextInt(weightedEndpoints.length)];
+            HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + path(endpoint, random)))
+                    .header(LoadTestConfiguration.ENDPOINT_HEADER, endpoint)
+                    .timeout(Duration.ofSeconds(30))
+                    .GET()
+                    .build();
+            LatencyStats endpointStats = stats.computeIfAbsent(endpoint, key -> new LatencyStats());
+
+            long start = System.nanoTime();
+            try {
+                HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+                long elapsed = System.nanoTime() - start;
+                if (response.statusCode() == 200) {
+                    endpointStats.record(elapsed);
+                } else {
+                    endpointStats.recordError();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            } catch (Exception e) {
+                endpointStats.recordError();
+            }
+        }
+        return stats;
+    }
+
+    private String path(String endpoint, Random random) {
+        return switch (endpoint) {
+            case "get-by-id" -> {
+                long id = 1 + random.nextInt(catalog.productCount());
+                yield "/api/products/" + (CatalogDataGenerator.isActive(id) ? id : id - 1);
+            }
+            case "category" -> {
+                List<Long> leaves = catalog.leafCategoryIds();
+                // Shoppers rarely page far, so the first few pages of each category get most of the traffic
+                int pages = Math.max(1, Math.min(5, catalog.productCount() / leaves.size() / PAGE_SIZE));
+                yield "/api/products/category/" + leaves.get(random.nextInt(leaves.size())) +
+                        "?page=" + random.nextInt(pages) + "&size=" + PAGE_SIZE;
+            }
+            case "search" -> "/api/products/search?keyword=" +
+                    CatalogDataGenerator.NOUNS[random.nextInt(CatalogDataGenerator.NOUNS.length)] + "&size=" + PAGE_SIZE;
+            case "attribute" -> "/api/products/attribute?name=brand&value=" +
+                    URLEncoder.encode(CatalogDataGenerator.brand(random.nextInt(CatalogDataGenerator.BRAND_COUNT)), StandardCharsets.UTF_8);
+            default -> throw new IllegalArgumentException("Unknown endpoint: " + endpoint);
+        };
+    }
+}
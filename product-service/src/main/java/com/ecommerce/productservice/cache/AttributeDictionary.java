@@ -0,0 +1,175 @@
+package com.ecommerce.productservice.cache;
+
+import com.ecommerce.productservice.dto.ProductAttributeDto;
+import com.ecommerce.productservice.entity.AttributeName;
+import com.ecommerce.productservice.entity.AttributeValue;
+import com.ecommerce.productservice.entity.ProductAttributeId;
+import com.ecommerce.productservice.exception.BadRequestException;
+import com.ecommerce.productservice.repository.AttributeNameRepository;
+import com.ecommerce.productservice.repository.AttributeValueRepository;
+import com.ecommerce.productservice.repository.ProductBatchRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * Maps attribute name and value strings to their dictionary ids and back. Entries are
+ * never removed or renumbered, so ids cached here stay valid for the life of the process;
+ * misses (including entries added by other instances) are loaded on demand in one query.
+ * New strings are interned in their own transaction so an id is never cached for a row a
+ * rolled-back caller would have taken with it. Callers intern before opening their own
+ * transaction; interning inside one would hold a second pooled connection.
+ */
+@Component
+@Slf4j
+public class AttributeDictionary {
+
+    private final AttributeNameRepository nameRepository;
+    private final AttributeValueRepository valueRepository;
+    private final ProductBatchRepository productBatchRepository;
+    private final TransactionTemplate internTransaction;
+
+    private final Map<String, Integer> nameIds = new ConcurrentHashMap<>();
+    private final Map<Integer, String> names = new ConcurrentHashMap<>();
+    private final Map<String, Integer> valueIds = new ConcurrentHashMap<>();
+    private final Map<Integer, String> values = new ConcurrentHashMap<>();
+
+    public AttributeDictionary(AttributeNameRepository nameRepository,
+                               AttributeValueRepository valueRepository,
+                               ProductBatchRepository productBatchRepository,
+                               PlatformTransactionManager transactionManager) {
+        this.nameRepository = nameRepository;
+        this.valueRepository = valueRepository;
+        this.productBatchRepository = productBatchRepository;
+        this.internTransaction = new TransactionTemplate(transactionManager);
+        this.internTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    /**
+     * Interns all names and values up front, so the ids can later be encoded without
+     * touching the database.
+     */
+    public void intern(Collection<ProductAttributeDto> attributes) {
+        Set<String> missingNames = new HashSet<>();
+        Set<String> missingValues = new HashSet<>();
+        for (ProductAttributeDto attribute : attributes) {
+            if (attribute.getName() == null || attribute.getValue() == null) {
+                throw new BadRequestException("Attribute name and value are required");
+            }
+            if (!nameIds.containsKey(attribute.getName())) {
+                missingNames.add(attribute.getName());
+            }
+            if (!valueIds.containsKey(attribute.getValue())) {
+                missingValues.add(attribute.getValue());
+            }
+        }
+        if (missingNames.isEmpty() && missingValues.isEmpty()) {
+            return;
+        }
+
+        internTransaction.executeWithoutResult(status -> {
+            if (!missingNames.isEmpty()) {
+                List<AttributeName> found = nameRepository.findByNameIn(missingNames);
+                found.forEach(entry -> missingNames.remove(entry.getName()));
+                if (!missingNames.isEmpty()) {
+                    productBatchRepository.insertAttributeNames(missingNames);
+                    found = new ArrayList<>(found);
+                    found.addAll(nameRepository.findByNameIn(missingNames));
+                }
+                found.forEach(entry -> cacheName(entry.getId(), entry.getName()));
+            }
+            if (!missingValues.isEmpty()) {
+                List<AttributeValue> found = valueRepository.findByValueIn(missingValues);
+                found.forEach(entry -> missingValues.remove(entry.getValue()));
+                if (!missingValues.isEmpty()) {
+                    productBatchRepository.insertAttributeValues(missingValues);
+                    found = new ArrayList<>(found);
+                    found.addAll(valueRepository.findByValueIn(missingValues));
+                }
+                found.forEach(entry -> cacheValue(entry.getId(), entry.getValue()));
+            }
+        });
+    }
+
+    /**
+     * Encodes attributes whose strings have already been passed to {@link #intern}.
+     * Repeated name/value pairs collapse into one row.
+     */
+    public Set<ProductAttributeId> encodeInterned(Long productId, Collection<ProductAttributeDto> attributes) {
+        Set<ProductAttributeId> ids = new LinkedHashSet<>();
+        for (ProductAttributeDto attribute : attributes) {
+            Integer nameId = nameIds.get(attribute.getName());
+            Integer valueId = valueIds.get(attribute.getValue());
+            if (nameId == null || valueId == null) {
+                throw new IllegalStateException("Attribute " + attribute.getName() + "=" + attribute.getValue() + " was not interned");
+            }
+            ids.add(new ProductAttributeId(productId, nameId, valueId));
+        }
+        return ids;
+    }
+
+    public List<ProductAttributeDto> decode(Collection<ProductAttributeId> attributes) {
+        load(attributes);
+        return attributes.stream()
+                .map(this::toDto)
+                .collect(Collectors.toList());
+    }
+
+    public Map<Long, List<ProductAttributeDto>> decodeByProduct(Collection<ProductAttributeId> attributes) {
+        load(attributes);
+        return attributes.stream()
+                .collect(Collectors.groupingBy(ProductAttributeId::getProductId,
+                        Collectors.mapping(this::toDto, Collectors.toList())));
+    }
+
+    // Case-insensitive lookups for attribute filters through the indexed lower-case keys; usually a single id each
+    public List<Integer> findNameIds(String name) {
+        return nameRepository.findIdsByNameKey(AttributeName.keyOf(name));
+    }
+
+    public List<Integer> findValueIds(String value) {
+        return valueRepository.findIdsByValueKey(AttributeValue.keyOf(value));
+    }
+
+    private void load(Collection<ProductAttributeId> attributes) {
+        Set<Integer> missingNames = new HashSet<>();
+        Set<Integer> missingValues = new HashSet<>();
+        for (ProductAttributeId attribute : attributes) {
+            if (!names.containsKey(attribute.getNameId())) {
+                missingNames.add(attribute.getNameId());
+            }
+            if (!values.containsKey(attribute.getValueId())) {
+                missingValues.add(attribute.getValueId());
+            }
+        }
+        if (!missingNames.isEmpty()) {
+            nameRepository.findAllById(missingNames).forEach(entry -> cacheName(entry.getId(), entry.getName()));
+        }
+        if (!missingValues.isEmpty()) {
+            valueRepository.findAllById(missingValues).forEach(entry -> cacheValue(entry.getId(), entry.getValue()));
+        }
+    }
+
+    private ProductAttributeDto toDto(ProductAttributeId attribute) {
+        return ProductAttributeDto.builder()
+                .name(names.get(attribute.getNameId()))
+                .value(values.get(attribute.getValueId()))
+                .build();
+    }
+
+    private void cacheName(Integer id, String name) {
+        nameIds.put(name, id);
+        names.put(id, name);
+    }
+
+    private void cacheValue(Integer id, String value) {
+        valueIds.put(value, id);
+        values.put(id, value);
+    }
+}
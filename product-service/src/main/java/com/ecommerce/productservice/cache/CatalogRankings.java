@@ -0,0 +1,390 @@
+package com.ecommerce.productservice.cache;
+
+import com.ecommerce.productservice.repository.ProductRepository;
+import com.ecommerce.productservice.repository.ProductSalesRepository;
+import com.ecommerce.productservice.repository.projection.ProductSalesRow;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Per-category new-arrival and best-seller lists kept in memory. Each category keeps a few
+ * more entries than are ever served so that removals don't immediately leave a list short;
+ * a periodic reload from the database restores anything lost that way. Lists are immutable
+ * and replaced on write, so reads never lock. Every instance is fed every order (see
+ * ProductSalesServiceImpl), so the in-memory totals track the whole order stream between reloads.
+ *
+ * <p>Ranking the newest products of every category means a pass over the whole products table,
+ * so that only happens on the first load and after a ranked new arrival was removed. Other
+ * reloads re-read the ranked products and merge in those created since the previous reload.
+ * A product reactivated through another instance shows up here at the next full pass.
+ */
+@Component
+@Slf4j
+public class CatalogRankings implements ProductPopularity {
+
+    private static final Comparator<RankedProduct> NEWEST = Comparator
+            .comparing(RankedProduct::createdAt, Comparator.nullsLast(Comparator.reverseOrder()))
+            .thenComparing(RankedProduct::id, Comparator.reverseOrder());
+
+    // Covers transactions that stamped created_at before the previous reload but committed after it
+    private static final long CREATED_SINCE_MARGIN_MINUTES = 5;
+    // More new products than this since the last reload, e.g. a bulk import, and the full pass is cheaper
+    private static final int MAX_CREATED_SINCE = 10_000;
+
+    private static final Comparator<RankedProduct> BEST_SELLING = Comparator
+            .comparingLong(RankedProduct::unitsSold).reversed()
+            .thenComparing(RankedProduct::id);
+
+    private final ProductRepository productRepository;
+    private final ProductSalesRepository productSalesRepository;
+    private final int size;
+    private final int capacity;
+
+    private final Map<Long, Long> unitsSold = new ConcurrentHashMap<>();
+    private final Ranking newArrivals = new Ranking(NEWEST);
+    private final Ranking bestSellers = new Ranking(BEST_SELLING);
+    private final Object reloadLock = new Object();
+    // Sales applied while a reload is reading the database, re-applied on top of what it read
+    private Map<Long, Long> pendingSales;
+    private volatile boolean loaded;
+    // Start of the previous reload, or null when the next one must rank the whole table
+    private LocalDateTime newestCheckedAt;
+
+    public CatalogRankings(ProductRepository productRepository,
+                           ProductSalesRepository productSalesRepository,
+                           @Value("${catalog.rankings.size:20}") int size) {
+        this.productRepository = productRepository;
+        this.productSalesRepository = productSalesRepository;
+        this.size = size;
+        this.capacity = size * 2;
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    /**
+     * Newest active products across the given categories, or across the catalog if {@code categoryIds} is null.
+     */
+    public List<RankedProduct> newArrivals(Set<Long> categoryIds, int limit) {
+        ensureLoaded();
+        return newArrivals.top(categoryIds, Math.min(limit, size));
+    }
+
+    public List<RankedProduct> bestSellers(Set<Long> categoryIds, int limit) {
+        ensureLoaded();
+        return bestSellers.top(categoryIds, Math.min(limit, size));
+    }
+
+    @Override
+    public long scoreOf(Long productId) {
+        return unitsSold.getOrDefault(productId, 0L);
+    }
+
+    /**
+     * Inserts or refreshes a product after a committed write. Inactive products are removed.
+     */
+    public void productSaved(RankedProduct product, boolean active) {
+        afterCommit(() -> {
+            synchronized (this) {
+                if (!active) {
+                    newArrivalRemoved(product.id());
+                    newArrivals.remove(product.id());
+                    bestSellers.remove(product.id());
+                    return;
+                }
+                RankedProduct ranked = product.withUnitsSold(scoreOf(product.id()));
+                newArrivals.put(ranked);
+                if (ranked.unitsSold() > 0) {
+                    bestSellers.put(ranked);
+                }
+            }
+        });
+    }
+
+    public void productRemoved(Long productId) {
+        afterCommit(() -> {
+            synchronized (this) {
+                newArrivalRemoved(productId);
+                newArrivals.remove(productId);
+                bestSellers.remove(productId);
+            }
+        });
+    }
+
+    public void stockChanged(Long productId, boolean inStock) {
+        afterCommit(() -> {
+            synchronized (this) {
+                newArrivals.update(productId, product -> product.withInStock(inStock));
+                bestSellers.update(productId, product -> product.withInStock(inStock));
+            }
+        });
+    }
+
+    /**
+     * Applies new sales on top of the running totals. {@code cards} must hold the current card of
+     * every sold product that is not yet ranked; products without a card are counted but not ranked.
+     */
+    public synchronized void salesRecorded(Map<Long, Long> units, Map<Long, RankedProduct> cards) {
+        if (pendingSales != null) {
+            units.forEach((productId, sold) -> pendingSales.merge(productId, sold, Long::sum));
+        }
+        applySales(units, cards);
+    }
+
+    private void applySales(Map<Long, Long> units, Map<Long, RankedProduct> cards) {
+        units.forEach((productId, sold) -> {
+            long total = unitsSold.merge(productId, sold, Long::sum);
+            RankedProduct current = bestSellers.find(productId)
+                    .or(() -> Optional.ofNullable(cards.get(productId)))
+                    .orElse(null);
+            if (current != null) {
+                bestSellers.put(current.withUnitsSold(total));
+            }
+        });
+    }
+
+    /**
+     * Ids among the given products that are not currently in the best-seller lists.
+     */
+    public Set<Long> unrankedSellers(Collection<Long> productIds) {
+        ensureLoaded();
+        return productIds.stream()
+                .filter(id -> bestSellers.find(id).isEmpty())
+                .collect(Collectors.toSet());
+    }
+
+    // Heals lists that were trimmed by removals and picks up writes made through other instances
+    @Scheduled(fixedDelayString = "${catalog.rankings.reload-interval-ms:600000}",
+            initialDelayString = "${catalog.rankings.reload-interval-ms:600000}")
+    public void reload() {
+        synchronized (reloadLock) {
+            synchronized (this) {
+                pendingSales = new HashMap<>();
+            }
+            try {
+                reloadFromDatabase();
+            } finally {
+                synchronized (this) {
+                    pendingSales = null;
+                }
+            }
+        }
+    }
+
+    private void reloadFromDatabase() {
+        long start = System.currentTimeMillis();
+        LocalDateTime startedAt = LocalDateTime.now();
+        Map<Long, Long> sales = productSalesRepository.findAllRows().stream()
+                .collect(Collectors.toMap(ProductSalesRow::getProductId, ProductSalesRow::getUnitsSold));
+
+        List<Long> newestIds = newestIds();
+        List<Long> topSellerIds = productSalesRepository.findTopSellerIdsPerCategory(capacity);
+        Set<Long> ids = new HashSet<>(newestIds);
+        ids.addAll(topSellerIds);
+        Map<Long, RankedProduct> cards = ids.isEmpty() ? Collections.emptyMap()
+                : productRepository.findRankedByIdIn(ids).stream()
+                        .map(view -> RankedProduct.of(view, sales.getOrDefault(view.getId(), 0L)))
+                        .collect(Collectors.toMap(RankedProduct::id, Function.identity()));
+
+        synchronized (this) {
+            unitsSold.clear();
+            unitsSold.putAll(sales);
+            newArrivals.replaceAll(newestIds.stream().map(cards::get).filter(Objects::nonNull).collect(Collectors.toList()));
+            bestSellers.replaceAll(topSellerIds.stream().map(cards::get).filter(Objects::nonNull).collect(Collectors.toList()));
+            // Without this, orders counted while the rows were read would be lost until the next reload
+            applySales(pendingSales, Collections.emptyMap());
+            loaded = true;
+            if (newestIds.stream().allMatch(cards::containsKey)) {
+                newestCheckedAt = startedAt;
+            } else {
+                // A ranked product was deactivated elsewhere and its list may now be short
+                newestCheckedAt = null;
+            }
+        }
+        log.debug("Reloaded catalog rankings for {} products in {} ms", cards.size(), System.currentTimeMillis() - start);
+    }
+
+    // The ranked new arrivals plus anything created since the previous reload, or a full pass when needed
+    private List<Long> newestIds() {
+        LocalDateTime since;
+        Set<Long> ranked;
+        synchronized (this) {
+            since = newestCheckedAt;
+            ranked = newArrivals.ids();
+        }
+        if (since != null) {
+            List<Long> created = productRepository.findActiveIdsCreatedSince(
+                    since.minusMinutes(CREATED_SINCE_MARGIN_MINUTES), PageRequest.of(0, MAX_CREATED_SINCE + 1));
+            if (created.size() <= MAX_CREATED_SINCE) {
+                ranked.addAll(created);
+                return new ArrayList<>(ranked);
+            }
+        }
+        return productRepository.findNewestIdsPerCategory(capacity);
+    }
+
+    // Caller holds the lock; the list the product leaves may now be short, so the next reload ranks everything
+    private void newArrivalRemoved(Long productId) {
+        if (newArrivals.find(productId).isPresent()) {
+            newestCheckedAt = null;
+        }
+    }
+
+    private void ensureLoaded() {
+        if (!loaded) {
+            // Same lock as reload, never this, so a scheduled reload can't deadlock with a first read
+            synchronized (reloadLock) {
+                if (!loaded) {
+                    reload();
+                }
+            }
+        }
+    }
+
+    private void afterCommit(Runnable action) {
+        if (!loaded) {
+            // Nothing to maintain yet; the first read loads the current state
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    /**
+     * One ordering over all categories: a bounded sorted list per category plus one for the
+     * whole catalog. Mutators must hold the owning {@link CatalogRankings} lock.
+     */
+    private final class Ranking {
+        private final Comparator<RankedProduct> order;
+        private final Map<Long, List<RankedProduct>> byCategory = new ConcurrentHashMap<>();
+        private final Map<Long, Long> categoryOf = new HashMap<>();
+        private volatile List<RankedProduct> global = Collections.emptyList();
+
+        Ranking(Comparator<RankedProduct> order) {
+            this.order = order;
+        }
+
+        List<RankedProduct> top(Set<Long> categoryIds, int limit) {
+            if (categoryIds == null) {
+                List<RankedProduct> all = global;
+                return all.subList(0, Math.min(limit, all.size()));
+            }
+            if (categoryIds.size() == 1) {
+                List<RankedProduct> list = byCategory.getOrDefault(categoryIds.iterator().next(), Collections.emptyList());
+                return list.subList(0, Math.min(limit, list.size()));
+            }
+            // Subtree: every member of the top-k is in the top-k of its own category
+            PriorityQueue<RankedProduct> merged = new PriorityQueue<>(order);
+            for (Long categoryId : categoryIds) {
+                List<RankedProduct> list = byCategory.get(categoryId);
+                if (list != null) {
+                    merged.addAll(list.subList(0, Math.min(limit, list.size())));
+                }
+            }
+            List<RankedProduct> result = new ArrayList<>(Math.min(limit, merged.size()));
+            while (!merged.isEmpty() && result.size() < limit) {
+                result.add(merged.poll());
+            }
+            return result;
+        }
+
+        Optional<RankedProduct> find(Long productId) {
+            Long categoryId = categoryOf.get(productId);
+            if (categoryId == null) {
+                return Optional.empty();
+            }
+            return byCategory.getOrDefault(categoryId, Collections.emptyList()).stream()
+                    .filter(product -> product.id().equals(productId))
+                    .findFirst();
+        }
+
+        Set<Long> ids() {
+            Set<Long> ids = new HashSet<>(categoryOf.keySet());
+            global.forEach(product -> ids.add(product.id()));
+            return ids;
+        }
+
+        void put(RankedProduct product) {
+            remove(product.id());
+            List<RankedProduct> updated = insert(byCategory.getOrDefault(product.categoryId(), Collections.emptyList()), product);
+            byCategory.put(product.categoryId(), updated);
+            if (updated.contains(product)) {
+                categoryOf.put(product.id(), product.categoryId());
+            }
+            global = insert(global, product);
+        }
+
+        void remove(Long productId) {
+            Long categoryId = categoryOf.remove(productId);
+            if (categoryId != null) {
+                byCategory.computeIfPresent(categoryId, (id, list) -> without(list, productId));
+            }
+            global = without(global, productId);
+        }
+
+        void update(Long productId, Function<RankedProduct, RankedProduct> change) {
+            find(productId).ifPresent(product -> put(change.apply(product)));
+            // The global list may still hold the product after it dropped out of its category list
+            global = global.stream()
+                    .map(product -> product.id().equals(productId) ? change.apply(product) : product)
+                    .collect(Collectors.toUnmodifiableList());
+        }
+
+        void replaceAll(List<RankedProduct> products) {
+            byCategory.clear();
+            categoryOf.clear();
+            Map<Long, List<RankedProduct>> grouped = products.stream()
+                    .collect(Collectors.groupingBy(RankedProduct::categoryId));
+            grouped.forEach((categoryId, list) -> {
+                list.sort(order);
+                List<RankedProduct> trimmed = List.copyOf(list.subList(0, Math.min(capacity, list.size())));
+                byCategory.put(categoryId, trimmed);
+                trimmed.forEach(product -> categoryOf.put(product.id(), categoryId));
+            });
+            List<RankedProduct> all = new ArrayList<>(products);
+            all.sort(order);
+            global = List.copyOf(all.subList(0, Math.min(capacity, all.size())));
+        }
+
+        private List<RankedProduct> insert(List<RankedProduct> list, RankedProduct product) {
+            List<RankedProduct> copy = new ArrayList<>(list.size() + 1);
+            for (RankedProduct existing : list) {
+                if (!existing.id().equals(product.id())) {
+                    copy.add(existing);
+                }
+            }
+            int position = Collections.binarySearch(copy, product, order);
+            copy.add(position < 0 ? -position - 1 : position, product);
+            if (copy.size() > capacity) {
+                copy.remove(copy.size() - 1);
+            }
+            return Collections.unmodifiableList(copy);
+        }
+
+        private List<RankedProduct> without(List<RankedProduct> list, Long productId) {
+            return list.stream()
+                    .filter(product -> !product.id().equals(productId))
+                    .collect(Collectors.toUnmodifiableList());
+        }
+    }
+}
@@ -0,0 +1,197 @@
+package com.ecommerce.productservice.cache;
+
+import com.ecommerce.productservice.repository.projection.CategoryRow;
+
+import java.util.*;
+
+/**
+ * Immutable snapshot of the category hierarchy. Each node carries the ids of its
+ * whole subtree (itself included) so subtree queries need no recursion at read time.
+ */
+public final class CategoryTree {
+
+    private final Map<Long, Node> nodes;
+    private final List<Node> roots;
+    private final long fingerprint;
+
+    private CategoryTree(Map<Long, Node> nodes, List<Node> roots, long fingerprint) {
+        this.nodes = nodes;
+        this.roots = roots;
+        this.fingerprint = fingerprint;
+    }
+
+    public static CategoryTree empty() {
+        return new CategoryTree(Collections.emptyMap(), Collections.emptyList(), 0L);
+    }
+
+    public static CategoryTree build(List<? extends CategoryRow> rows) {
+        Map<Long, CategoryRow> rowsById = new HashMap<>();
+        Map<Long, List<Long>> childIds = new HashMap<>();
+        for (CategoryRow row : rows) {
+            rowsById.put(row.getId(), row);
+        }
+
+        List<Long> rootIds = new ArrayList<>();
+        for (CategoryRow row : rows) {
+            if (row.getParentId() == null || !rowsById.containsKey(row.getParentId())) {
+                rootIds.add(row.getId());
+            } else {
+                childIds.computeIfAbsent(row.getParentId(), k -> new ArrayList<>()).add(row.getId());
+            }
+        }
+
+        Map<Long, Node> nodes = new HashMap<>();
+        List<Node> roots = new ArrayList<>();
+        for (Long rootId : rootIds) {
+            roots.add(buildNode(rootId, rowsById, childIds, nodes));
+        }
+        roots.sort(Comparator.comparing(Node::getName, String.CASE_INSENSITIVE_ORDER));
+
+        return new CategoryTree(Collections.unmodifiableMap(nodes), Collections.unmodifiableList(roots), fingerprint(rows));
+    }
+
+    // Order-independent digest of the category rows; changes whenever any category is added, edited or moved, or its counts change.
+    // Each row is mixed to 64 bits before the sum, so offsetting changes (a product moving between siblings) don't cancel out
+    private static long fingerprint(List<? extends CategoryRow> rows) {
+        long fingerprint = rows.size();
+        for (CategoryRow row : rows) {
+            long rowHash = mix(row.getId());
+            rowHash = mix(rowHash + Objects.hashCode(row.getName()));
+            rowHash = mix(rowHash + Objects.hashCode(row.getDescription()));
+            rowHash = mix(rowHash + Objects.hashCode(row.getParentId()));
+            rowHash = mix(rowHash + Objects.hashCode(row.getProductCount()));
+            rowHash = mix(rowHash + Objects.hashCode(row.getSubtreeProductCount()));
+            fingerprint += rowHash;
+        }
+        return fingerprint;
+    }
+
+    // SplitMix64 finalizer
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    private static Node buildNode(Long id, Map<Long, CategoryRow> rowsById,
+                                  Map<Long, List<Long>> childIds, Map<Long, Node> nodes) {
+        CategoryRow row = rowsById.get(id);
+        List<Node> children = new ArrayList<>();
+        Set<Long> subtreeIds = new HashSet<>();
+        subtreeIds.add(id);
+
+        for (Long childId : childIds.getOrDefault(id, Collections.emptyList())) {
+            // Defensive: never descend into a node twice, even if the stored parent links are corrupt
+            if (nodes.containsKey(childId)) {
+                continue;
+            }
+            Node child = buildNode(childId, rowsById, childIds, nodes);
+            children.add(child);
+            subtreeIds.addAll(child.getSubtreeIds());
+        }
+        children.sort(Comparator.comparing(Node::getName, String.CASE_INSENSITIVE_ORDER));
+
+        Node node = new Node(id, row.getName(), row.getDescription(), row.getParentId(),
+                Collections.unmodifiableList(children), Collections.unmodifiableSet(subtreeIds),
+                row.getProductCount() != null ? row.getProductCount() : 0L,
+                row.getSubtreeProductCount() != null ? row.getSubtreeProductCount() : 0L);
+        nodes.put(id, node);
+        return node;
+    }
+
+    public Optional<Node> find(Long id) {
+        return Optional.ofNullable(nodes.get(id));
+    }
+
+    public boolean contains(Long id) {
+        return nodes.containsKey(id);
+    }
+
+    /**
+     * Returns the ids of the category and all of its descendants, or an empty set if unknown.
+     */
+    public Set<Long> subtreeIdsOf(Long id) {
+        Node node = nodes.get(id);
+        return node != null ? node.getSubtreeIds() : Collections.emptySet();
+    }
+
+    /**
+     * Returns the category followed by its ancestors up to the root, or an empty list if unknown.
+     */
+    public List<Long> pathOf(Long id) {
+        List<Long> path = new ArrayList<>();
+        Node node = nodes.get(id);
+        while (node != null && path.size() <= nodes.size()) {
+            path.add(node.getId());
+            node = node.getParentId() != null ? nodes.get(node.getParentId()) : null;
+        }
+        return path;
+    }
+
+    public List<Node> getRoots() {
+        return roots;
+    }
+
+    public int size() {
+        return nodes.size();
+    }
+
+    public long getFingerprint() {
+        return fingerprint;
+    }
+
+    public static final class Node {
+        private final Long id;
+        private final String name;
+        private final String description;
+        private final Long parentId;
+        private final List<Node> children;
+        private final Set<Long> subtreeIds;
+        private final long productCount;
+        private final long subtreeProductCount;
+
+        private Node(Long id, String name, String description, Long parentId,
+                     List<Node> children, Set<Long> subtreeIds, long productCount, long subtreeProductCount) {
+            this.id = id;
+            this.name = name;
+            this.description = description;
+            this.parentId = parentId;
+            this.children = children;
+            this.subtreeIds = subtreeIds;
+            this.productCount = productCount;
+            this.subtreeProductCount = subtreeProductCount;
+        }
+
+        public Long getId() {
+            return id;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public String getDescription() {
+            return description;
+        }
+
+        public Long getParentId() {
+            return parentId;
+        }
+
+        public List<Node> getChildren() {
+            return children;
+        }
+
+        public Set<Long> getSubtreeIds() {
+            return subtreeIds;
+        }
+
+        public long getProductCount() {
+            return productCount;
+        }
+
+        public long getSubtreeProductCount() {
+            return subtreeProductCount;
+        }
+    }
+}
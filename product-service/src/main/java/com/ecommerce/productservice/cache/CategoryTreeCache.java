@@ -0,0 +1,71 @@
+package com.ecommerce.productservice.cache;
+
+import com.ecommerce.productservice.repository.CategoryRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Holds the current {@link CategoryTree}. The tree is loaded lazily on first use,
+ * replaced wholesale after every committed category write and refreshed periodically.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class CategoryTreeCache {
+
+    private final CategoryRepository categoryRepository;
+
+    private volatile CategoryTree tree;
+
+    public CategoryTree get() {
+        CategoryTree current = tree;
+        if (current == null) {
+            synchronized (this) {
+                current = tree;
+                if (current == null) {
+                    current = load();
+                    tree = current;
+                }
+            }
+        }
+        return current;
+    }
+
+    /**
+     * Schedules a rebuild once the surrounding transaction commits, or rebuilds
+     * immediately when called outside a transaction.
+     */
+    public void invalidate() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    rebuild();
+                }
+            });
+        } else {
+            rebuild();
+        }
+    }
+
+    public synchronized void rebuild() {
+        tree = load();
+    }
+
+    // Picks up category writes made through other instances of the service
+    @Scheduled(fixedDelayString = "${catalog.category-tree.refresh-interval-ms:60000}",
+            initialDelayString = "${catalog.category-tree.refresh-interval-ms:60000}")
+    public void refresh() {
+        rebuild();
+    }
+
+    private CategoryTree load() {
+        CategoryTree loaded = CategoryTree.build(categoryRepository.findAllRows());
+        log.debug("Loaded category tree with {} categories", loaded.size());
+        return loaded;
+    }
+}
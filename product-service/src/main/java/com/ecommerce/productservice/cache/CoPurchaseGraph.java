@@ -0,0 +1,260 @@
+package com.ecommerce.productservice.cache;
+
+import com.ecommerce.productservice.repository.ProductRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.*;
+
+/**
+ * "Frequently bought together" counts, built incrementally from orders. Every pair of
+ * distinct products in an order strengthens the link in both directions. Memory is capped
+ * three ways: each product keeps only its strongest neighbours, the number of tracked
+ * products is bounded, and a periodic decay pass halves old evidence every half-life and
+ * drops links that fade below a floor. Neighbours are held in primitive arrays, about
+ * 12 bytes per link, so the defaults stay within a few megabytes.
+ *
+ * <p>Fed by the per-instance order listener, so every instance holds the whole graph. It is
+ * not persisted and starts empty after a restart. Deleted or deactivated products are dropped
+ * once the write commits on the instance that handled it, and by the decay pass everywhere else.
+ */
+@Component
+@Slf4j
+public class CoPurchaseGraph {
+
+    private static final int ACTIVE_CHECK_CHUNK = 1000;
+
+    private final ProductRepository productRepository;
+    private final int maxNeighbors;
+    private final int maxProducts;
+    private final int maxItemsPerOrder;
+    private final double decayFactor;
+    private final double minScore;
+    private final Map<Long, Node> nodes = new HashMap<>();
+
+    public CoPurchaseGraph(ProductRepository productRepository,
+                           @Value("${catalog.related.max-neighbors:30}") int maxNeighbors,
+                           @Value("${catalog.related.max-products:20000}") int maxProducts,
+                           @Value("${catalog.related.max-items-per-order:20}") int maxItemsPerOrder,
+                           @Value("${catalog.related.half-life-hours:168}") double halfLifeHours,
+                           @Value("${catalog.related.decay-interval-ms:3600000}") long decayIntervalMillis,
+                           @Value("${catalog.related.min-score:0.1}") double minScore) {
+        this.productRepository = productRepository;
+        this.maxNeighbors = maxNeighbors;
+        this.maxProducts = maxProducts;
+        this.maxItemsPerOrder = maxItemsPerOrder;
+        this.minScore = minScore;
+        // Per-pass multiplier that halves a score once per half-life
+        this.decayFactor = Math.pow(0.5, decayIntervalMillis / (halfLifeHours * 3_600_000d));
+    }
+
+    /**
+     * Records one order. {@code items} maps product id to display name.
+     */
+    public synchronized void recordOrder(Map<Long, String> items) {
+        if (items.size() < 2) {
+            return;
+        }
+        // Pairs grow quadratically; very large baskets say little about any single pair anyway
+        List<Long> productIds = new ArrayList<>(items.keySet());
+        if (productIds.size() > maxItemsPerOrder) {
+            productIds = productIds.subList(0, maxItemsPerOrder);
+        }
+        for (Long productId : productIds) {
+            for (Long otherId : productIds) {
+                if (!productId.equals(otherId)) {
+                    link(productId, items.get(productId), otherId);
+                }
+            }
+        }
+    }
+
+    public synchronized List<Related> related(Long productId, int limit) {
+        Node node = nodes.get(productId);
+        if (node == null) {
+            return Collections.emptyList();
+        }
+        Integer[] order = new Integer[node.size];
+        for (int i = 0; i < node.size; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, (a, b) -> Float.compare(node.scores[b], node.scores[a]));
+
+        List<Related> related = new ArrayList<>(Math.min(limit, node.size));
+        for (int i = 0; i < order.length && related.size() < limit; i++) {
+            long neighborId = node.neighborIds[order[i]];
+            Node neighbor = nodes.get(neighborId);
+            related.add(new Related(neighborId, neighbor != null ? neighbor.name : null, node.scores[order[i]]));
+        }
+        return related;
+    }
+
+    public synchronized int size() {
+        return nodes.size();
+    }
+
+    // Drops a deleted or deactivated product and every link pointing at it, once the write commits
+    public void productRemoved(Long productId) {
+        afterCommit(() -> {
+            synchronized (this) {
+                nodes.remove(productId);
+                for (Node node : nodes.values()) {
+                    node.remove(productId);
+                }
+            }
+        });
+    }
+
+    @Scheduled(fixedDelayString = "${catalog.related.decay-interval-ms:3600000}",
+            initialDelayString = "${catalog.related.decay-interval-ms:3600000}")
+    public void decay() {
+        // Checked against the database outside the lock; orders keep flowing meanwhile
+        List<Long> tracked;
+        synchronized (this) {
+            tracked = new ArrayList<>(nodes.keySet());
+        }
+        Set<Long> inactive = new HashSet<>(tracked);
+        for (int from = 0; from < tracked.size(); from += ACTIVE_CHECK_CHUNK) {
+            inactive.removeAll(productRepository.findActiveIdsByIdIn(
+                    tracked.subList(from, Math.min(from + ACTIVE_CHECK_CHUNK, tracked.size()))));
+        }
+
+        synchronized (this) {
+            nodes.keySet().removeAll(inactive);
+            Iterator<Node> iterator = nodes.values().iterator();
+            while (iterator.hasNext()) {
+                Node node = iterator.next();
+                node.decay(decayFactor, minScore, inactive);
+                if (node.size == 0) {
+                    iterator.remove();
+                }
+            }
+
+            // Still over the cap: drop the products with the least total evidence
+            if (nodes.size() > maxProducts) {
+                List<Node> weakest = new ArrayList<>(nodes.values());
+                weakest.sort(Comparator.comparingDouble(Node::total));
+                for (int i = 0; i < weakest.size() - maxProducts; i++) {
+                    nodes.remove(weakest.get(i).productId);
+                }
+            }
+            log.debug("Decayed co-purchase graph, {} products tracked, {} inactive dropped", nodes.size(), inactive.size());
+        }
+    }
+
+    private void link(Long productId, String name, Long otherId) {
+        Node node = nodes.get(productId);
+        if (node == null) {
+            // At the hard cap new products wait for the next decay pass to make room
+            if (nodes.size() >= maxProducts) {
+                return;
+            }
+            node = new Node(productId);
+            nodes.put(productId, node);
+        }
+        if (name != null) {
+            node.name = name;
+        }
+        node.add(otherId, maxNeighbors);
+    }
+
+    private void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    public record Related(Long productId, String name, double score) {
+    }
+
+    // Neighbour ids and scores in parallel arrays; linear scans are cheap at these sizes
+    private static final class Node {
+        private final long productId;
+        private long[] neighborIds = new long[4];
+        private float[] scores = new float[4];
+        private int size;
+        private String name;
+
+        Node(long productId) {
+            this.productId = productId;
+        }
+
+        void add(long neighborId, int maxNeighbors) {
+            int index = indexOf(neighborId);
+            if (index >= 0) {
+                scores[index] += 1;
+                return;
+            }
+            if (size >= maxNeighbors) {
+                // Space-saving: the newcomer takes over the weakest slot and inherits its score
+                int weakest = 0;
+                for (int i = 1; i < size; i++) {
+                    if (scores[i] < scores[weakest]) {
+                        weakest = i;
+                    }
+                }
+                neighborIds[weakest] = neighborId;
+                scores[weakest] += 1;
+                return;
+            }
+            if (size == neighborIds.length) {
+                int capacity = Math.min(maxNeighbors, size * 2);
+                neighborIds = Arrays.copyOf(neighborIds, capacity);
+                scores = Arrays.copyOf(scores, capacity);
+            }
+            neighborIds[size] = neighborId;
+            scores[size] = 1;
+            size++;
+        }
+
+        void remove(long neighborId) {
+            int index = indexOf(neighborId);
+            if (index >= 0) {
+                size--;
+                neighborIds[index] = neighborIds[size];
+                scores[index] = scores[size];
+            }
+        }
+
+        void decay(double factor, double minScore, Set<Long> dropped) {
+            int kept = 0;
+            for (int i = 0; i < size; i++) {
+                float score = (float) (scores[i] * factor);
+                if (score >= minScore && !dropped.contains(neighborIds[i])) {
+                    neighborIds[kept] = neighborIds[i];
+                    scores[kept] = score;
+                    kept++;
+                }
+            }
+            size = kept;
+        }
+
+        double total() {
+            double total = 0;
+            for (int i = 0; i < size; i++) {
+                total += scores[i];
+            }
+            return total;
+        }
+
+        private int indexOf(long neighborId) {
+            for (int i = 0; i < size; i++) {
+                if (neighborIds[i] == neighborId) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package com.ecommerce.productservice.cache;
+
+import java.util.Arrays;
+
+/**
+ * Fixed-size frequency sketch for long keys. Estimates never undercount; with conservative
+ * updates the overcount is bounded by roughly {@code e / width} of the total added.
+ * Not thread-safe.
+ */
+public final class CountMinSketch {
+
+    private static final long[] SEEDS = {
+            0x9E3779B97F4A7C15L, 0xC2B2AE3D27D4EB4FL, 0x165667B19E3779F9L, 0xD6E8FEB86659FD93L,
+            0xFF51AFD7ED558CCDL, 0xC4CEB9FE1A85EC53L, 0x27D4EB2F165667C5L, 0x94D049BB133111EBL
+    };
+
+    private final int width;
+    private final long[][] counts;
+
+    public CountMinSketch(int depth, int width) {
+        if (depth < 1 || depth > SEEDS.length) {
+            throw new IllegalArgumentException("Sketch depth must be between 1 and " + SEEDS.length);
+        }
+        if (width < 1) {
+            throw new IllegalArgumentException("Sketch width must be positive");
+        }
+        this.width = width;
+        this.counts = new long[depth][width];
+    }
+
+    /**
+     * Conservative update: only the cells holding the current minimum are raised.
+     */
+    public void add(long key, long count) {
+        int[] cells = new int[counts.length];
+        long estimate = Long.MAX_VALUE;
+        for (int row = 0; row < counts.length; row++) {
+            cells[row] = cell(key, row);
+            estimate = Math.min(estimate, counts[row][cells[row]]);
+        }
+        long target = estimate + count;
+        for (int row = 0; row < counts.length; row++) {
+            if (counts[row][cells[row]] < target) {
+                counts[row][cells[row]] = target;
+            }
+        }
+    }
+
+    public long estimate(long key) {
+        long estimate = Long.MAX_VALUE;
+        for (int row = 0; row < counts.length; row++) {
+            estimate = Math.min(estimate, counts[row][cell(key, row)]);
+        }
+        return estimate;
+    }
+
+    public void clear() {
+        for (long[] row : counts) {
+            Arrays.fill(row, 0L);
+        }
+    }
+
+    private int cell(long key, int row) {
+        long h = key * SEEDS[row];
+        h ^= h >>> 33;
+        h *= 0xFF51AFD7ED558CCDL;
+        h ^= h >>> 33;
+        return (int) Math.floorMod(h, (long) width);
+    }
+}
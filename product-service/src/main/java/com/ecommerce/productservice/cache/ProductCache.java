@@ -0,0 +1,170 @@
+package com.ecommerce.productservice.cache;
+
+import com.ecommerce.productservice.dto.ProductAttributeDto;
+import com.ecommerce.productservice.dto.ProductResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.*;
+
+/**
+ * Bounded, time-limited cache of assembled product detail responses. Entries are evicted
+ * after any committed write to the product through this instance. Reads pass the ETag they are
+ * about to serve and only accept an entry built under it, so writes made through other
+ * instances are picked up on the next read; the TTL only ages out entries nobody asks for.
+ *
+ * <p>The bound is on the estimated heap the entries retain rather than their count, since a
+ * product with a long description and many attributes is many times the size of a bare one.
+ */
+@Component
+@Slf4j
+public class ProductCache {
+
+    // Object headers, boxed fields and map overhead of one entry, before its strings
+    private static final int ENTRY_OVERHEAD_BYTES = 600;
+    private static final int ATTRIBUTE_OVERHEAD_BYTES = 120;
+
+    private final long maxWeightBytes;
+    private final long ttlMillis;
+    private final LinkedHashMap<Long, Entry> entries;
+    private long weightBytes;
+
+    public ProductCache(@Value("${catalog.product-cache.max-weight-mb:64}") long maxWeightMb,
+                        @Value("${catalog.product-cache.ttl-ms:60000}") long ttlMillis) {
+        this.maxWeightBytes = maxWeightMb * 1024 * 1024;
+        this.ttlMillis = ttlMillis;
+        // Access order turns the map into an LRU
+        this.entries = new LinkedHashMap<>(16, 0.75f, true);
+    }
+
+    /**
+     * Returns the cached product only if it was stored under the given version, so a response
+     * built before a write on another instance is never served with the post-write ETag.
+     */
+    public synchronized Optional<ProductResponse> get(Long id, String version) {
+        Entry entry = entries.get(id);
+        if (entry == null) {
+            return Optional.empty();
+        }
+        if (entry.expiresAt() < System.currentTimeMillis() || !Objects.equals(entry.version(), version)) {
+            remove(id);
+            return Optional.empty();
+        }
+        return Optional.of(entry.product());
+    }
+
+    /**
+     * Looks up all ids under a single lock, each against its current version as in {@link #get};
+     * ids that are absent, expired or stale are left out of the result.
+     */
+    public synchronized Map<Long, ProductResponse> getAll(Map<Long, String> versions) {
+        long now = System.currentTimeMillis();
+        Map<Long, ProductResponse> hits = new HashMap<>();
+        for (Map.Entry<Long, String> version : versions.entrySet()) {
+            Entry entry = entries.get(version.getKey());
+            if (entry == null) {
+                continue;
+            }
+            if (entry.expiresAt() < now || !Objects.equals(entry.version(), version.getValue())) {
+                remove(version.getKey());
+            } else {
+                hits.put(version.getKey(), entry.product());
+            }
+        }
+        return hits;
+    }
+
+    public synchronized void put(ProductResponse product, String version) {
+        store(product, version, System.currentTimeMillis() + ttlMillis);
+    }
+
+    // Each product is stored under the version it was read with; products without one are not cached
+    public synchronized void putAll(Collection<ProductResponse> products, Map<Long, String> versions) {
+        long expiresAt = System.currentTimeMillis() + ttlMillis;
+        for (ProductResponse product : products) {
+            String version = versions.get(product.getId());
+            if (version != null) {
+                store(product, version, expiresAt);
+            }
+        }
+    }
+
+    /**
+     * Evicts the product once the surrounding transaction commits, or immediately when called
+     * outside a transaction. Evicting only after commit keeps a concurrent reader from caching
+     * the pre-write state again.
+     */
+    public void evict(Long id) {
+        afterCommit(() -> {
+            synchronized (this) {
+                remove(id);
+            }
+        });
+    }
+
+    // Used when a change (e.g. a category rename) can affect any cached product
+    public void evictAll() {
+        afterCommit(() -> {
+            synchronized (this) {
+                entries.clear();
+                weightBytes = 0;
+            }
+        });
+    }
+
+    private void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    private void store(ProductResponse product, String version, long expiresAt) {
+        Entry entry = new Entry(product, version, expiresAt, weigh(product));
+        Entry previous = entries.put(product.getId(), entry);
+        weightBytes += entry.weight() - (previous != null ? previous.weight() : 0);
+        Iterator<Entry> eldest = entries.values().iterator();
+        while (weightBytes > maxWeightBytes && eldest.hasNext()) {
+            weightBytes -= eldest.next().weight();
+            eldest.remove();
+        }
+    }
+
+    private void remove(Long id) {
+        Entry entry = entries.remove(id);
+        if (entry != null) {
+            weightBytes -= entry.weight();
+        }
+    }
+
+    // Rough retained size: fixed overhead plus two bytes per character of the variable-length text
+    private static int weigh(ProductResponse product) {
+        int weight = ENTRY_OVERHEAD_BYTES + 2 * (length(product.getName()) + length(product.getDescription())
+                + length(product.getImageUrl()));
+        if (product.getCategory() != null) {
+            weight += 2 * (length(product.getCategory().getName()) + length(product.getCategory().getDescription()));
+        }
+        if (product.getAttributes() != null) {
+            for (ProductAttributeDto attribute : product.getAttributes()) {
+                weight += ATTRIBUTE_OVERHEAD_BYTES + 2 * (length(attribute.getName()) + length(attribute.getValue()));
+            }
+        }
+        return weight;
+    }
+
+    private static int length(String value) {
+        return value != null ? value.length() : 0;
+    }
+
+    private record Entry(ProductResponse product, String version, long expiresAt, int weight) {
+    }
+}
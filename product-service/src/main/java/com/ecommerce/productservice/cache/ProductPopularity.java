@@ -0,0 +1,9 @@
+package com.ecommerce.productservice.cache;
+
+/**
+ * Source of a relative popularity score per product, used to rank suggestions.
+ * Higher is more popular; products without a signal score zero.
+ */
+public interface ProductPopularity {
+    long scoreOf(Long productId);
+}
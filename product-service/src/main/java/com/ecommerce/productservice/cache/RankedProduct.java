@@ -0,0 +1,27 @@
+package com.ecommerce.productservice.cache;
+
+import com.ecommerce.productservice.repository.projection.RankedProductView;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Immutable product card held in the in-memory rankings.
+ */
+public record RankedProduct(Long id, String name, BigDecimal price, String imageUrl, Long categoryId,
+                            String categoryName, LocalDateTime createdAt, boolean inStock, long unitsSold) {
+
+    public static RankedProduct of(RankedProductView view, long unitsSold) {
+        return new RankedProduct(view.getId(), view.getName(), view.getPrice(), view.getImageUrl(),
+                view.getCategoryId(), view.getCategoryName(), view.getCreatedAt(),
+                Boolean.TRUE.equals(view.getInStock()), unitsSold);
+    }
+
+    public RankedProduct withInStock(boolean inStock) {
+        return new RankedProduct(id, name, price, imageUrl, categoryId, categoryName, createdAt, inStock, unitsSold);
+    }
+
+    public RankedProduct withUnitsSold(long unitsSold) {
+        return new RankedProduct(id, name, price, imageUrl, categoryId, categoryName, createdAt, inStock, unitsSold);
+    }
+}
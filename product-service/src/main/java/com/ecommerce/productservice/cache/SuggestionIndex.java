@@ -0,0 +1,307 @@
+package com.ecommerce.productservice.cache;
+
+import java.util.*;
+
+/**
+ * Immutable prefix index for typeahead. Every word of every indexed text is a search
+ * entry, stored only as a (text, offset) pair packed into a long, so no substrings are
+ * materialised. Entries are kept in lexicographic order of the text from their offset,
+ * which makes all completions of a prefix a contiguous range; a max segment tree over
+ * entry weights then yields the top-k of that range in O(k log n).
+ */
+public final class SuggestionIndex {
+
+    private static final int OFFSET_BITS = 16;
+    private static final long OFFSET_MASK = (1L << OFFSET_BITS) - 1;
+    private static final int MAX_INDEXED_LENGTH = (int) OFFSET_MASK;
+
+    private final long[] ids;
+    private final String[] texts;
+    private final String[] normalized;
+    private final long[] weights;
+    private final long[] entries;
+    private final int[] tree;
+    private final int leaves;
+
+    private SuggestionIndex(long[] ids, String[] texts, String[] normalized, long[] weights, long[] entries) {
+        this.ids = ids;
+        this.texts = texts;
+        this.normalized = normalized;
+        this.weights = weights;
+        this.entries = entries;
+
+        int size = 1;
+        while (size < Math.max(1, entries.length)) {
+            size <<= 1;
+        }
+        this.leaves = size;
+        this.tree = new int[2 * size];
+        Arrays.fill(tree, -1);
+        for (int i = 0; i < entries.length; i++) {
+            tree[size + i] = i;
+        }
+        for (int node = size - 1; node > 0; node--) {
+            tree[node] = better(tree[2 * node], tree[2 * node + 1]);
+        }
+    }
+
+    public static SuggestionIndex empty() {
+        return new Builder().build();
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public int size() {
+        return ids.length;
+    }
+
+    /**
+     * Returns up to {@code limit} distinct items having a word that starts with the prefix,
+     * highest weight first. Items whose text itself starts with the prefix win weight ties.
+     */
+    public List<Match> complete(String prefix, int limit) {
+        String key = normalize(prefix);
+        if (key.isEmpty() || limit <= 0 || entries.length == 0) {
+            return Collections.emptyList();
+        }
+
+        int lo = lowerBound(key, false);
+        int hi = lowerBound(key, true);
+        if (lo >= hi) {
+            return Collections.emptyList();
+        }
+
+        // Each queued range is represented by its best entry; splitting around it keeps the queue ordered
+        PriorityQueue<int[]> queue = new PriorityQueue<>((a, b) -> compareEntries(b[2], a[2]));
+        queue.add(new int[]{lo, hi, argMax(lo, hi)});
+
+        List<Match> matches = new ArrayList<>(limit);
+        Set<Integer> seen = new HashSet<>();
+        while (!queue.isEmpty() && matches.size() < limit) {
+            int[] range = queue.poll();
+            int best = range[2];
+            int item = itemOf(entries[best]);
+            if (seen.add(item)) {
+                matches.add(new Match(ids[item], texts[item], weights[item]));
+            }
+            if (range[0] < best) {
+                queue.add(new int[]{range[0], best, argMax(range[0], best)});
+            }
+            if (best + 1 < range[1]) {
+                queue.add(new int[]{best + 1, range[1], argMax(best + 1, range[1])});
+            }
+        }
+        return matches;
+    }
+
+    static String normalize(String text) {
+        if (text == null) {
+            return "";
+        }
+        StringBuilder sb = new StringBuilder(text.length());
+        boolean pendingSpace = false;
+        for (int i = 0; i < text.length(); i++) {
+            char c = Character.toLowerCase(text.charAt(i));
+            if (Character.isLetterOrDigit(c)) {
+                if (pendingSpace && sb.length() > 0) {
+                    sb.append(' ');
+                }
+                sb.append(c);
+                pendingSpace = false;
+            } else {
+                pendingSpace = true;
+            }
+        }
+        return sb.toString();
+    }
+
+    // First entry whose suffix is >= key (strict = false) or does not start with key and is > key (strict = true)
+    private int lowerBound(String key, boolean strict) {
+        int lo = 0;
+        int hi = entries.length;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            int cmp = comparePrefix(entries[mid], key);
+            if (cmp < 0 || (strict && cmp == 0)) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+
+    private int comparePrefix(long entry, String key) {
+        String text = normalized[itemOf(entry)];
+        int offset = offsetOf(entry);
+        int length = Math.min(key.length(), text.length() - offset);
+        for (int i = 0; i < length; i++) {
+            char a = text.charAt(offset + i);
+            char b = key.charAt(i);
+            if (a != b) {
+                return a - b;
+            }
+        }
+        return length == key.length() ? 0 : -1;
+    }
+
+    private int argMax(int from, int to) {
+        int best = -1;
+        for (int l = from + leaves, r = to + leaves; l < r; l >>= 1, r >>= 1) {
+            if ((l & 1) == 1) {
+                best = better(best, tree[l++]);
+            }
+            if ((r & 1) == 1) {
+                best = better(best, tree[--r]);
+            }
+        }
+        return best;
+    }
+
+    private int better(int a, int b) {
+        if (a < 0) {
+            return b;
+        }
+        if (b < 0) {
+            return a;
+        }
+        int cmp = compareEntries(a, b);
+        return cmp > 0 || (cmp == 0 && a < b) ? a : b;
+    }
+
+    private int compareEntries(int a, int b) {
+        int cmp = Long.compare(weights[itemOf(entries[a])], weights[itemOf(entries[b])]);
+        if (cmp != 0) {
+            return cmp;
+        }
+        // Prefer a match at the start of the text over a match on a later word
+        return Boolean.compare(offsetOf(entries[a]) == 0, offsetOf(entries[b]) == 0);
+    }
+
+    private static int itemOf(long entry) {
+        return (int) (entry >>> OFFSET_BITS);
+    }
+
+    private static int offsetOf(long entry) {
+        return (int) (entry & OFFSET_MASK);
+    }
+
+    public record Match(long id, String text, long weight) {
+    }
+
+    public static final class Builder {
+        private final List<Long> ids = new ArrayList<>();
+        private final List<String> texts = new ArrayList<>();
+        private final List<Long> weights = new ArrayList<>();
+
+        private Builder() {
+        }
+
+        public Builder add(long id, String text, long weight) {
+            if (text != null && !text.isBlank()) {
+                ids.add(id);
+                texts.add(text);
+                weights.add(weight);
+            }
+            return this;
+        }
+
+        public SuggestionIndex build() {
+            int count = ids.size();
+            long[] idArray = new long[count];
+            String[] textArray = new String[count];
+            String[] normalizedArray = new String[count];
+            long[] weightArray = new long[count];
+            LongArrayBuilder entryBuilder = new LongArrayBuilder(count * 3);
+
+            for (int item = 0; item < count; item++) {
+                idArray[item] = ids.get(item);
+                textArray[item] = texts.get(item);
+                weightArray[item] = weights.get(item);
+                String text = normalize(texts.get(item));
+                if (text.length() > MAX_INDEXED_LENGTH) {
+                    text = text.substring(0, MAX_INDEXED_LENGTH);
+                }
+                normalizedArray[item] = text;
+                for (int offset = 0; offset < text.length(); offset++) {
+                    if (offset == 0 || text.charAt(offset - 1) == ' ') {
+                        entryBuilder.add(((long) item << OFFSET_BITS) | offset);
+                    }
+                }
+            }
+
+            long[] entries = entryBuilder.toArray();
+            sortEntries(entries, normalizedArray);
+            return new SuggestionIndex(idArray, textArray, normalizedArray, weightArray, entries);
+        }
+
+        // Bottom-up merge sort on the packed entries, ordered by the text from each entry's offset
+        private static void sortEntries(long[] entries, String[] normalized) {
+            long[] buffer = new long[entries.length];
+            long[] src = entries;
+            long[] dst = buffer;
+            for (int width = 1; width < entries.length; width <<= 1) {
+                for (int lo = 0; lo < entries.length; lo += 2 * width) {
+                    int mid = Math.min(lo + width, entries.length);
+                    int hi = Math.min(lo + 2 * width, entries.length);
+                    int i = lo;
+                    int j = mid;
+                    int k = lo;
+                    while (i < mid && j < hi) {
+                        dst[k++] = compareSuffixes(src[i], src[j], normalized) <= 0 ? src[i++] : src[j++];
+                    }
+                    while (i < mid) {
+                        dst[k++] = src[i++];
+                    }
+                    while (j < hi) {
+                        dst[k++] = src[j++];
+                    }
+                }
+                long[] swap = src;
+                src = dst;
+                dst = swap;
+            }
+            if (src != entries) {
+                System.arraycopy(src, 0, entries, 0, entries.length);
+            }
+        }
+
+        private static int compareSuffixes(long a, long b, String[] normalized) {
+            String textA = normalized[itemOf(a)];
+            String textB = normalized[itemOf(b)];
+            int offsetA = offsetOf(a);
+            int offsetB = offsetOf(b);
+            int length = Math.min(textA.length() - offsetA, textB.length() - offsetB);
+            for (int i = 0; i < length; i++) {
+                char ca = textA.charAt(offsetA + i);
+                char cb = textB.charAt(offsetB + i);
+                if (ca != cb) {
+                    return ca - cb;
+                }
+            }
+            return (textA.length() - offsetA) - (textB.length() - offsetB);
+        }
+    }
+
+    private static final class LongArrayBuilder {
+        private long[] values;
+        private int size;
+
+        LongArrayBuilder(int capacity) {
+            values = new long[Math.max(capacity, 16)];
+        }
+
+        void add(long value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+
+        long[] toArray() {
+            return Arrays.copyOf(values, size);
+        }
+    }
+}
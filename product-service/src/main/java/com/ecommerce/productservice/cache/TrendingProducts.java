@@ -0,0 +1,132 @@
+package com.ecommerce.productservice.cache;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.*;
+
+/**
+ * Heavy hitters over a sliding time window of units ordered. The window is a ring of
+ * Count-Min sketches, one per time bucket; expired buckets are cleared and reused. A bounded
+ * candidate set tracks the products with the highest windowed estimates, so memory is fixed
+ * regardless of how many products or orders flow through.
+ *
+ * <p>Fed by the per-instance order listener, so every instance counts every order and answers
+ * alike. Nothing is persisted: after a restart the window starts empty and fills up again
+ * over its own length.
+ */
+@Component
+public class TrendingProducts {
+
+    private final long bucketMillis;
+    private final int candidateCapacity;
+    private final CountMinSketch[] buckets;
+    private final Map<Long, Candidate> candidates = new HashMap<>();
+    private long currentBucket;
+
+    public TrendingProducts(@Value("${catalog.trending.window:60m}") Duration window,
+                            @Value("${catalog.trending.buckets:12}") int bucketCount,
+                            @Value("${catalog.trending.sketch-depth:4}") int depth,
+                            @Value("${catalog.trending.sketch-width:4096}") int width,
+                            @Value("${catalog.trending.candidates:200}") int candidateCapacity) {
+        this.bucketMillis = Math.max(1, window.toMillis() / bucketCount);
+        this.candidateCapacity = candidateCapacity;
+        this.buckets = new CountMinSketch[bucketCount];
+        for (int i = 0; i < bucketCount; i++) {
+            buckets[i] = new CountMinSketch(depth, width);
+        }
+        this.currentBucket = System.currentTimeMillis() / bucketMillis;
+    }
+
+    public Duration getWindow() {
+        return Duration.ofMillis(bucketMillis * buckets.length);
+    }
+
+    public synchronized void record(Long productId, String name, long units) {
+        if (productId == null || units <= 0) {
+            return;
+        }
+        advance();
+        buckets[(int) (currentBucket % buckets.length)].add(productId, units);
+        long estimate = windowEstimate(productId);
+
+        Candidate candidate = candidates.get(productId);
+        if (candidate != null) {
+            candidate.estimate = estimate;
+            if (name != null) {
+                candidate.name = name;
+            }
+            return;
+        }
+        if (candidates.size() < candidateCapacity) {
+            candidates.put(productId, new Candidate(productId, name, estimate));
+            return;
+        }
+        // Full: the newcomer replaces the weakest candidate only if it outranks it
+        Candidate weakest = Collections.min(candidates.values(), Comparator.comparingLong(c -> c.estimate));
+        if (weakest.estimate < estimate) {
+            candidates.remove(weakest.productId);
+            candidates.put(productId, new Candidate(productId, name, estimate));
+        }
+    }
+
+    /**
+     * Most ordered products in the current window, highest estimate first.
+     */
+    public synchronized List<Entry> top(int limit) {
+        advance();
+        return candidates.values().stream()
+                .filter(candidate -> candidate.estimate > 0)
+                .sorted(Comparator.comparingLong((Candidate c) -> c.estimate).reversed()
+                        .thenComparing(c -> c.productId))
+                .limit(limit)
+                .map(candidate -> new Entry(candidate.productId, candidate.name, candidate.estimate))
+                .toList();
+    }
+
+    // Clears buckets that slid out of the window and re-scores the candidates against what is left
+    private void advance() {
+        long now = System.currentTimeMillis() / bucketMillis;
+        if (now == currentBucket) {
+            return;
+        }
+        long expired = Math.min(now - currentBucket, buckets.length);
+        for (long i = 1; i <= expired; i++) {
+            buckets[(int) ((currentBucket + i) % buckets.length)].clear();
+        }
+        currentBucket = now;
+
+        Iterator<Candidate> iterator = candidates.values().iterator();
+        while (iterator.hasNext()) {
+            Candidate candidate = iterator.next();
+            candidate.estimate = windowEstimate(candidate.productId);
+            if (candidate.estimate == 0) {
+                iterator.remove();
+            }
+        }
+    }
+
+    private long windowEstimate(long productId) {
+        long total = 0;
+        for (CountMinSketch bucket : buckets) {
+            total += bucket.estimate(productId);
+        }
+        return total;
+    }
+
+    public record Entry(Long productId, String name, long estimatedUnits) {
+    }
+
+    private static final class Candidate {
+        private final Long productId;
+        private String name;
+        private long estimate;
+
+        Candidate(Long productId, String name, long estimate) {
+            this.productId = productId;
+            this.name = name;
+            this.estimate = estimate;
+        }
+    }
+}
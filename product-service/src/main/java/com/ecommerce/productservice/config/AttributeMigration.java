@@ -0,0 +1,81 @@
+package com.ecommerce.productservice.config;
+
+import com.ecommerce.productservice.cache.ProductCache;
+import com.ecommerce.productservice.repository.ProductBatchRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * One-off copy of the free-text {@code product_attributes} rows into the attribute dictionaries
+ * and {@code product_attribute}. Runs on startup while the old table exists and renames it to
+ * {@code product_attributes_migrated} when done, so it never runs twice and attributes removed
+ * later are not brought back. Every step is idempotent: an instance that dies halfway, or two
+ * instances starting together, just copy the same rows again.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class AttributeMigration implements CommandLineRunner {
+
+    private static final String LEGACY_TABLE = "product_attributes";
+    private static final int PRODUCT_CHUNK = 10_000;
+
+    // The old columns use the case-insensitive default collation; compare and dedupe byte for byte like the dictionaries
+    private static final String COPY_ATTRIBUTES_SQL =
+            "INSERT IGNORE INTO product_attribute (product_id, name_id, value_id) " +
+            "SELECT a.product_id, n.id, v.id FROM product_attributes a " +
+            "JOIN attribute_names n ON n.name = a.name COLLATE utf8mb4_bin " +
+            "JOIN attribute_values v ON v.value = a.value COLLATE utf8mb4_bin " +
+            "WHERE a.product_id BETWEEN ? AND ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ProductBatchRepository productBatchRepository;
+    private final ProductCache productCache;
+
+    @Override
+    public void run(String... args) {
+        if (!legacyTableExists()) {
+            return;
+        }
+        log.info("Copying {} into the attribute dictionaries", LEGACY_TABLE);
+
+        // Keys are lower-cased in Java on insert, the same way lookups compute them
+        productBatchRepository.insertAttributeNames(jdbcTemplate.queryForList(
+                "SELECT DISTINCT name COLLATE utf8mb4_bin FROM product_attributes", String.class));
+        productBatchRepository.insertAttributeValues(jdbcTemplate.queryForList(
+                "SELECT DISTINCT value COLLATE utf8mb4_bin FROM product_attributes", String.class));
+
+        Map<String, Object> range = jdbcTemplate.queryForMap("SELECT MIN(product_id) AS low, MAX(product_id) AS high FROM product_attributes");
+        int copied = 0;
+        if (range.get("low") != null) {
+            long low = ((Number) range.get("low")).longValue();
+            long high = ((Number) range.get("high")).longValue();
+            for (long from = low; from <= high; from += PRODUCT_CHUNK) {
+                copied += jdbcTemplate.update(COPY_ATTRIBUTES_SQL, from, Math.min(from + PRODUCT_CHUNK - 1, high));
+            }
+        }
+
+        try {
+            jdbcTemplate.execute("RENAME TABLE product_attributes TO product_attributes_migrated");
+        } catch (Exception e) {
+            // Another instance finished first
+            log.info("{} was already renamed: {}", LEGACY_TABLE, e.getMessage());
+        }
+        // Responses cached before the copy have no attributes
+        productCache.evictAll();
+        log.info("Copied {} product attributes from {}", copied, LEGACY_TABLE);
+    }
+
+    private boolean legacyTableExists() {
+        List<Integer> found = jdbcTemplate.queryForList(
+                "SELECT 1 FROM information_schema.tables WHERE table_schema = DATABASE() AND table_name = ?",
+                Integer.class, LEGACY_TABLE);
+        return !found.isEmpty();
+    }
+}
@@ -1,16 +1,22 @@
 package com.ecommerce.productservice.config;
 
+import com.ecommerce.productclient.ProductSnapshot;
 import com.ecommerce.productservice.event.InventoryEvent;
 import com.ecommerce.productservice.event.ProductEvent;
 import org.apache.kafka.clients.admin.NewTopic;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.annotation.EnableKafka;
+import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
 import org.springframework.kafka.config.TopicBuilder;
+import org.springframework.kafka.core.ConsumerFactory;
 import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.kafka.core.ProducerFactory;
+import org.springframework.kafka.listener.ContainerProperties;
 
 @Configuration
+@EnableKafka
 public class KafkaConfig {
     
     @Value("${kafka.topics.product-created}")
@@ -25,6 +31,9 @@ public class KafkaConfig {
     @Value("${kafka.topics.inventory-update}")
     private String inventoryUpdateTopic;
     
+    @Value("${kafka.topics.product-snapshot}")
+    private String productSnapshotTopic;
+    
     // Create topics
     @Bean
     public NewTopic productCreatedTopic() {
@@ -58,6 +67,16 @@ public class KafkaConfig {
                 .build();
     }
     
+    // Compacted: only the latest snapshot per product key is retained
+    @Bean
+    public NewTopic productSnapshotTopic() {
+        return TopicBuilder.name(productSnapshotTopic)
+                .partitions(3)
+                .replicas(1)
+                .compact()
+                .build();
+    }
+    
     // Create Kafka templates
     @Bean
     public KafkaTemplate<String, ProductEvent> productKafkaTemplate(
@@ -70,4 +89,22 @@ public class KafkaConfig {
             ProducerFactory<String, InventoryEvent> producerFactory) {
         return new KafkaTemplate<>(producerFactory);
     }
+    
+    @Bean
+    public KafkaTemplate<String, ProductSnapshot> productSnapshotKafkaTemplate(
+            ProducerFactory<String, ProductSnapshot> producerFactory) {
+        return new KafkaTemplate<>(producerFactory);
+    }
+    
+    @Bean
+    public ConcurrentKafkaListenerContainerFactory<String, Object> kafkaListenerContainerFactory(
+            ConsumerFactory<String, Object> consumerFactory) {
+        
+        ConcurrentKafkaListenerContainerFactory<String, Object> factory = 
+                new ConcurrentKafkaListenerContainerFactory<>();
+        factory.setConsumerFactory(consumerFactory);
+        factory.getContainerProperties().setAckMode(ContainerProperties.AckMode.MANUAL_IMMEDIATE);
+        
+        return factory;
+    }
 }
@@ -0,0 +1,30 @@
+package com.ecommerce.productservice.config;
+
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.filter.ShallowEtagHeaderFilter;
+
+@Configuration
+public class WebCacheConfig {
+    
+    // Listing pages get a weak ETag computed from the rendered body, so an unchanged
+    // page is answered with 304 and never re-sent over the wire
+    @Bean
+    public FilterRegistrationBean<ShallowEtagHeaderFilter> listingEtagFilter() {
+        ShallowEtagHeaderFilter filter = new ShallowEtagHeaderFilter();
+        filter.setWriteWeakETag(true);
+        
+        FilterRegistrationBean<ShallowEtagHeaderFilter> registration = new FilterRegistrationBean<>(filter);
+        registration.addUrlPatterns(
+                "/api/products",
+                "/api/products/category/*",
+                "/api/products/search",
+                "/api/products/query",
+                "/api/products/attribute",
+                "/api/products/new-arrivals",
+                "/api/products/best-sellers",
+                "/api/products/trending");
+        return registration;
+    }
+}
@@ -3,14 +3,20 @@ package com.ecommerce.productservice.controller;
 import com.ecommerce.productservice.dto.CategoryDto;
 import com.ecommerce.productservice.dto.CategoryRequest;
 import com.ecommerce.productservice.dto.PagedResponse;
+import com.ecommerce.productservice.service.CategoryCountService;
 import com.ecommerce.productservice.service.CategoryService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.Duration;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
 
 @RestController
 @RequestMapping("/api/categories")
@@ -18,6 +24,10 @@ import java.util.List;
 public class CategoryController {
     
     private final CategoryService categoryService;
+    private final CategoryCountService categoryCountService;
+    
+    @Value("${catalog.cache-control.category:300s}")
+    private Duration categoryMaxAge;
     
     @PostMapping
     public ResponseEntity<CategoryDto> createCategory(@Valid @RequestBody CategoryRequest categoryRequest) {
@@ -34,29 +44,34 @@ public class CategoryController {
     }
     
     @GetMapping("/{id}")
-    public ResponseEntity<CategoryDto> getCategoryById(@PathVariable Long id) {
+    public ResponseEntity<CategoryDto> getCategoryById(
+            @PathVariable Long id,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        // Resolved first so an unknown id is a 404 even when the client's ETag matches
         CategoryDto category = categoryService.getCategoryById(id);
-        return ResponseEntity.ok(category);
+        return conditional(ifNoneMatch, () -> category);
     }
     
     @GetMapping
     public ResponseEntity<PagedResponse<CategoryDto>> getAllCategories(
             @RequestParam(defaultValue = "0") int page,
-            @RequestParam(defaultValue = "10") int size) {
-        PagedResponse<CategoryDto> categories = categoryService.getAllCategories(page, size);
-        return ResponseEntity.ok(categories);
+            @RequestParam(defaultValue = "10") int size,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        return conditional(ifNoneMatch, () -> categoryService.getAllCategories(page, size));
     }
     
     @GetMapping("/root")
-    public ResponseEntity<List<CategoryDto>> getRootCategories() {
-        List<CategoryDto> categories = categoryService.getRootCategories();
-        return ResponseEntity.ok(categories);
+    public ResponseEntity<List<CategoryDto>> getRootCategories(
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        return conditional(ifNoneMatch, categoryService::getRootCategories);
     }
     
     @GetMapping("/{id}/subcategories")
-    public ResponseEntity<List<CategoryDto>> getSubcategories(@PathVariable Long id) {
+    public ResponseEntity<List<CategoryDto>> getSubcategories(
+            @PathVariable Long id,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
         List<CategoryDto> subcategories = categoryService.getSubcategories(id);
-        return ResponseEntity.ok(subcategories);
+        return conditional(ifNoneMatch, () -> subcategories);
     }
     
     @DeleteMapping("/{id}")
@@ -64,4 +79,26 @@ public class CategoryController {
         categoryService.deleteCategory(id);
         return ResponseEntity.noContent().build();
     }
+    
+    // Recomputes the product counters from scratch; also runs periodically
+    @PostMapping("/counts/rebuild")
+    public ResponseEntity<Map<String, Integer>> rebuildCounts() {
+        int categories = categoryCountService.rebuildCounts();
+        return ResponseEntity.ok(Map.of("categories", categories));
+    }
+    
+    // Every category read is derived from the category tree, so they all share its ETag
+    private <T> ResponseEntity<T> conditional(String ifNoneMatch, Supplier<T> body) {
+        String etag = categoryService.getCategoriesETag();
+        if (HttpCaching.matches(ifNoneMatch, etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                    .eTag(etag)
+                    .cacheControl(HttpCaching.maxAge(categoryMaxAge))
+                    .build();
+        }
+        return ResponseEntity.ok()
+                .eTag(etag)
+                .cacheControl(HttpCaching.maxAge(categoryMaxAge))
+                .body(body.get());
+    }
 }
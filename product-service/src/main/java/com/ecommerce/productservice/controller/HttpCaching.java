@@ -0,0 +1,40 @@
+package com.ecommerce.productservice.controller;
+
+import org.springframework.http.CacheControl;
+
+import java.time.Duration;
+
+/**
+ * Helpers for conditional GET handling in the catalog controllers.
+ */
+final class HttpCaching {
+    
+    private HttpCaching() {
+    }
+    
+    /**
+     * Weak comparison of an If-None-Match header against the current entity tag, as
+     * required for GET requests (RFC 9110, section 13.1.2).
+     */
+    static boolean matches(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null || ifNoneMatch.isBlank()) {
+            return false;
+        }
+        String current = stripWeakPrefix(etag);
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.equals("*") || stripWeakPrefix(tag).equals(current)) {
+                return true;
+            }
+        }
+        return false;
+    }
+    
+    static CacheControl maxAge(Duration maxAge) {
+        return CacheControl.maxAge(maxAge).cachePublic();
+    }
+    
+    private static String stripWeakPrefix(String tag) {
+        return tag.startsWith("W/") ? tag.substring(2) : tag;
+    }
+}
@@ -1,14 +1,31 @@
 package com.ecommerce.productservice.controller;
 
 import com.ecommerce.productservice.dto.*;
+import com.ecommerce.productservice.service.ProductExportService;
+import com.ecommerce.productservice.service.ProductImportService;
+import com.ecommerce.productservice.service.ProductSalesService;
 import com.ecommerce.productservice.service.ProductService;
+import com.ecommerce.productservice.service.SuggestionService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.time.Duration;
 import java.util.List;
+import java.util.Map;
+import java.util.zip.GZIPOutputStream;
 
 @RestController
 @RequestMapping("/api/products")
@@ -16,6 +33,16 @@ import java.util.List;
 public class ProductController {
     
     private final ProductService productService;
+    private final ProductImportService productImportService;
+    private final ProductExportService productExportService;
+    private final SuggestionService suggestionService;
+    private final ProductSalesService productSalesService;
+    
+    @Value("${catalog.cache-control.product:60s}")
+    private Duration productMaxAge;
+    
+    @Value("${catalog.cache-control.listing:30s}")
+    private Duration listingMaxAge;
     
     @PostMapping
     public ResponseEntity<ProductResponse> createProduct(@Valid @RequestBody ProductRequest productRequest) {
@@ -23,6 +50,51 @@ public class ProductController {
         return new ResponseEntity<>(product, HttpStatus.CREATED);
     }
     
+    // Bulk import: one ProductRequest JSON object per line
+    @PostMapping(value = "/import", consumes = {"application/x-ndjson", MediaType.TEXT_PLAIN_VALUE})
+    public ResponseEntity<ProductImportResponse> importProducts(InputStream body) throws IOException {
+        ProductImportResponse result = productImportService.importProducts(body);
+        return ResponseEntity.ok(result);
+    }
+    
+    // Internal bulk lookup for carts, order validation and notifications
+    @PostMapping("/batch")
+    public ResponseEntity<ProductBatchResponse> getProductsByIds(@RequestBody ProductBatchRequest batchRequest) {
+        ProductBatchResponse products = productService.getProductsByIds(batchRequest.getIds());
+        return ResponseEntity.ok(products);
+    }
+    
+    // Full catalog feed as NDJSON, streamed straight from a database cursor
+    @GetMapping(value = "/export", produces = "application/x-ndjson")
+    public ResponseEntity<StreamingResponseBody> exportProducts(
+            @RequestParam(defaultValue = "false") boolean gzip,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        boolean compress = gzip || (acceptEncoding != null && acceptEncoding.toLowerCase().contains("gzip"));
+        
+        StreamingResponseBody body = outputStream -> {
+            OutputStream target = compress ? new GZIPOutputStream(outputStream, 65536) : outputStream;
+            try (OutputStream buffered = new BufferedOutputStream(target, 65536)) {
+                productExportService.exportActiveProducts(buffered);
+            }
+        };
+        
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType("application/x-ndjson"))
+                .cacheControl(CacheControl.noStore())
+                .varyBy(HttpHeaders.ACCEPT_ENCODING);
+        if (compress) {
+            response.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        return response.body(body);
+    }
+    
+    // Seeds the compacted snapshot topic with the current state of every active product
+    @PostMapping("/snapshots/republish")
+    public ResponseEntity<Map<String, Long>> republishSnapshots() {
+        long published = productExportService.republishSnapshots();
+        return ResponseEntity.ok(Map.of("published", published));
+    }
+    
     @PutMapping("/{id}")
     public ResponseEntity<ProductResponse> updateProduct(
             @PathVariable Long id,
@@ -32,43 +104,93 @@ public class ProductController {
     }
     
     @GetMapping("/{id}")
-    public ResponseEntity<ProductResponse> getProductById(@PathVariable Long id) {
-        ProductResponse product = productService.getProductById(id);
-        return ResponseEntity.ok(product);
+    public ResponseEntity<ProductResponse> getProductById(
+            @PathVariable Long id,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        CacheControl cacheControl = HttpCaching.maxAge(productMaxAge);
+        
+        // Answer revalidations from the version timestamps alone, before the response is assembled
+        String etag = productService.getProductETag(id);
+        if (HttpCaching.matches(ifNoneMatch, etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).cacheControl(cacheControl).build();
+        }
+        
+        ProductResponse product = productService.getProductById(id, etag);
+        return ResponseEntity.ok().eTag(etag).cacheControl(cacheControl).body(product);
     }
     
     @GetMapping
-    public ResponseEntity<PagedResponse<ProductResponse>> getAllProducts(
+    public ResponseEntity<PagedResponse<ProductSummary>> getAllProducts(
             @RequestParam(defaultValue = "0") int page,
-            @RequestParam(defaultValue = "10") int size) {
-        PagedResponse<ProductResponse> products = productService.getAllProducts(page, size);
-        return ResponseEntity.ok(products);
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(required = false) String fields) {
+        PagedResponse<ProductSummary> products = productService.getAllProducts(page, size, ProductField.parse(fields));
+        return ResponseEntity.ok().cacheControl(HttpCaching.maxAge(listingMaxAge)).body(products);
     }
     
     @GetMapping("/category/{categoryId}")
-    public ResponseEntity<PagedResponse<ProductResponse>> getProductsByCategory(
+    public ResponseEntity<PagedResponse<ProductSummary>> getProductsByCategory(
             @PathVariable Long categoryId,
             @RequestParam(defaultValue = "0") int page,
-            @RequestParam(defaultValue = "10") int size) {
-        PagedResponse<ProductResponse> products = productService.getProductsByCategory(categoryId, page, size);
-        return ResponseEntity.ok(products);
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(required = false) String fields) {
+        PagedResponse<ProductSummary> products = productService.getProductsByCategory(
+                categoryId, page, size, ProductField.parse(fields));
+        return ResponseEntity.ok().cacheControl(HttpCaching.maxAge(listingMaxAge)).body(products);
     }
     
     @GetMapping("/search")
-    public ResponseEntity<PagedResponse<ProductResponse>> searchProducts(
+    public ResponseEntity<PagedResponse<ProductSummary>> searchProducts(
             @RequestParam String keyword,
             @RequestParam(defaultValue = "0") int page,
-            @RequestParam(defaultValue = "10") int size) {
-        PagedResponse<ProductResponse> products = productService.searchProducts(keyword, page, size);
-        return ResponseEntity.ok(products);
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(required = false) String fields) {
+        PagedResponse<ProductSummary> products = productService.searchProducts(
+                keyword, page, size, ProductField.parse(fields));
+        return ResponseEntity.ok().cacheControl(HttpCaching.maxAge(listingMaxAge)).body(products);
     }
     
     @GetMapping("/attribute")
-    public ResponseEntity<List<ProductResponse>> getProductsByAttribute(
+    public ResponseEntity<List<ProductSummary>> getProductsByAttribute(
             @RequestParam String name,
-            @RequestParam String value) {
-        List<ProductResponse> products = productService.getProductsByAttribute(name, value);
-        return ResponseEntity.ok(products);
+            @RequestParam String value,
+            @RequestParam(required = false) String fields) {
+        List<ProductSummary> products = productService.getProductsByAttribute(name, value, ProductField.parse(fields));
+        return ResponseEntity.ok().cacheControl(HttpCaching.maxAge(listingMaxAge)).body(products);
+    }
+    
+    @GetMapping("/query")
+    public ResponseEntity<ProductQueryResponse> queryProducts(
+            @RequestParam(required = false) Long categoryId,
+            @RequestParam(required = false) BigDecimal minPrice,
+            @RequestParam(required = false) BigDecimal maxPrice,
+            @RequestParam(defaultValue = "false") boolean inStock,
+            @RequestParam(required = false) String keyword,
+            @RequestParam(required = false) String sort,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(required = false) String fields,
+            @RequestParam(defaultValue = "false") boolean debug) {
+        ProductQueryCriteria criteria = ProductQueryCriteria.builder()
+                .categoryId(categoryId)
+                .minPrice(minPrice)
+                .maxPrice(maxPrice)
+                .inStockOnly(inStock)
+                .keyword(keyword)
+                .sort(ProductSort.parse(sort))
+                .build();
+        ProductQueryResponse products = productService.queryProducts(criteria, page, size, ProductField.parse(fields), debug);
+        CacheControl cacheControl = debug ? CacheControl.noStore() : HttpCaching.maxAge(listingMaxAge);
+        return ResponseEntity.ok().cacheControl(cacheControl).body(products);
+    }
+    
+    // Typeahead: served from the in-memory suggestion index, never from the database
+    @GetMapping("/suggest")
+    public ResponseEntity<SuggestionResponse> suggest(
+            @RequestParam("q") String query,
+            @RequestParam(defaultValue = "10") int limit) {
+        SuggestionResponse suggestions = suggestionService.suggest(query, limit);
+        return ResponseEntity.ok().cacheControl(HttpCaching.maxAge(listingMaxAge)).body(suggestions);
     }
     
     @DeleteMapping("/{id}")
@@ -78,9 +200,32 @@ public class ProductController {
     }
     
     @GetMapping("/new-arrivals")
-    public ResponseEntity<List<ProductResponse>> getNewArrivals() {
-        List<ProductResponse> products = productService.getNewArrivals();
-        return ResponseEntity.ok(products);
+    public ResponseEntity<List<ProductSummary>> getNewArrivals(
+            @RequestParam(required = false) Long categoryId,
+            @RequestParam(defaultValue = "10") int limit) {
+        List<ProductSummary> products = productService.getNewArrivals(categoryId, limit);
+        return ResponseEntity.ok().cacheControl(HttpCaching.maxAge(listingMaxAge)).body(products);
+    }
+    
+    @GetMapping("/best-sellers")
+    public ResponseEntity<List<ProductSummary>> getBestSellers(
+            @RequestParam(required = false) Long categoryId,
+            @RequestParam(defaultValue = "10") int limit) {
+        List<ProductSummary> products = productService.getBestSellers(categoryId, limit);
+        return ResponseEntity.ok().cacheControl(HttpCaching.maxAge(listingMaxAge)).body(products);
+    }
+    
+    @GetMapping("/trending")
+    public ResponseEntity<TrendingResponse> getTrendingProducts(@RequestParam(defaultValue = "10") int limit) {
+        TrendingResponse trending = productSalesService.getTrendingProducts(limit);
+        return ResponseEntity.ok().cacheControl(HttpCaching.maxAge(listingMaxAge)).body(trending);
+    }
+    
+    @GetMapping("/{id}/related")
+    public ResponseEntity<RelatedProductsResponse> getRelatedProducts(@PathVariable Long id,
+                                                                      @RequestParam(defaultValue = "10") int limit) {
+        RelatedProductsResponse related = productSalesService.getRelatedProducts(id, limit);
+        return ResponseEntity.ok().cacheControl(HttpCaching.maxAge(listingMaxAge)).body(related);
     }
     
     // Inventory related endpoints
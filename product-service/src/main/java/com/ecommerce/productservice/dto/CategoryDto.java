@@ -16,5 +16,8 @@ public class CategoryDto {
     private String name;
     private String description;
     private Long parentId;
+    // Active products directly in the category and in its whole subtree
+    private Long productCount;
+    private Long subtreeProductCount;
     private List<CategoryDto> subcategories;
 }
@@ -0,0 +1,35 @@
+package com.ecommerce.productservice.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+// One line of the catalog export feed
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductExportRecord {
+    private Long id;
+    private String name;
+    private String description;
+    private BigDecimal price;
+    private String imageUrl;
+    private Long categoryId;
+    private String categoryName;
+    private int quantity;
+    private int availableQuantity;
+    private boolean inStock;
+    private LocalDateTime createdAt;
+    private LocalDateTime updatedAt;
+    // Only feeds the snapshot timestamp; not part of the export feed
+    @JsonIgnore
+    private LocalDateTime inventoryUpdatedAt;
+    private List<ProductAttributeDto> attributes;
+}
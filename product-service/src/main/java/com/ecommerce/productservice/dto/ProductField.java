@@ -0,0 +1,35 @@
+package com.ecommerce.productservice.dto;
+
+import com.ecommerce.productservice.exception.BadRequestException;
+
+import java.util.EnumSet;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Optional heavy fields a client can add to product listings, e.g. {@code fields=description,inventory}.
+ */
+public enum ProductField {
+    DESCRIPTION,
+    ATTRIBUTES,
+    INVENTORY;
+    
+    public static Set<ProductField> parse(String fields) {
+        Set<ProductField> result = EnumSet.noneOf(ProductField.class);
+        if (fields == null || fields.isBlank()) {
+            return result;
+        }
+        for (String field : fields.split(",")) {
+            String name = field.trim();
+            if (name.isEmpty()) {
+                continue;
+            }
+            try {
+                result.add(ProductField.valueOf(name.toUpperCase(Locale.ROOT)));
+            } catch (IllegalArgumentException e) {
+                throw new BadRequestException("Unknown product field: " + name);
+            }
+        }
+        return result;
+    }
+}
@@ -0,0 +1,42 @@
+package com.ecommerce.productservice.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.Map;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductQueryResponse {
+    private List<ProductSummary> content;
+    private int page;
+    private int size;
+    private long totalElements;
+    private int totalPages;
+    private boolean last;
+    
+    // Only present when the query was run with debug=true
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private QueryPlan plan;
+    
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class QueryPlan {
+        private String accessPath;
+        private String index;
+        // False when the database has to sort the matching rows before paging
+        private boolean orderedByIndex;
+        private List<String> notes;
+        private String sql;
+        // Raw EXPLAIN output from the database for the page query
+        private List<Map<String, Object>> explain;
+    }
+}
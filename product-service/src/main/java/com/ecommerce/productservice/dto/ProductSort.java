@@ -0,0 +1,30 @@
+package com.ecommerce.productservice.dto;
+
+import com.ecommerce.productservice.exception.BadRequestException;
+
+import java.util.Locale;
+
+/**
+ * Sort orders supported by the product query endpoint, e.g. {@code sort=price_asc}.
+ */
+public enum ProductSort {
+    NEWEST,
+    PRICE_ASC,
+    PRICE_DESC,
+    POPULARITY;
+    
+    public static ProductSort parse(String sort) {
+        if (sort == null || sort.isBlank()) {
+            return NEWEST;
+        }
+        try {
+            return ProductSort.valueOf(sort.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestException("Unknown sort: " + sort);
+        }
+    }
+    
+    public boolean byPrice() {
+        return this == PRICE_ASC || this == PRICE_DESC;
+    }
+}
@@ -0,0 +1,29 @@
+package com.ecommerce.productservice.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class ProductSummary {
+    private Long id;
+    private String name;
+    private BigDecimal price;
+    private String imageUrl;
+    private String categoryName;
+    private boolean inStock;
+    
+    // Only populated when requested through the fields parameter
+    private String description;
+    private List<ProductAttributeDto> attributes;
+    private ProductInventoryDto inventory;
+}
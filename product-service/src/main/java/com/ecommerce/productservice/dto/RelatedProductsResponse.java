@@ -0,0 +1,28 @@
+package com.ecommerce.productservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class RelatedProductsResponse {
+    private Long productId;
+    private List<RelatedProduct> related;
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class RelatedProduct {
+        private Long productId;
+        private String name;
+        // Decayed count of orders containing both products; recent orders weigh more
+        private double score;
+    }
+}
@@ -0,0 +1,28 @@
+package com.ecommerce.productservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class TrendingResponse {
+    private long windowMinutes;
+    private List<TrendingProduct> products;
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class TrendingProduct {
+        private Long productId;
+        private String name;
+        // Sketch estimate of units ordered in the window; may slightly overcount, never undercounts
+        private long estimatedUnits;
+    }
+}
@@ -0,0 +1,45 @@
+package com.ecommerce.productservice.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Locale;
+
+/**
+ * Dictionary of attribute names ("color", "size", ...). Entries are only ever added.
+ */
+@Entity
+@Table(name = "attribute_names", indexes = {
+        @Index(name = "idx_attribute_names_name_key", columnList = "name_key")
+})
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class AttributeName {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Integer id;
+    
+    // Binary collation so "XL" and "xl" stay distinct entries, as they were as free text
+    @Column(nullable = false, unique = true, columnDefinition = "varchar(255) character set utf8mb4 collate utf8mb4_bin")
+    private String name;
+    
+    // Lower-cased copy written alongside the name, so case-insensitive filters can use an index
+    @Column(name = "name_key", nullable = false)
+    private String nameKey;
+    
+    public static String keyOf(String name) {
+        return name.toLowerCase(Locale.ROOT);
+    }
+    
+    @PrePersist
+    @PreUpdate
+    void fillKey() {
+        nameKey = keyOf(name);
+    }
+}
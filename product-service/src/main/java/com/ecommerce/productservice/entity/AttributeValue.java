@@ -0,0 +1,44 @@
+package com.ecommerce.productservice.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Locale;
+
+/**
+ * Dictionary of attribute values ("red", "XL", ...). Entries are only ever added.
+ */
+@Entity
+@Table(name = "attribute_values", indexes = {
+        @Index(name = "idx_attribute_values_value_key", columnList = "value_key")
+})
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class AttributeValue {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Integer id;
+    
+    @Column(nullable = false, unique = true, columnDefinition = "varchar(255) character set utf8mb4 collate utf8mb4_bin")
+    private String value;
+    
+    // Lower-case key, see AttributeName
+    @Column(name = "value_key", nullable = false)
+    private String valueKey;
+    
+    public static String keyOf(String value) {
+        return value.toLowerCase(Locale.ROOT);
+    }
+    
+    @PrePersist
+    @PreUpdate
+    void fillKey() {
+        valueKey = keyOf(value);
+    }
+}
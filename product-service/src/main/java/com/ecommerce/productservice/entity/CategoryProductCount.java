@@ -0,0 +1,29 @@
+package com.ecommerce.productservice.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// Active-product counters per category, adjusted in the same transaction as the product writes
+@Entity
+@Table(name = "category_product_counts")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CategoryProductCount {
+    
+    @Id
+    @Column(name = "category_id")
+    private Long categoryId;
+    
+    // Products directly in this category
+    @Column(name = "product_count", nullable = false)
+    private Long productCount;
+    
+    // Products in this category and all of its descendants
+    @Column(name = "subtree_product_count", nullable = false)
+    private Long subtreeProductCount;
+}
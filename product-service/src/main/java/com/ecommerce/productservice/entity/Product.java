@@ -4,7 +4,9 @@ import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
+import lombok.ToString;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
@@ -12,7 +14,13 @@ import java.util.HashSet;
 import java.util.Set;
 
 @Entity
-@Table(name = "products")
+@Table(name = "products", indexes = {
+        @Index(name = "idx_products_category_active_created", columnList = "category_id, active, created_at"),
+        // Access paths for the multi-criteria product query, see ProductQueryRepository
+        @Index(name = "idx_products_active_category_price", columnList = "active, category_id, price"),
+        @Index(name = "idx_products_active_price", columnList = "active, price"),
+        @Index(name = "idx_products_active_created", columnList = "active, created_at")
+})
 @Data
 @Builder
 @NoArgsConstructor
@@ -49,6 +57,8 @@ public class Product {
     private boolean active = true;
     
     @OneToMany(mappedBy = "product", cascade = CascadeType.ALL, orphanRemoval = true)
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
     private Set<ProductAttribute> attributes = new HashSet<>();
     
     @PrePersist
@@ -0,0 +1,25 @@
+package com.ecommerce.productservice.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+
+@Embeddable
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductAttributeId implements Serializable {
+    
+    @Column(name = "product_id", nullable = false)
+    private Long productId;
+    
+    @Column(name = "name_id", nullable = false)
+    private Integer nameId;
+    
+    @Column(name = "value_id", nullable = false)
+    private Integer valueId;
+}
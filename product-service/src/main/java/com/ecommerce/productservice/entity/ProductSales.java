@@ -0,0 +1,29 @@
+package com.ecommerce.productservice.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+// Running units-sold total per product, accumulated from order-created events
+@Entity
+@Table(name = "product_sales")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductSales {
+    
+    @Id
+    @Column(name = "product_id")
+    private Long productId;
+    
+    @Column(name = "units_sold", nullable = false)
+    private Long unitsSold;
+    
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+}
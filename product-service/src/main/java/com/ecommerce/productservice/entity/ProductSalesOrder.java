@@ -0,0 +1,28 @@
+package com.ecommerce.productservice.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+// Orders already added to product_sales, so a redelivered order-created event is not counted twice
+@Entity
+@Table(name = "product_sales_orders", indexes = {
+        @Index(name = "idx_product_sales_orders_recorded_at", columnList = "recorded_at")
+})
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductSalesOrder {
+
+    @Id
+    @Column(name = "order_number", length = 64)
+    private String orderNumber;
+
+    @Column(name = "recorded_at", nullable = false)
+    private LocalDateTime recordedAt;
+}
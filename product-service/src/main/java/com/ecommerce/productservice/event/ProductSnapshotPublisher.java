@@ -0,0 +1,96 @@
+package com.ecommerce.productservice.event;
+
+import com.ecommerce.productclient.ProductSnapshot;
+import com.ecommerce.productservice.dto.ProductExportRecord;
+import com.ecommerce.productservice.entity.Product;
+import com.ecommerce.productservice.entity.ProductInventory;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.Objects;
+import java.util.stream.Stream;
+
+/**
+ * Publishes the full state of a product to the compacted snapshot topic, keyed by product id.
+ * Snapshots built inside a transaction are only sent once it commits, so replicas never see
+ * state that was rolled back.
+ */
+@Component
+@RequiredArgsConstructor
+public class ProductSnapshotPublisher {
+
+    private final KafkaTemplate<String, ProductSnapshot> productSnapshotKafkaTemplate;
+
+    @Value("${kafka.topics.product-snapshot}")
+    private String productSnapshotTopic;
+
+    // Built after commit, once the entity listeners have stamped the timestamps of this write
+    public void publish(Product product, ProductInventory inventory) {
+        afterCommit(() -> send(ProductSnapshot.builder()
+                .id(product.getId())
+                .name(product.getName())
+                .description(product.getDescription())
+                .price(product.getPrice())
+                .categoryId(product.getCategory() != null ? product.getCategory().getId() : null)
+                .imageUrl(product.getImageUrl())
+                .active(product.isActive())
+                .quantity(inventory != null ? inventory.getQuantity() : null)
+                .availableQuantity(inventory != null ? inventory.getAvailableQuantity() : null)
+                .updatedAt(lastModified(product.getCreatedAt(), product.getUpdatedAt(),
+                        inventory != null ? inventory.getUpdatedAt() : null))
+                .build()));
+    }
+
+    public void publish(ProductExportRecord record) {
+        publish(ProductSnapshot.builder()
+                .id(record.getId())
+                .name(record.getName())
+                .description(record.getDescription())
+                .price(record.getPrice())
+                .categoryId(record.getCategoryId())
+                .imageUrl(record.getImageUrl())
+                .active(true)
+                .quantity(record.getQuantity())
+                .availableQuantity(record.getAvailableQuantity())
+                .updatedAt(lastModified(record.getCreatedAt(), record.getUpdatedAt(), record.getInventoryUpdatedAt()))
+                .build());
+    }
+
+    public void publish(ProductSnapshot snapshot) {
+        afterCommit(() -> send(snapshot));
+    }
+
+    /**
+     * When the data was last written, as the ETag computes it, so replicas can tell a snapshot
+     * read before a concurrent write from one taken after it.
+     */
+    private static LocalDateTime lastModified(LocalDateTime... timestamps) {
+        return Stream.of(timestamps)
+                .filter(Objects::nonNull)
+                .max(Comparator.naturalOrder())
+                .orElse(null);
+    }
+
+    private void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    private void send(ProductSnapshot snapshot) {
+        productSnapshotKafkaTemplate.send(productSnapshotTopic, String.valueOf(snapshot.getId()), snapshot);
+    }
+}
@@ -0,0 +1,19 @@
+package com.ecommerce.productservice.repository;
+
+import com.ecommerce.productservice.entity.AttributeName;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface AttributeNameRepository extends JpaRepository<AttributeName, Integer> {
+    
+    List<AttributeName> findByNameIn(Collection<String> names);
+    
+    @Query("SELECT n.id FROM AttributeName n WHERE n.nameKey = :key")
+    List<Integer> findIdsByNameKey(@Param("key") String key);
+}
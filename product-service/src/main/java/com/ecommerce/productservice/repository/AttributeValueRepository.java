@@ -0,0 +1,19 @@
+package com.ecommerce.productservice.repository;
+
+import com.ecommerce.productservice.entity.AttributeValue;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface AttributeValueRepository extends JpaRepository<AttributeValue, Integer> {
+    
+    List<AttributeValue> findByValueIn(Collection<String> values);
+    
+    @Query("SELECT v.id FROM AttributeValue v WHERE v.valueKey = :key")
+    List<Integer> findIdsByValueKey(@Param("key") String key);
+}
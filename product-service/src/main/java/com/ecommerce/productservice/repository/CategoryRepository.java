@@ -1,6 +1,7 @@
 package com.ecommerce.productservice.repository;
 
 import com.ecommerce.productservice.entity.Category;
+import com.ecommerce.productservice.repository.projection.CategoryRow;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
@@ -17,4 +18,11 @@ public interface CategoryRepository extends JpaRepository<Category, Long> {
     List<Category> findRootCategories();
     
     List<Category> findByParentId(Long parentId);
+    
+    @Query("SELECT c.id AS id, c.name AS name, c.description AS description, parent.id AS parentId, " +
+            "COALESCE(pc.productCount, 0) AS productCount, COALESCE(pc.subtreeProductCount, 0) AS subtreeProductCount " +
+            "FROM Category c LEFT JOIN c.parent parent LEFT JOIN CategoryProductCount pc ON pc.categoryId = c.id")
+    List<CategoryRow> findAllRows();
+    
+    boolean existsByParentId(Long parentId);
 }
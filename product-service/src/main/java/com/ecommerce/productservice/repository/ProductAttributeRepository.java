@@ -0,0 +1,18 @@
+package com.ecommerce.productservice.repository;
+
+import com.ecommerce.productservice.entity.ProductAttribute;
+import com.ecommerce.productservice.entity.ProductAttributeId;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface ProductAttributeRepository extends JpaRepository<ProductAttribute, ProductAttributeId> {
+    
+    @Query("SELECT a FROM ProductAttribute a WHERE a.id.productId IN :productIds")
+    List<ProductAttribute> findByProductIdIn(@Param("productIds") Collection<Long> productIds);
+}
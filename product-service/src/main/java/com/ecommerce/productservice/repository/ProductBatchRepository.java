@@ -0,0 +1,177 @@
+package com.ecommerce.productservice.repository;
+
+import com.ecommerce.productservice.dto.ProductRequest;
+import com.ecommerce.productservice.entity.AttributeName;
+import com.ecommerce.productservice.entity.AttributeValue;
+import com.ecommerce.productservice.entity.ProductAttributeId;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Plain JDBC batch writes for bulk catalog loads, sales and category counters. Runs inside the caller's transaction.
+ */
+@Repository
+@RequiredArgsConstructor
+public class ProductBatchRepository {
+
+    private static final String INSERT_PRODUCT_SQL =
+            "INSERT INTO products (name, description, price, category_id, image_url, created_at, active) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?)";
+
+    private static final String INSERT_ATTRIBUTE_SQL =
+            "INSERT INTO product_attribute (product_id, name_id, value_id) VALUES (?, ?, ?)";
+
+    // Existing entries are left alone; the caller reads the ids back afterwards
+    private static final String INSERT_ATTRIBUTE_NAME_SQL =
+            "INSERT INTO attribute_names (name, name_key) VALUES (?, ?) ON DUPLICATE KEY UPDATE id = id";
+
+    private static final String INSERT_ATTRIBUTE_VALUE_SQL =
+            "INSERT INTO attribute_values (value, value_key) VALUES (?, ?) ON DUPLICATE KEY UPDATE id = id";
+
+    private static final String INSERT_INVENTORY_SQL =
+            "INSERT INTO product_inventory (product_id, quantity, reserved_quantity, created_at) VALUES (?, ?, 0, ?)";
+
+    private static final String ADD_UNITS_SOLD_SQL =
+            "INSERT INTO product_sales (product_id, units_sold, updated_at) VALUES (?, ?, ?) " +
+            "ON DUPLICATE KEY UPDATE units_sold = units_sold + VALUES(units_sold), updated_at = VALUES(updated_at)";
+
+    // Affects no row when the order was already counted
+    private static final String CLAIM_SALES_ORDER_SQL =
+            "INSERT IGNORE INTO product_sales_orders (order_number, recorded_at) VALUES (?, ?)";
+
+    private static final String PURGE_SALES_ORDERS_SQL =
+            "DELETE FROM product_sales_orders WHERE recorded_at < ? LIMIT ?";
+
+    private static final String ADD_CATEGORY_COUNTS_SQL =
+            "INSERT INTO category_product_counts (category_id, product_count, subtree_product_count) VALUES (?, ?, ?) " +
+            "ON DUPLICATE KEY UPDATE product_count = product_count + VALUES(product_count), " +
+            "subtree_product_count = subtree_product_count + VALUES(subtree_product_count)";
+
+    private static final String SET_CATEGORY_COUNTS_SQL =
+            "INSERT INTO category_product_counts (category_id, product_count, subtree_product_count) VALUES (?, ?, ?) " +
+            "ON DUPLICATE KEY UPDATE product_count = VALUES(product_count), " +
+            "subtree_product_count = VALUES(subtree_product_count)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Inserts the products as one batch and returns their generated ids in input order.
+     */
+    public List<Long> insertProducts(List<ProductRequest> requests, LocalDateTime createdAt) {
+        return jdbcTemplate.execute((ConnectionCallback<List<Long>>) connection -> {
+            try (PreparedStatement ps = connection.prepareStatement(INSERT_PRODUCT_SQL, Statement.RETURN_GENERATED_KEYS)) {
+                Timestamp timestamp = Timestamp.valueOf(createdAt);
+                for (ProductRequest request : requests) {
+                    ps.setString(1, request.getName());
+                    ps.setString(2, request.getDescription());
+                    ps.setBigDecimal(3, request.getPrice());
+                    ps.setLong(4, request.getCategoryId());
+                    ps.setString(5, request.getImageUrl());
+                    ps.setTimestamp(6, timestamp);
+                    ps.setBoolean(7, true);
+                    ps.addBatch();
+                }
+                ps.executeBatch();
+
+                List<Long> ids = new ArrayList<>(requests.size());
+                try (ResultSet keys = ps.getGeneratedKeys()) {
+                    while (keys.next()) {
+                        ids.add(keys.getLong(1));
+                    }
+                }
+                if (ids.size() != requests.size()) {
+                    throw new IllegalStateException("Expected " + requests.size() + " generated ids but got " + ids.size());
+                }
+                return ids;
+            }
+        });
+    }
+
+    public void insertAttributes(Collection<ProductAttributeId> attributes) {
+        List<Object[]> rows = new ArrayList<>(attributes.size());
+        for (ProductAttributeId attribute : attributes) {
+            rows.add(new Object[]{attribute.getProductId(), attribute.getNameId(), attribute.getValueId()});
+        }
+        if (!rows.isEmpty()) {
+            jdbcTemplate.batchUpdate(INSERT_ATTRIBUTE_SQL, rows);
+        }
+    }
+
+    public void insertAttributeNames(Collection<String> names) {
+        jdbcTemplate.batchUpdate(INSERT_ATTRIBUTE_NAME_SQL, names.stream().map(name -> new Object[]{name, AttributeName.keyOf(name)}).toList());
+    }
+
+    public void insertAttributeValues(Collection<String> values) {
+        jdbcTemplate.batchUpdate(INSERT_ATTRIBUTE_VALUE_SQL, values.stream().map(value -> new Object[]{value, AttributeValue.keyOf(value)}).toList());
+    }
+
+    public void insertInventory(List<Long> productIds, List<ProductRequest> requests, LocalDateTime createdAt) {
+        Timestamp timestamp = Timestamp.valueOf(createdAt);
+        List<Object[]> rows = new ArrayList<>(requests.size());
+        for (int i = 0; i < requests.size(); i++) {
+            Integer initialStock = requests.get(i).getInitialStock();
+            rows.add(new Object[]{productIds.get(i), initialStock != null ? initialStock : 0, timestamp});
+        }
+        jdbcTemplate.batchUpdate(INSERT_INVENTORY_SQL, rows);
+    }
+
+    // Applies direct and subtree count deltas in one round trip, creating rows for categories seen for the first time
+    public void addCategoryCounts(Map<Long, Long> directDeltas, Map<Long, Long> subtreeDeltas) {
+        jdbcTemplate.batchUpdate(ADD_CATEGORY_COUNTS_SQL, categoryCountRows(directDeltas, subtreeDeltas));
+    }
+
+    // Overwrites all counters; categories missing from both maps are reset to zero
+    public void replaceCategoryCounts(Map<Long, Long> directCounts, Map<Long, Long> subtreeCounts) {
+        jdbcTemplate.update("UPDATE category_product_counts SET product_count = 0, subtree_product_count = 0");
+        jdbcTemplate.batchUpdate(SET_CATEGORY_COUNTS_SQL, categoryCountRows(directCounts, subtreeCounts));
+    }
+
+    // Sorted by category id so concurrent writers lock overlapping ancestor rows in the same order and cannot deadlock
+    private List<Object[]> categoryCountRows(Map<Long, Long> direct, Map<Long, Long> subtree) {
+        Set<Long> categoryIds = new TreeSet<>(direct.keySet());
+        categoryIds.addAll(subtree.keySet());
+        List<Object[]> rows = new ArrayList<>(categoryIds.size());
+        for (Long categoryId : categoryIds) {
+            long directValue = direct.getOrDefault(categoryId, 0L);
+            long subtreeValue = subtree.getOrDefault(categoryId, 0L);
+            if (directValue != 0 || subtreeValue != 0) {
+                rows.add(new Object[]{categoryId, directValue, subtreeValue});
+            }
+        }
+        return rows;
+    }
+
+    /**
+     * Records that an order's sales are being counted. Returns false if it already was, in which
+     * case the caller must not add its units again; run it in the same transaction as the totals.
+     */
+    public boolean claimSalesOrder(String orderNumber, LocalDateTime recordedAt) {
+        return jdbcTemplate.update(CLAIM_SALES_ORDER_SQL, orderNumber, Timestamp.valueOf(recordedAt)) > 0;
+    }
+
+    public int purgeSalesOrders(LocalDateTime before, int limit) {
+        return jdbcTemplate.update(PURGE_SALES_ORDERS_SQL, Timestamp.valueOf(before), limit);
+    }
+
+    // Adds to the running totals in one round trip, creating rows for first-time sellers
+    public void addUnitsSold(Map<Long, Long> unitsByProduct, LocalDateTime updatedAt) {
+        Timestamp timestamp = Timestamp.valueOf(updatedAt);
+        List<Object[]> rows = new ArrayList<>(unitsByProduct.size());
+        unitsByProduct.forEach((productId, units) -> rows.add(new Object[]{productId, units, timestamp}));
+        jdbcTemplate.batchUpdate(ADD_UNITS_SOLD_SQL, rows);
+    }
+}
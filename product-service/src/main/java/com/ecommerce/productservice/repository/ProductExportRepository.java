@@ -0,0 +1,115 @@
+package com.ecommerce.productservice.repository;
+
+import com.ecommerce.productservice.dto.ProductAttributeDto;
+import com.ecommerce.productservice.dto.ProductExportRecord;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.function.Consumer;
+
+/**
+ * Forward-only read of the whole active catalog. Category, inventory and attributes are
+ * joined in the query and rows arrive ordered by product id, so each product is complete
+ * as soon as the next one starts and only one product is ever held in memory.
+ */
+@Repository
+@RequiredArgsConstructor
+public class ProductExportRepository {
+
+    private static final String EXPORT_SQL =
+            "SELECT p.id, p.name, p.description, p.price, p.image_url, p.created_at, p.updated_at, " +
+            "c.id AS category_id, c.name AS category_name, " +
+            "i.quantity, i.reserved_quantity, i.updated_at AS inventory_updated_at, " +
+            "an.name AS attribute_name, av.value AS attribute_value " +
+            "FROM products p " +
+            "JOIN categories c ON c.id = p.category_id " +
+            "LEFT JOIN product_inventory i ON i.product_id = p.id " +
+            "LEFT JOIN product_attribute a ON a.product_id = p.id " +
+            "LEFT JOIN attribute_names an ON an.id = a.name_id " +
+            "LEFT JOIN attribute_values av ON av.id = a.value_id " +
+            "WHERE p.active = true " +
+            "ORDER BY p.id";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    // With useCursorFetch=true MySQL reads through a server-side cursor this many rows at a time
+    @Value("${product.export.fetch-size:1000}")
+    private int fetchSize;
+
+    public void forEachActiveProduct(Consumer<ProductExportRecord> consumer) {
+        ExportRowHandler handler = new ExportRowHandler(consumer);
+        jdbcTemplate.query(connection -> {
+            PreparedStatement ps = connection.prepareStatement(EXPORT_SQL,
+                    ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            ps.setFetchSize(fetchSize);
+            return ps;
+        }, handler);
+        handler.finish();
+    }
+
+    private static class ExportRowHandler implements RowCallbackHandler {
+        private final Consumer<ProductExportRecord> consumer;
+        private ProductExportRecord current;
+
+        ExportRowHandler(Consumer<ProductExportRecord> consumer) {
+            this.consumer = consumer;
+        }
+
+        @Override
+        public void processRow(ResultSet rs) throws SQLException {
+            long id = rs.getLong("id");
+            if (current == null || current.getId() != id) {
+                finish();
+                current = mapProduct(rs, id);
+            }
+            String attributeName = rs.getString("attribute_name");
+            if (attributeName != null) {
+                current.getAttributes().add(ProductAttributeDto.builder()
+                        .name(attributeName)
+                        .value(rs.getString("attribute_value"))
+                        .build());
+            }
+        }
+
+        void finish() {
+            if (current != null) {
+                consumer.accept(current);
+                current = null;
+            }
+        }
+
+        private static ProductExportRecord mapProduct(ResultSet rs, long id) throws SQLException {
+            int quantity = rs.getInt("quantity");
+            int available = quantity - rs.getInt("reserved_quantity");
+            return ProductExportRecord.builder()
+                    .id(id)
+                    .name(rs.getString("name"))
+                    .description(rs.getString("description"))
+                    .price(rs.getBigDecimal("price"))
+                    .imageUrl(rs.getString("image_url"))
+                    .categoryId(rs.getLong("category_id"))
+                    .categoryName(rs.getString("category_name"))
+                    .quantity(quantity)
+                    .availableQuantity(available)
+                    .inStock(available > 0)
+                    .createdAt(toLocalDateTime(rs.getTimestamp("created_at")))
+                    .updatedAt(toLocalDateTime(rs.getTimestamp("updated_at")))
+                    .inventoryUpdatedAt(toLocalDateTime(rs.getTimestamp("inventory_updated_at")))
+                    .attributes(new ArrayList<>())
+                    .build();
+        }
+
+        private static LocalDateTime toLocalDateTime(Timestamp timestamp) {
+            return timestamp != null ? timestamp.toLocalDateTime() : null;
+        }
+    }
+}
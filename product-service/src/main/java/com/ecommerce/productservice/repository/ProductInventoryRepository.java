@@ -6,6 +6,7 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -14,6 +15,8 @@ public interface ProductInventoryRepository extends JpaRepository<ProductInvento
     
     Optional<ProductInventory> findByProductId(Long productId);
     
+    List<ProductInventory> findByProductIdIn(Collection<Long> productIds);
+    
     @Query("SELECT pi FROM ProductInventory pi WHERE pi.quantity > 0 AND pi.product.active = true")
     List<ProductInventory> findAllInStock();
     
@@ -0,0 +1,206 @@
+package com.ecommerce.productservice.repository;
+
+import com.ecommerce.productservice.dto.ProductQueryCriteria;
+import com.ecommerce.productservice.dto.ProductSort;
+import com.ecommerce.productservice.repository.projection.ProductSummaryView;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Multi-criteria product listing. Each combination of criteria is mapped to one of the
+ * composite indexes on {@code products} and the index is forced, so the plan does not
+ * depend on optimizer statistics. Criteria the chosen index cannot serve are applied as
+ * residual filters, and the plan records whether the index also delivers the sort order
+ * or the database has to sort every match before paging.
+ */
+@Repository
+@RequiredArgsConstructor
+public class ProductQueryRepository {
+
+    public static final String INDEX_CATEGORY_CREATED = "idx_products_category_active_created";
+    public static final String INDEX_CATEGORY_PRICE = "idx_products_active_category_price";
+    public static final String INDEX_PRICE = "idx_products_active_price";
+    public static final String INDEX_CREATED = "idx_products_active_created";
+
+    private static final String SELECT_COLUMNS =
+            "SELECT p.id, p.name, p.price, p.image_url, c.name AS category_name, " +
+            "CASE WHEN i.quantity > i.reserved_quantity THEN true ELSE false END AS in_stock ";
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    public Plan plan(ProductQueryCriteria criteria, Collection<Long> categoryIds) {
+        ProductSort sort = criteria.getSort() != null ? criteria.getSort() : ProductSort.NEWEST;
+        boolean hasCategory = categoryIds != null && !categoryIds.isEmpty();
+        boolean singleCategory = hasCategory && categoryIds.size() == 1;
+        boolean hasMin = criteria.getMinPrice() != null;
+        boolean hasMax = criteria.getMaxPrice() != null;
+        boolean hasPriceRange = hasMin || hasMax;
+
+        Plan plan = new Plan();
+        if (hasCategory && (hasPriceRange || sort.byPrice())) {
+            plan.accessPath = "CATEGORY_PRICE_RANGE";
+            plan.index = INDEX_CATEGORY_PRICE;
+            // Equality on (active, category_id) leaves the index ordered by price for a single category
+            plan.orderedByIndex = singleCategory && sort.byPrice();
+            plan.notes.add("category and price are both resolved in the index");
+        } else if (hasCategory) {
+            plan.accessPath = "CATEGORY_NEWEST";
+            plan.index = INDEX_CATEGORY_CREATED;
+            plan.orderedByIndex = singleCategory && sort == ProductSort.NEWEST;
+            plan.notes.add("category is resolved in the index");
+        } else if (sort.byPrice() || (hasMin && hasMax) || (hasPriceRange && sort == ProductSort.POPULARITY)) {
+            plan.accessPath = "PRICE_RANGE";
+            plan.index = INDEX_PRICE;
+            plan.orderedByIndex = sort.byPrice();
+            plan.notes.add(hasPriceRange ? "price range is resolved in the index" : "index walked in price order");
+        } else {
+            plan.accessPath = "NEWEST";
+            plan.index = INDEX_CREATED;
+            plan.orderedByIndex = sort == ProductSort.NEWEST;
+            if (hasPriceRange) {
+                // An open-ended range is rarely selective; walking newest-first stops as soon as the page is full
+                plan.notes.add("open-ended price range is checked while walking the index newest-first");
+            }
+        }
+        if (hasCategory && !singleCategory && (sort == ProductSort.NEWEST || sort.byPrice())) {
+            plan.notes.add("category subtree spans " + categoryIds.size() + " categories, so results are merged and sorted");
+        }
+        if (sort == ProductSort.POPULARITY) {
+            plan.notes.add("popularity comes from product_sales, so every match is sorted; narrow with a category or price range");
+        }
+        if (criteria.isInStockOnly()) {
+            plan.notes.add("in-stock is checked per row through the product_inventory unique key");
+        }
+        if (criteria.getKeyword() != null && !criteria.getKeyword().isBlank()) {
+            plan.notes.add("keyword is a residual filter; a substring match cannot use an index");
+        }
+
+        StringBuilder from = new StringBuilder("FROM products p FORCE INDEX (").append(plan.index).append(") ")
+                .append("JOIN categories c ON c.id = p.category_id ")
+                .append(criteria.isInStockOnly() ? "JOIN" : "LEFT JOIN")
+                .append(" product_inventory i ON i.product_id = p.id ");
+        if (sort == ProductSort.POPULARITY) {
+            from.append("LEFT JOIN product_sales s ON s.product_id = p.id ");
+        }
+
+        StringBuilder where = new StringBuilder("WHERE p.active = true ");
+        if (hasCategory) {
+            where.append("AND p.category_id IN (:categoryIds) ");
+            plan.params.addValue("categoryIds", categoryIds);
+        }
+        if (hasMin) {
+            where.append("AND p.price >= :minPrice ");
+            plan.params.addValue("minPrice", criteria.getMinPrice());
+        }
+        if (hasMax) {
+            where.append("AND p.price <= :maxPrice ");
+            plan.params.addValue("maxPrice", criteria.getMaxPrice());
+        }
+        if (criteria.isInStockOnly()) {
+            where.append("AND i.quantity > i.reserved_quantity ");
+        }
+        if (criteria.getKeyword() != null && !criteria.getKeyword().isBlank()) {
+            where.append("AND LOWER(p.name) LIKE LOWER(CONCAT('%', :keyword, '%')) ");
+            plan.params.addValue("keyword", criteria.getKeyword().trim());
+        }
+
+        // The id tie-breaker keeps pages stable and is part of every secondary index anyway
+        String orderBy = switch (sort) {
+            case NEWEST -> "ORDER BY p.created_at DESC, p.id DESC";
+            case PRICE_ASC -> "ORDER BY p.price ASC, p.id ASC";
+            case PRICE_DESC -> "ORDER BY p.price DESC, p.id DESC";
+            case POPULARITY -> "ORDER BY COALESCE(s.units_sold, 0) DESC, p.id DESC";
+        };
+
+        plan.sql = SELECT_COLUMNS + from + where + orderBy + " LIMIT :limit OFFSET :offset";
+        plan.countSql = "SELECT COUNT(*) " + from + where;
+        return plan;
+    }
+
+    public Page<ProductSummaryView> find(Plan plan, Pageable pageable) {
+        MapSqlParameterSource params = pageParams(plan, pageable);
+        List<ProductSummaryView> rows = jdbcTemplate.query(plan.sql, params, (rs, rowNum) -> new SummaryRow(
+                rs.getLong("id"),
+                rs.getString("name"),
+                rs.getBigDecimal("price"),
+                rs.getString("image_url"),
+                rs.getString("category_name"),
+                rs.getBoolean("in_stock")));
+
+        // The count is only needed when the page doesn't already tell us where the results end
+        long total;
+        if (pageable.getOffset() == 0 && rows.size() < pageable.getPageSize()) {
+            total = rows.size();
+        } else {
+            Long counted = jdbcTemplate.queryForObject(plan.countSql, plan.params, Long.class);
+            total = counted != null ? counted : 0;
+        }
+        return new PageImpl<>(rows, pageable, total);
+    }
+
+    public List<Map<String, Object>> explain(Plan plan, Pageable pageable) {
+        return jdbcTemplate.queryForList("EXPLAIN " + plan.sql, pageParams(plan, pageable));
+    }
+
+    private MapSqlParameterSource pageParams(Plan plan, Pageable pageable) {
+        return new MapSqlParameterSource(plan.params.getValues())
+                .addValue("limit", pageable.getPageSize())
+                .addValue("offset", pageable.getOffset());
+    }
+
+    @Getter
+    public static class Plan {
+        private String accessPath;
+        private String index;
+        private boolean orderedByIndex;
+        private final List<String> notes = new ArrayList<>();
+        private String sql;
+        private String countSql;
+        private final MapSqlParameterSource params = new MapSqlParameterSource();
+    }
+
+    private record SummaryRow(Long id, String name, BigDecimal price, String imageUrl,
+                              String categoryName, Boolean inStock) implements ProductSummaryView {
+        @Override
+        public Long getId() {
+            return id;
+        }
+
+        @Override
+        public String getName() {
+            return name;
+        }
+
+        @Override
+        public BigDecimal getPrice() {
+            return price;
+        }
+
+        @Override
+        public String getImageUrl() {
+            return imageUrl;
+        }
+
+        @Override
+        public String getCategoryName() {
+            return categoryName;
+        }
+
+        @Override
+        public Boolean getInStock() {
+            return inStock;
+        }
+    }
+}
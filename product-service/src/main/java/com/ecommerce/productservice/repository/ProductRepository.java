@@ -1,6 +1,12 @@
 package com.ecommerce.productservice.repository;
 
 import com.ecommerce.productservice.entity.Product;
+import com.ecommerce.productservice.repository.projection.CategoryCountRow;
+import com.ecommerce.productservice.repository.projection.ProductDescriptionRow;
+import com.ecommerce.productservice.repository.projection.ProductNameRow;
+import com.ecommerce.productservice.repository.projection.ProductSummaryView;
+import com.ecommerce.productservice.repository.projection.ProductVersionView;
+import com.ecommerce.productservice.repository.projection.RankedProductView;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
@@ -8,11 +14,22 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface ProductRepository extends JpaRepository<Product, Long> {
     
+    String SUMMARY_SELECT = "SELECT p.id AS id, p.name AS name, p.price AS price, p.imageUrl AS imageUrl, " +
+            "c.name AS categoryName, CASE WHEN i.quantity > i.reservedQuantity THEN true ELSE false END AS inStock " +
+            "FROM Product p JOIN p.category c LEFT JOIN ProductInventory i ON i.product = p ";
+    
+    String VERSION_SELECT = "SELECT p.id AS id, p.active AS active, p.createdAt AS createdAt, p.updatedAt AS updatedAt, " +
+            "i.updatedAt AS inventoryUpdatedAt, c.updatedAt AS categoryUpdatedAt " +
+            "FROM Product p LEFT JOIN p.category c LEFT JOIN ProductInventory i ON i.product = p ";
+    
     Page<Product> findByActiveTrue(Pageable pageable);
     
     @Query("SELECT p FROM Product p WHERE p.active = true AND p.category.id = :categoryId")
@@ -21,8 +38,63 @@ public interface ProductRepository extends JpaRepository<Product, Long> {
     @Query("SELECT p FROM Product p WHERE p.active = true AND LOWER(p.name) LIKE LOWER(CONCAT('%', :keyword, '%'))")
     Page<Product> findByNameContainingIgnoreCaseAndActiveTrue(@Param("keyword") String keyword, Pageable pageable);
     
-    @Query("SELECT p FROM Product p JOIN p.attributes a WHERE p.active = true AND LOWER(a.name) = LOWER(:attributeName) AND LOWER(a.value) = LOWER(:attributeValue)")
-    List<Product> findByAttributeAndValue(@Param("attributeName") String attributeName, @Param("attributeValue") String attributeValue);
+    // Summary projections for list endpoints
+    @Query(value = SUMMARY_SELECT + "WHERE p.active = true",
+            countQuery = "SELECT COUNT(p) FROM Product p WHERE p.active = true")
+    Page<ProductSummaryView> findSummaries(Pageable pageable);
+    
+    @Query(value = SUMMARY_SELECT + "WHERE p.active = true AND p.category.id IN :categoryIds",
+            countQuery = "SELECT COUNT(p) FROM Product p WHERE p.active = true AND p.category.id IN :categoryIds")
+    Page<ProductSummaryView> findSummariesByCategoryIdIn(@Param("categoryIds") Collection<Long> categoryIds, Pageable pageable);
+    
+    @Query(value = SUMMARY_SELECT + "WHERE p.active = true AND LOWER(p.name) LIKE LOWER(CONCAT('%', :keyword, '%'))",
+            countQuery = "SELECT COUNT(p) FROM Product p WHERE p.active = true AND LOWER(p.name) LIKE LOWER(CONCAT('%', :keyword, '%'))")
+    Page<ProductSummaryView> searchSummaries(@Param("keyword") String keyword, Pageable pageable);
+    
+    // Ids come from the attribute dictionaries; (name_id, value_id) is indexed on product_attribute
+    @Query(SUMMARY_SELECT + "WHERE p.active = true AND EXISTS (SELECT a.id FROM ProductAttribute a WHERE a.id.productId = p.id " +
+            "AND a.id.nameId IN :nameIds AND a.id.valueId IN :valueIds)")
+    List<ProductSummaryView> findSummariesByAttribute(@Param("nameIds") Collection<Integer> nameIds, @Param("valueIds") Collection<Integer> valueIds);
+    
+    @Query(VERSION_SELECT + "WHERE p.id = :id")
+    Optional<ProductVersionView> findVersionById(@Param("id") Long id);
+    
+    @Query(VERSION_SELECT + "WHERE p.id IN :ids AND p.active = true")
+    List<ProductVersionView> findActiveVersionsByIdIn(@Param("ids") Collection<Long> ids);
+    
+    @Query("SELECT p.id AS id, p.description AS description FROM Product p WHERE p.id IN :ids")
+    List<ProductDescriptionRow> findDescriptionsByIdIn(@Param("ids") Collection<Long> ids);
+    
+    @Query("SELECT p.id FROM Product p WHERE p.active = true AND p.id IN :ids")
+    List<Long> findActiveIdsByIdIn(@Param("ids") Collection<Long> ids);
+    
+    @Query("SELECT p FROM Product p JOIN FETCH p.category WHERE p.active = true AND p.id IN :ids")
+    List<Product> findActiveWithCategoryByIdIn(@Param("ids") Collection<Long> ids);
+    
+    @Query("SELECT p.id AS id, p.name AS name, p.price AS price, p.imageUrl AS imageUrl, " +
+            "c.id AS categoryId, c.name AS categoryName, p.createdAt AS createdAt, " +
+            "CASE WHEN i.quantity > i.reservedQuantity THEN true ELSE false END AS inStock " +
+            "FROM Product p JOIN p.category c LEFT JOIN ProductInventory i ON i.product = p " +
+            "WHERE p.active = true AND p.id IN :ids")
+    List<RankedProductView> findRankedByIdIn(@Param("ids") Collection<Long> ids);
+    
+    // Newest products of every category in one pass; served by idx_products_category_active_created
+    @Query(value = "SELECT r.id FROM (" +
+            "SELECT p.id, ROW_NUMBER() OVER (PARTITION BY p.category_id ORDER BY p.created_at DESC, p.id DESC) AS rn " +
+            "FROM products p WHERE p.active = true) r " +
+            "WHERE r.rn <= :perCategory", nativeQuery = true)
+    List<Long> findNewestIdsPerCategory(@Param("perCategory") int perCategory);
+    
+    // Range scan on idx_products_active_created; picks up new arrivals without ranking the whole table
+    @Query("SELECT p.id FROM Product p WHERE p.active = true AND p.createdAt >= :since")
+    List<Long> findActiveIdsCreatedSince(@Param("since") LocalDateTime since, Pageable pageable);
+    
+    @Query("SELECT p.id AS id, p.name AS name FROM Product p WHERE p.active = true")
+    List<ProductNameRow> findActiveNames();
+    
+    @Query("SELECT p.category.id AS categoryId, COUNT(p) AS productCount FROM Product p WHERE p.active = true GROUP BY p.category.id")
+    List<CategoryCountRow> countActiveByCategory();
     
-    List<Product> findTop10ByOrderByCreatedAtDesc();
+    // Index probe on idx_products_category_active_created; also sees soft-deleted products
+    boolean existsByCategoryId(Long categoryId);
 }
@@ -0,0 +1,24 @@
+package com.ecommerce.productservice.repository;
+
+import com.ecommerce.productservice.entity.ProductSales;
+import com.ecommerce.productservice.repository.projection.ProductSalesRow;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface ProductSalesRepository extends JpaRepository<ProductSales, Long> {
+    
+    @Query("SELECT s.productId AS productId, s.unitsSold AS unitsSold FROM ProductSales s")
+    List<ProductSalesRow> findAllRows();
+    
+    // Top sellers of every category in one pass
+    @Query(value = "SELECT r.product_id FROM (" +
+            "SELECT s.product_id, ROW_NUMBER() OVER (PARTITION BY p.category_id ORDER BY s.units_sold DESC, s.product_id) AS rn " +
+            "FROM product_sales s JOIN products p ON p.id = s.product_id WHERE p.active = true) r " +
+            "WHERE r.rn <= :perCategory", nativeQuery = true)
+    List<Long> findTopSellerIdsPerCategory(@Param("perCategory") int perCategory);
+}
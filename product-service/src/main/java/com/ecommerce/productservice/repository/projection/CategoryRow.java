@@ -0,0 +1,19 @@
+package com.ecommerce.productservice.repository.projection;
+
+/**
+ * Flat view of a category row, used to build the in-memory category tree
+ * without touching the lazy parent/subcategory associations.
+ */
+public interface CategoryRow {
+    Long getId();
+
+    String getName();
+
+    String getDescription();
+
+    Long getParentId();
+
+    Long getProductCount();
+
+    Long getSubtreeProductCount();
+}
@@ -0,0 +1,7 @@
+package com.ecommerce.productservice.repository.projection;
+
+public interface ProductNameRow {
+    Long getId();
+
+    String getName();
+}
@@ -0,0 +1,21 @@
+package com.ecommerce.productservice.repository.projection;
+
+import java.math.BigDecimal;
+
+/**
+ * Columns needed to render a product card in a listing. Selected directly so list
+ * queries never hydrate descriptions, attributes or the category entity.
+ */
+public interface ProductSummaryView {
+    Long getId();
+
+    String getName();
+
+    BigDecimal getPrice();
+
+    String getImageUrl();
+
+    String getCategoryName();
+
+    Boolean getInStock();
+}
@@ -0,0 +1,21 @@
+package com.ecommerce.productservice.repository.projection;
+
+import java.time.LocalDateTime;
+
+/**
+ * Modification timestamps of everything rendered into a product detail response,
+ * used to derive its ETag without loading the product itself.
+ */
+public interface ProductVersionView {
+    Long getId();
+
+    Boolean getActive();
+
+    LocalDateTime getCreatedAt();
+
+    LocalDateTime getUpdatedAt();
+
+    LocalDateTime getInventoryUpdatedAt();
+
+    LocalDateTime getCategoryUpdatedAt();
+}
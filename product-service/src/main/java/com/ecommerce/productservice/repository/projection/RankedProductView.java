@@ -0,0 +1,22 @@
+package com.ecommerce.productservice.repository.projection;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+public interface RankedProductView {
+    Long getId();
+
+    String getName();
+
+    BigDecimal getPrice();
+
+    String getImageUrl();
+
+    Long getCategoryId();
+
+    String getCategoryName();
+
+    LocalDateTime getCreatedAt();
+
+    Boolean getInStock();
+}
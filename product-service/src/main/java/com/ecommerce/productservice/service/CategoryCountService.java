@@ -0,0 +1,15 @@
+package com.ecommerce.productservice.service;
+
+import java.util.Map;
+
+public interface CategoryCountService {
+    
+    // Applies per-category changes in the number of active products to the direct and subtree counters
+    void adjust(Map<Long, Long> deltasByCategory);
+    
+    // Moves a category's subtree count from its old ancestors to its new ones
+    void categoryMoved(Long categoryId, Long oldParentId, Long newParentId);
+    
+    // Recomputes every counter from the products table; returns the number of categories covered
+    int rebuildCounts();
+}
@@ -21,4 +21,7 @@ public interface CategoryService {
     List<CategoryDto> getSubcategories(Long parentId);
     
     void deleteCategory(Long id);
+    
+    // Strong ETag shared by all category read endpoints, derived from the current category tree
+    String getCategoriesETag();
 }
@@ -0,0 +1,18 @@
+package com.ecommerce.productservice.service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+public interface ProductExportService {
+
+    /**
+     * Writes every active product as one JSON object per line. Memory use does not
+     * depend on catalog size; the caller owns and closes the stream.
+     */
+    long exportActiveProducts(OutputStream output) throws IOException;
+
+    /**
+     * Re-publishes a snapshot of every active product, e.g. to seed a new snapshot topic.
+     */
+    long republishSnapshots();
+}
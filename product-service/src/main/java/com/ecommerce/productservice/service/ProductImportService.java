@@ -0,0 +1,15 @@
+package com.ecommerce.productservice.service;
+
+import com.ecommerce.productservice.dto.ProductImportResponse;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+public interface ProductImportService {
+
+    /**
+     * Imports newline-delimited {@code ProductRequest} JSON objects. Rows that fail
+     * validation or insertion are reported individually; the rest of the stream continues.
+     */
+    ProductImportResponse importProducts(InputStream input) throws IOException;
+}
@@ -0,0 +1,25 @@
+package com.ecommerce.productservice.service;
+
+import com.ecommerce.productservice.dto.RelatedProductsResponse;
+import com.ecommerce.productservice.dto.TrendingResponse;
+import com.ecommerce.productservice.event.OrderCreatedEvent;
+import org.springframework.kafka.support.Acknowledgment;
+
+public interface ProductSalesService {
+    
+    // Adds the order's line items to the persistent per-product sales totals, once per order
+    void recordOrder(OrderCreatedEvent event);
+    
+    // Applies the order to this instance's in-memory rankings, trending window and co-purchase graph
+    void trackOrder(OrderCreatedEvent event);
+    
+    // Most ordered products over the recent sliding window, from memory
+    TrendingResponse getTrendingProducts(int limit);
+    
+    // Products most often bought together with the given one, from memory
+    RelatedProductsResponse getRelatedProducts(Long productId, int limit);
+    
+    void handleOrderCreatedEvent(OrderCreatedEvent event, Acknowledgment acknowledgment);
+    
+    void trackOrderCreatedEvent(OrderCreatedEvent event);
+}
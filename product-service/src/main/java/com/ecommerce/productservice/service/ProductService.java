@@ -4,6 +4,7 @@ import com.ecommerce.productservice.dto.*;
 import org.springframework.data.domain.Pageable;
 
 import java.util.List;
+import java.util.Set;
 
 public interface ProductService {
     
@@ -13,13 +14,25 @@ public interface ProductService {
     
     ProductResponse getProductById(Long id);
     
-    PagedResponse<ProductResponse> getAllProducts(int page, int size);
+    // The product as served under the given ETag; a cached copy built under another ETag is reloaded
+    ProductResponse getProductById(Long id, String etag);
     
-    PagedResponse<ProductResponse> getProductsByCategory(Long categoryId, int page, int size);
+    // Resolves many ids at once; results follow request order and misses are reported explicitly
+    ProductBatchResponse getProductsByIds(List<Long> ids);
     
-    PagedResponse<ProductResponse> searchProducts(String keyword, int page, int size);
+    // Strong ETag for the product detail response, computed without loading the product
+    String getProductETag(Long id);
     
-    List<ProductResponse> getProductsByAttribute(String attributeName, String attributeValue);
+    PagedResponse<ProductSummary> getAllProducts(int page, int size, Set<ProductField> fields);
+    
+    PagedResponse<ProductSummary> getProductsByCategory(Long categoryId, int page, int size, Set<ProductField> fields);
+    
+    PagedResponse<ProductSummary> searchProducts(String keyword, int page, int size, Set<ProductField> fields);
+    
+    List<ProductSummary> getProductsByAttribute(String attributeName, String attributeValue, Set<ProductField> fields);
+    
+    // Combined category, price and stock filters with a choice of sort; debug adds the chosen plan
+    ProductQueryResponse queryProducts(ProductQueryCriteria criteria, int page, int size, Set<ProductField> fields, boolean debug);
     
     void deleteProduct(Long id);
     
@@ -28,5 +41,8 @@ public interface ProductService {
     
     ProductInventoryDto getInventoryByProduct(Long productId);
     
-    List<ProductResponse> getNewArrivals();
+    // Served from the in-memory rankings; categoryId may be null for the whole catalog
+    List<ProductSummary> getNewArrivals(Long categoryId, int limit);
+    
+    List<ProductSummary> getBestSellers(Long categoryId, int limit);
 }
@@ -0,0 +1,14 @@
+package com.ecommerce.productservice.service;
+
+import com.ecommerce.productservice.dto.SuggestionResponse;
+
+public interface SuggestionService {
+
+    /**
+     * Returns the most popular category and product names having a word that starts with the query.
+     * Served entirely from memory; the index is refreshed in the background.
+     */
+    SuggestionResponse suggest(String query, int limit);
+
+    void rebuildIndex();
+}
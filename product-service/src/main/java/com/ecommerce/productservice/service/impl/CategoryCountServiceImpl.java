@@ -0,0 +1,118 @@
+package com.ecommerce.productservice.service.impl;
+
+import com.ecommerce.productservice.cache.CategoryTree;
+import com.ecommerce.productservice.cache.CategoryTreeCache;
+import com.ecommerce.productservice.entity.CategoryProductCount;
+import com.ecommerce.productservice.repository.CategoryProductCountRepository;
+import com.ecommerce.productservice.repository.CategoryRepository;
+import com.ecommerce.productservice.repository.ProductBatchRepository;
+import com.ecommerce.productservice.repository.ProductRepository;
+import com.ecommerce.productservice.repository.projection.CategoryCountRow;
+import com.ecommerce.productservice.service.CategoryCountService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class CategoryCountServiceImpl implements CategoryCountService {
+    
+    private final CategoryProductCountRepository categoryProductCountRepository;
+    private final CategoryRepository categoryRepository;
+    private final ProductRepository productRepository;
+    private final ProductBatchRepository productBatchRepository;
+    private final CategoryTreeCache categoryTreeCache;
+    
+    /**
+     * Runs in the caller's transaction so the counters commit, or roll back, with the product write.
+     * The counter rows stay locked until then, and every write touches its root category's row, so
+     * concurrent catalog writes under one root queue on it. That is accepted: catalog writes are
+     * infrequent admin operations, and applying the deltas after commit instead would let a crash
+     * skew the counts until the next rebuild.
+     */
+    @Override
+    @Transactional
+    public void adjust(Map<Long, Long> deltasByCategory) {
+        CategoryTree tree = categoryTreeCache.get();
+        if (!deltasByCategory.keySet().stream().allMatch(tree::contains)) {
+            // A category created through another instance that this one hasn't picked up yet
+            categoryTreeCache.rebuild();
+            tree = categoryTreeCache.get();
+        }
+        
+        Map<Long, Long> direct = new HashMap<>();
+        Map<Long, Long> subtree = new HashMap<>();
+        for (Map.Entry<Long, Long> entry : deltasByCategory.entrySet()) {
+            long delta = entry.getValue();
+            if (delta == 0) {
+                continue;
+            }
+            direct.merge(entry.getKey(), delta, Long::sum);
+            for (Long categoryId : tree.pathOf(entry.getKey())) {
+                subtree.merge(categoryId, delta, Long::sum);
+            }
+        }
+        if (!direct.isEmpty()) {
+            productBatchRepository.addCategoryCounts(direct, subtree);
+            // The cached tree serves the counts and the category ETags
+            categoryTreeCache.invalidate();
+        }
+    }
+    
+    @Override
+    @Transactional
+    public void categoryMoved(Long categoryId, Long oldParentId, Long newParentId) {
+        if (Objects.equals(oldParentId, newParentId)) {
+            return;
+        }
+        long moved = categoryProductCountRepository.findById(categoryId)
+                .map(CategoryProductCount::getSubtreeProductCount)
+                .orElse(0L);
+        if (moved == 0) {
+            return;
+        }
+        
+        // Still the tree from before the move; the new parent cannot be inside the moved subtree
+        CategoryTree tree = categoryTreeCache.get();
+        Map<Long, Long> subtree = new HashMap<>();
+        if (oldParentId != null) {
+            tree.pathOf(oldParentId).forEach(id -> subtree.merge(id, -moved, Long::sum));
+        }
+        if (newParentId != null) {
+            tree.pathOf(newParentId).forEach(id -> subtree.merge(id, moved, Long::sum));
+        }
+        productBatchRepository.addCategoryCounts(Collections.emptyMap(), subtree);
+    }
+    
+    /**
+     * Recovers from drift, e.g. after a failed write or a move raced with product writes.
+     * Counter updates committed while the rebuild runs may be overwritten; the next run fixes them.
+     */
+    @Override
+    @Transactional
+    @Scheduled(fixedDelayString = "${catalog.category-counts.rebuild-interval-ms:3600000}",
+            initialDelayString = "${catalog.category-counts.rebuild-interval-ms:3600000}")
+    public int rebuildCounts() {
+        CategoryTree tree = CategoryTree.build(categoryRepository.findAllRows());
+        Map<Long, Long> direct = new HashMap<>();
+        Map<Long, Long> subtree = new HashMap<>();
+        for (CategoryCountRow row : productRepository.countActiveByCategory()) {
+            direct.put(row.getCategoryId(), row.getProductCount());
+            for (Long categoryId : tree.pathOf(row.getCategoryId())) {
+                subtree.merge(categoryId, row.getProductCount(), Long::sum);
+            }
+        }
+        productBatchRepository.replaceCategoryCounts(direct, subtree);
+        categoryTreeCache.invalidate();
+        log.info("Rebuilt product counts for {} categories", tree.size());
+        return tree.size();
+    }
+}
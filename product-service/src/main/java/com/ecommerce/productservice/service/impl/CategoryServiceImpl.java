@@ -1,12 +1,19 @@
 package com.ecommerce.productservice.service.impl;
 
+import com.ecommerce.productservice.cache.CategoryTree;
+import com.ecommerce.productservice.cache.CategoryTreeCache;
+import com.ecommerce.productservice.cache.ProductCache;
 import com.ecommerce.productservice.dto.CategoryDto;
 import com.ecommerce.productservice.dto.CategoryRequest;
 import com.ecommerce.productservice.dto.PagedResponse;
 import com.ecommerce.productservice.entity.Category;
+import com.ecommerce.productservice.entity.CategoryProductCount;
 import com.ecommerce.productservice.exception.ResourceAlreadyExistsException;
 import com.ecommerce.productservice.exception.ResourceNotFoundException;
+import com.ecommerce.productservice.repository.CategoryProductCountRepository;
 import com.ecommerce.productservice.repository.CategoryRepository;
+import com.ecommerce.productservice.repository.ProductRepository;
+import com.ecommerce.productservice.service.CategoryCountService;
 import com.ecommerce.productservice.service.CategoryService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
@@ -18,6 +25,7 @@ import org.springframework.transaction.annotation.Transactional;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Optional;
 import java.util.stream.Collectors;
 
 @Service
@@ -25,6 +33,11 @@ import java.util.stream.Collectors;
 public class CategoryServiceImpl implements CategoryService {
     
     private final CategoryRepository categoryRepository;
+    private final CategoryProductCountRepository categoryProductCountRepository;
+    private final ProductRepository productRepository;
+    private final CategoryCountService categoryCountService;
+    private final CategoryTreeCache categoryTreeCache;
+    private final ProductCache productCache;
     
     @Override
     @Transactional
@@ -46,6 +59,7 @@ public class CategoryServiceImpl implements CategoryService {
         }
         
         Category savedCategory = categoryRepository.save(category);
+        categoryTreeCache.invalidate();
         return mapCategoryToDto(savedCategory);
     }
     
@@ -63,6 +77,7 @@ public class CategoryServiceImpl implements CategoryService {
                     }
                 });
         
+        Long previousParentId = category.getParent() != null ? category.getParent().getId() : null;
         category.setName(categoryRequest.getName());
         category.setDescription(categoryRequest.getDescription());
         
@@ -72,6 +87,9 @@ public class CategoryServiceImpl implements CategoryService {
             if (categoryRequest.getParentId().equals(id)) {
                 throw new IllegalArgumentException("A category cannot be its own parent");
             }
+            if (categoryTreeCache.get().subtreeIdsOf(id).contains(categoryRequest.getParentId())) {
+                throw new IllegalArgumentException("A category cannot be moved under one of its own subcategories");
+            }
             
             Category parentCategory = categoryRepository.findById(categoryRequest.getParentId())
                     .orElseThrow(() -> new ResourceNotFoundException("Category", "id", categoryRequest.getParentId()));
@@ -81,15 +99,19 @@ public class CategoryServiceImpl implements CategoryService {
         }
         
         Category updatedCategory = categoryRepository.save(category);
+        categoryCountService.categoryMoved(id, previousParentId, categoryRequest.getParentId());
+        categoryTreeCache.invalidate();
+        // Cached product details embed their category
+        productCache.evictAll();
         return mapCategoryToDto(updatedCategory);
     }
     
     @Override
     @Transactional(readOnly = true)
     public CategoryDto getCategoryById(Long id) {
-        Category category = categoryRepository.findById(id)
+        CategoryTree.Node node = categoryTreeCache.get().find(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Category", "id", id));
-        return mapCategoryToDto(category);
+        return mapNodeToDto(node, 1);
     }
     
     @Override
@@ -98,8 +120,11 @@ public class CategoryServiceImpl implements CategoryService {
         Pageable pageable = PageRequest.of(page, size, Sort.by("name").ascending());
         Page<Category> categories = categoryRepository.findAll(pageable);
         
+        CategoryTree tree = categoryTreeCache.get();
         List<CategoryDto> categoryDtos = categories.getContent().stream()
-                .map(this::mapCategoryToDto)
+                .map(category -> tree.find(category.getId())
+                        .map(node -> mapNodeToDto(node, 1))
+                        .orElseGet(() -> mapCategoryToDto(category)))
                 .collect(Collectors.toList());
         
         return new PagedResponse<>(
@@ -113,23 +138,20 @@ public class CategoryServiceImpl implements CategoryService {
     }
     
     @Override
-    @Transactional(readOnly = true)
     public List<CategoryDto> getRootCategories() {
-        List<Category> rootCategories = categoryRepository.findRootCategories();
-        return rootCategories.stream()
-                .map(this::mapCategoryToDto)
+        // Served entirely from the in-memory tree, including every level of subcategories
+        return categoryTreeCache.get().getRoots().stream()
+                .map(root -> mapNodeToDto(root, Integer.MAX_VALUE))
                 .collect(Collectors.toList());
     }
     
     @Override
-    @Transactional(readOnly = true)
     public List<CategoryDto> getSubcategories(Long parentId) {
-        categoryRepository.findById(parentId)
+        CategoryTree.Node parent = categoryTreeCache.get().find(parentId)
                 .orElseThrow(() -> new ResourceNotFoundException("Category", "id", parentId));
         
-        List<Category> subcategories = categoryRepository.findByParentId(parentId);
-        return subcategories.stream()
-                .map(this::mapCategoryToDto)
+        return parent.getChildren().stream()
+                .map(child -> mapNodeToDto(child, 1))
                 .collect(Collectors.toList());
     }
     
@@ -140,16 +162,44 @@ public class CategoryServiceImpl implements CategoryService {
                 .orElseThrow(() -> new ResourceNotFoundException("Category", "id", id));
         
         // Check if category has subcategories
-        if (!category.getSubcategories().isEmpty()) {
+        if (categoryRepository.existsByParentId(id)) {
             throw new IllegalStateException("Cannot delete category with subcategories. Remove subcategories first.");
         }
         
-        // Check if category has associated products
-        if (!category.getProducts().isEmpty()) {
+        // Check if category has associated products: the active counter first, then one index probe for soft-deleted ones
+        Optional<CategoryProductCount> counts = categoryProductCountRepository.findById(id);
+        if (counts.map(CategoryProductCount::getProductCount).orElse(0L) > 0 || productRepository.existsByCategoryId(id)) {
             throw new IllegalStateException("Cannot delete category with associated products. Update or remove products first.");
         }
         
+        counts.ifPresent(categoryProductCountRepository::delete);
         categoryRepository.delete(category);
+        categoryTreeCache.invalidate();
+    }
+    
+    @Override
+    public String getCategoriesETag() {
+        return "\"c" + Long.toHexString(categoryTreeCache.get().getFingerprint()) + "\"";
+    }
+    
+    // Maps a tree node to a CategoryDto, expanding subcategories down to the given depth
+    private CategoryDto mapNodeToDto(CategoryTree.Node node, int depth) {
+        List<CategoryDto> subcategoryDtos = new ArrayList<>();
+        if (depth > 0) {
+            subcategoryDtos = node.getChildren().stream()
+                    .map(child -> mapNodeToDto(child, depth - 1))
+                    .collect(Collectors.toList());
+        }
+        
+        return CategoryDto.builder()
+                .id(node.getId())
+                .name(node.getName())
+                .description(node.getDescription())
+                .parentId(node.getParentId())
+                .productCount(node.getProductCount())
+                .subtreeProductCount(node.getSubtreeProductCount())
+                .subcategories(subcategoryDtos)
+                .build();
     }
     
     // Helper method to map Category entity to CategoryDto
@@ -166,11 +216,16 @@ public class CategoryServiceImpl implements CategoryService {
                     .collect(Collectors.toList());
         }
         
+        CategoryProductCount counts = categoryProductCountRepository.findById(category.getId())
+                .orElseGet(() -> new CategoryProductCount(category.getId(), 0L, 0L));
+        
         return CategoryDto.builder()
                 .id(category.getId())
                 .name(category.getName())
                 .description(category.getDescription())
                 .parentId(category.getParent() != null ? category.getParent().getId() : null)
+                .productCount(counts.getProductCount())
+                .subtreeProductCount(counts.getSubtreeProductCount())
                 .subcategories(subcategoryDtos)
                 .build();
     }
@@ -0,0 +1,72 @@
+package com.ecommerce.productservice.service.impl;
+
+import com.ecommerce.productservice.dto.ProductExportRecord;
+import com.ecommerce.productservice.event.ProductSnapshotPublisher;
+import com.ecommerce.productservice.repository.ProductExportRepository;
+import com.ecommerce.productservice.service.ProductExportService;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ProductExportServiceImpl implements ProductExportService {
+
+    private final ProductExportRepository productExportRepository;
+    private final ProductSnapshotPublisher snapshotPublisher;
+    private final ObjectMapper objectMapper;
+
+    @Override
+    public long exportActiveProducts(OutputStream output) throws IOException {
+        long start = System.currentTimeMillis();
+        long[] exported = {0};
+
+        // Let the caller's buffer decide when bytes go out instead of flushing after every line
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(output)
+                .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+             SequenceWriter writer = objectMapper.writerFor(ProductExportRecord.class)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE)
+                .withRootValueSeparator("\n")
+                .writeValues(generator)) {
+            productExportRepository.forEachActiveProduct(record -> {
+                try {
+                    writer.write(record);
+                    exported[0]++;
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            // Usually the client going away mid-export
+            throw e.getCause();
+        }
+
+        if (exported[0] > 0) {
+            output.write('\n');
+        }
+        output.flush();
+
+        log.info("Exported {} products in {} ms", exported[0], System.currentTimeMillis() - start);
+        return exported[0];
+    }
+
+    @Override
+    public long republishSnapshots() {
+        long[] published = {0};
+        productExportRepository.forEachActiveProduct(record -> {
+            snapshotPublisher.publish(record);
+            published[0]++;
+        });
+        log.info("Republished {} product snapshots", published[0]);
+        return published[0];
+    }
+}
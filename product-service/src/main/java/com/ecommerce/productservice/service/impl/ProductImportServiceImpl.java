@@ -0,0 +1,270 @@
+package com.ecommerce.productservice.service.impl;
+
+import com.ecommerce.productclient.ProductSnapshot;
+import com.ecommerce.productservice.cache.AttributeDictionary;
+import com.ecommerce.productservice.cache.CatalogRankings;
+import com.ecommerce.productservice.cache.CategoryTree;
+import com.ecommerce.productservice.cache.CategoryTreeCache;
+import com.ecommerce.productservice.cache.RankedProduct;
+import com.ecommerce.productservice.dto.ProductAttributeDto;
+import com.ecommerce.productservice.dto.ProductImportResponse;
+import com.ecommerce.productservice.dto.ProductRequest;
+import com.ecommerce.productservice.entity.ProductAttributeId;
+import com.ecommerce.productservice.event.InventoryEvent;
+import com.ecommerce.productservice.event.ProductEvent;
+import com.ecommerce.productservice.event.ProductSnapshotPublisher;
+import com.ecommerce.productservice.repository.ProductBatchRepository;
+import com.ecommerce.productservice.service.CategoryCountService;
+import com.ecommerce.productservice.service.ProductImportService;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ProductImportServiceImpl implements ProductImportService {
+
+    private final ProductBatchRepository productBatchRepository;
+    private final AttributeDictionary attributeDictionary;
+    private final CategoryCountService categoryCountService;
+    private final CategoryTreeCache categoryTreeCache;
+    private final CatalogRankings catalogRankings;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+    private final KafkaTemplate<String, ProductEvent> productKafkaTemplate;
+    private final KafkaTemplate<String, InventoryEvent> inventoryKafkaTemplate;
+    private final ProductSnapshotPublisher snapshotPublisher;
+
+    @Value("${product.import.batch-size:500}")
+    private int batchSize;
+
+    @Value("${product.import.max-reported-errors:1000}")
+    private int maxReportedErrors;
+
+    @Value("${kafka.topics.product-created}")
+    private String productCreatedTopic;
+
+    @Value("${kafka.topics.inventory-update}")
+    private String inventoryUpdateTopic;
+
+    @Override
+    public ProductImportResponse importProducts(InputStream input) throws IOException {
+        ImportProgress progress = new ImportProgress(maxReportedErrors);
+        CategoryTree categoryTree = categoryTreeCache.get();
+        List<ImportRow> batch = new ArrayList<>(batchSize);
+
+        BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8));
+        String line;
+        long lineNumber = 0;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            if (line.isBlank()) {
+                continue;
+            }
+            progress.received++;
+
+            ProductRequest request;
+            try {
+                request = objectMapper.readValue(line, ProductRequest.class);
+            } catch (JsonProcessingException e) {
+                progress.fail(lineNumber, "Malformed JSON: " + e.getOriginalMessage());
+                continue;
+            }
+
+            String validationError = validate(request, categoryTree);
+            if (validationError != null) {
+                progress.fail(lineNumber, validationError);
+                continue;
+            }
+
+            batch.add(new ImportRow(lineNumber, request));
+            if (batch.size() >= batchSize) {
+                flush(batch, progress);
+                batch = new ArrayList<>(batchSize);
+            }
+        }
+        if (!batch.isEmpty()) {
+            flush(batch, progress);
+        }
+
+        log.info("Product import finished: {} received, {} imported, {} failed",
+                progress.received, progress.imported, progress.failed);
+        return progress.toResponse();
+    }
+
+    private String validate(ProductRequest request, CategoryTree categoryTree) {
+        if (request.getName() == null || request.getName().isBlank()) {
+            return "Product name is required";
+        }
+        if (request.getName().length() > 255) {
+            return "Product name must be at most 255 characters";
+        }
+        if (request.getDescription() != null && request.getDescription().length() > 4000) {
+            return "Product description must be at most 4000 characters";
+        }
+        if (request.getPrice() == null || request.getPrice().compareTo(BigDecimal.ZERO) < 0) {
+            return "Product price is required and must not be negative";
+        }
+        if (request.getCategoryId() == null || !categoryTree.contains(request.getCategoryId())) {
+            return "Category not found with id: '" + request.getCategoryId() + "'";
+        }
+        if (request.getInitialStock() != null && request.getInitialStock() < 0) {
+            return "Initial stock must not be negative";
+        }
+        if (request.getAttributes() != null) {
+            for (ProductAttributeDto attribute : request.getAttributes()) {
+                if (attribute.getName() == null || attribute.getValue() == null) {
+                    return "Attribute name and value are required";
+                }
+            }
+        }
+        return null;
+    }
+
+    private void flush(List<ImportRow> rows, ImportProgress progress) {
+        List<ProductRequest> requests = rows.stream()
+                .map(ImportRow::request)
+                .collect(Collectors.toList());
+        LocalDateTime now = LocalDateTime.now();
+
+        List<Long> productIds;
+        try {
+            // New dictionary entries commit on their own, so the batch transaction only writes ids
+            attributeDictionary.intern(requests.stream()
+                    .filter(request -> request.getAttributes() != null)
+                    .flatMap(request -> request.getAttributes().stream())
+                    .collect(Collectors.toList()));
+            productIds = transactionTemplate.execute(status -> {
+                List<Long> ids = productBatchRepository.insertProducts(requests, now);
+                List<ProductAttributeId> attributes = new ArrayList<>();
+                for (int i = 0; i < requests.size(); i++) {
+                    if (requests.get(i).getAttributes() != null) {
+                        attributes.addAll(attributeDictionary.encodeInterned(ids.get(i), requests.get(i).getAttributes()));
+                    }
+                }
+                productBatchRepository.insertAttributes(attributes);
+                productBatchRepository.insertInventory(ids, requests, now);
+                categoryCountService.adjust(requests.stream()
+                        .collect(Collectors.groupingBy(ProductRequest::getCategoryId, Collectors.counting())));
+                return ids;
+            });
+        } catch (RuntimeException e) {
+            if (rows.size() > 1) {
+                // Retry row by row so a single bad row doesn't take the whole batch down with it
+                log.warn("Batch insert of {} products failed, retrying individually: {}", rows.size(), e.getMessage());
+                for (ImportRow row : rows) {
+                    flush(Collections.singletonList(row), progress);
+                }
+            } else {
+                progress.fail(rows.get(0).lineNumber(), "Insert failed: " + NestedExceptionUtils.getMostSpecificCause(e).getMessage());
+            }
+            return;
+        }
+
+        progress.imported += productIds.size();
+        publishEvents(productIds, requests, now);
+    }
+
+    // Events are sent only after the batch has committed; the producer groups and compresses them
+    private void publishEvents(List<Long> productIds, List<ProductRequest> requests, LocalDateTime timestamp) {
+        CategoryTree categoryTree = categoryTreeCache.get();
+        for (int i = 0; i < requests.size(); i++) {
+            ProductRequest request = requests.get(i);
+            Long productId = productIds.get(i);
+
+            ProductEvent productEvent = ProductEvent.builder()
+                    .id(productId)
+                    .name(request.getName())
+                    .description(request.getDescription())
+                    .price(request.getPrice())
+                    .categoryId(request.getCategoryId())
+                    .imageUrl(request.getImageUrl())
+                    .timestamp(timestamp)
+                    .eventType(ProductEvent.ProductEventType.CREATED)
+                    .build();
+            productKafkaTemplate.send(productCreatedTopic, productEvent);
+
+            int stock = request.getInitialStock() != null ? request.getInitialStock() : 0;
+            snapshotPublisher.publish(ProductSnapshot.builder()
+                    .id(productId)
+                    .name(request.getName())
+                    .description(request.getDescription())
+                    .price(request.getPrice())
+                    .categoryId(request.getCategoryId())
+                    .imageUrl(request.getImageUrl())
+                    .active(true)
+                    .quantity(stock)
+                    .availableQuantity(stock)
+                    .updatedAt(timestamp)
+                    .build());
+            String categoryName = categoryTree.find(request.getCategoryId())
+                    .map(CategoryTree.Node::getName)
+                    .orElse(null);
+            catalogRankings.productSaved(new RankedProduct(productId, request.getName(), request.getPrice(),
+                    request.getImageUrl(), request.getCategoryId(), categoryName, timestamp, stock > 0, 0L), true);
+
+            if (request.getInitialStock() != null && request.getInitialStock() > 0) {
+                InventoryEvent inventoryEvent = InventoryEvent.builder()
+                        .productId(productId)
+                        .quantity(request.getInitialStock())
+                        .reservedQuantity(0)
+                        .availableQuantity(request.getInitialStock())
+                        .timestamp(timestamp)
+                        .eventType(InventoryEvent.InventoryEventType.STOCK_ADDED)
+                        .build();
+                inventoryKafkaTemplate.send(inventoryUpdateTopic, inventoryEvent);
+            }
+        }
+    }
+
+    private record ImportRow(long lineNumber, ProductRequest request) {
+    }
+
+    private static class ImportProgress {
+        private final int maxReportedErrors;
+        private final List<ProductImportResponse.RowError> errors = new ArrayList<>();
+        private long received;
+        private long imported;
+        private long failed;
+
+        ImportProgress(int maxReportedErrors) {
+            this.maxReportedErrors = maxReportedErrors;
+        }
+
+        void fail(long line, String message) {
+            failed++;
+            if (errors.size() < maxReportedErrors) {
+                errors.add(new ProductImportResponse.RowError(line, message));
+            }
+        }
+
+        ProductImportResponse toResponse() {
+            return ProductImportResponse.builder()
+                    .received(received)
+                    .imported(imported)
+                    .failed(failed)
+                    .errorsTruncated(failed > errors.size())
+                    .errors(errors)
+                    .build();
+        }
+    }
+}
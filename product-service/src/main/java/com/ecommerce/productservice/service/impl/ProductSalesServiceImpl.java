@@ -0,0 +1,204 @@
+package com.ecommerce.productservice.service.impl;
+
+import com.ecommerce.productservice.cache.CatalogRankings;
+import com.ecommerce.productservice.cache.CoPurchaseGraph;
+import com.ecommerce.productservice.cache.RankedProduct;
+import com.ecommerce.productservice.cache.TrendingProducts;
+import com.ecommerce.productservice.dto.RelatedProductsResponse;
+import com.ecommerce.productservice.dto.TrendingResponse;
+import com.ecommerce.productservice.event.OrderCreatedEvent;
+import com.ecommerce.productservice.repository.ProductBatchRepository;
+import com.ecommerce.productservice.repository.ProductRepository;
+import com.ecommerce.productservice.service.ProductSalesService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.support.Acknowledgment;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Order-created events are consumed twice. The shared consumer group adds each order to the
+ * persistent sales totals exactly once across all instances. A second listener with a
+ * per-instance group feeds the in-memory rankings, trending window and co-purchase graph, so
+ * every instance sees every order; it starts at the latest offset and never commits. After a
+ * restart the rankings are rebuilt from the database; the other two start empty.
+ */
+@Service
+@Slf4j
+public class ProductSalesServiceImpl implements ProductSalesService {
+    
+    private final ProductBatchRepository productBatchRepository;
+    private final ProductRepository productRepository;
+    private final CatalogRankings catalogRankings;
+    private final TrendingProducts trendingProducts;
+    private final CoPurchaseGraph coPurchaseGraph;
+    private final TransactionTemplate transactionTemplate;
+    private final Duration processedOrdersRetention;
+    
+    @Value("${catalog.trending.max-limit:50}")
+    private int trendingMaxLimit;
+    
+    @Value("${catalog.related.max-limit:20}")
+    private int relatedMaxLimit;
+    
+    public ProductSalesServiceImpl(ProductBatchRepository productBatchRepository,
+                                   ProductRepository productRepository,
+                                   CatalogRankings catalogRankings,
+                                   TrendingProducts trendingProducts,
+                                   CoPurchaseGraph coPurchaseGraph,
+                                   PlatformTransactionManager transactionManager,
+                                   @Value("${catalog.sales.processed-orders-retention:7d}") Duration processedOrdersRetention) {
+        this.productBatchRepository = productBatchRepository;
+        this.productRepository = productRepository;
+        this.catalogRankings = catalogRankings;
+        this.trendingProducts = trendingProducts;
+        this.coPurchaseGraph = coPurchaseGraph;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.processedOrdersRetention = processedOrdersRetention;
+    }
+    
+    @Override
+    public void recordOrder(OrderCreatedEvent event) {
+        Map<Long, Long> units = new HashMap<>();
+        if (!collectUnits(event, units, new HashMap<>())) {
+            return;
+        }
+        
+        // A single batched upsert; the totals survive restarts and seed the rankings on reload
+        LocalDateTime now = LocalDateTime.now();
+        transactionTemplate.executeWithoutResult(status -> {
+            // Redelivered events are claimed already and add nothing
+            if (event.getOrderNumber() == null || productBatchRepository.claimSalesOrder(event.getOrderNumber(), now)) {
+                productBatchRepository.addUnitsSold(units, now);
+            } else {
+                log.debug("Sales of order {} were already counted", event.getOrderNumber());
+            }
+        });
+    }
+    
+    @Override
+    public void trackOrder(OrderCreatedEvent event) {
+        Map<Long, Long> units = new HashMap<>();
+        Map<Long, String> names = new HashMap<>();
+        if (!collectUnits(event, units, names)) {
+            return;
+        }
+        
+        units.forEach((productId, sold) -> trendingProducts.record(productId, names.get(productId), sold));
+        coPurchaseGraph.recordOrder(names);
+        
+        // Only products not already ranked need their card loaded
+        Set<Long> unranked = catalogRankings.unrankedSellers(units.keySet());
+        Map<Long, RankedProduct> cards = unranked.isEmpty() ? Collections.emptyMap()
+                : productRepository.findRankedByIdIn(unranked).stream()
+                        .map(view -> RankedProduct.of(view, 0L))
+                        .collect(Collectors.toMap(RankedProduct::id, Function.identity()));
+        catalogRankings.salesRecorded(units, cards);
+    }
+    
+    // Sums quantities per product; false when the order has nothing to count
+    private boolean collectUnits(OrderCreatedEvent event, Map<Long, Long> units, Map<Long, String> names) {
+        if (event.getOrderItems() == null) {
+            return false;
+        }
+        for (OrderCreatedEvent.OrderItemDto item : event.getOrderItems()) {
+            if (item.getProductId() != null && item.getQuantity() != null && item.getQuantity() > 0) {
+                units.merge(item.getProductId(), item.getQuantity().longValue(), Long::sum);
+                names.putIfAbsent(item.getProductId(), item.getProductName());
+            }
+        }
+        return !units.isEmpty();
+    }
+    
+    @Override
+    public TrendingResponse getTrendingProducts(int limit) {
+        int boundedLimit = Math.max(1, Math.min(limit, trendingMaxLimit));
+        return TrendingResponse.builder()
+                .windowMinutes(trendingProducts.getWindow().toMinutes())
+                .products(trendingProducts.top(boundedLimit).stream()
+                        .map(entry -> TrendingResponse.TrendingProduct.builder()
+                                .productId(entry.productId())
+                                .name(entry.name())
+                                .estimatedUnits(entry.estimatedUnits())
+                                .build())
+                        .collect(Collectors.toList()))
+                .build();
+    }
+    
+    @Override
+    public RelatedProductsResponse getRelatedProducts(Long productId, int limit) {
+        int boundedLimit = Math.max(1, Math.min(limit, relatedMaxLimit));
+        return RelatedProductsResponse.builder()
+                .productId(productId)
+                .related(coPurchaseGraph.related(productId, boundedLimit).stream()
+                        .map(related -> RelatedProductsResponse.RelatedProduct.builder()
+                                .productId(related.productId())
+                                .name(related.name())
+                                .score(related.score())
+                                .build())
+                        .collect(Collectors.toList()))
+                .build();
+    }
+    
+    @Override
+    @KafkaListener(topics = "${kafka.topics.order-created}", groupId = "${spring.kafka.consumer.group-id}",
+            properties = {
+                    "spring.json.value.default.type=com.ecommerce.productservice.event.OrderCreatedEvent",
+                    "spring.json.use.type.headers=false"
+            })
+    public void handleOrderCreatedEvent(OrderCreatedEvent event, Acknowledgment acknowledgment) {
+        log.debug("Received order created event: {}", event.getOrderNumber());
+        
+        try {
+            recordOrder(event);
+            acknowledgment.acknowledge();
+        } catch (Exception e) {
+            log.error("Error recording sales for order {}", event.getOrderNumber(), e);
+            // Don't acknowledge to retry
+        }
+    }
+    
+    @Override
+    @KafkaListener(topics = "${kafka.topics.order-created}",
+            groupId = "${catalog.sales.instance-group-id:product-service-${random.uuid}}",
+            properties = {
+                    "spring.json.value.default.type=com.ecommerce.productservice.event.OrderCreatedEvent",
+                    "spring.json.use.type.headers=false",
+                    "auto.offset.reset=latest"
+            })
+    public void trackOrderCreatedEvent(OrderCreatedEvent event) {
+        try {
+            trackOrder(event);
+        } catch (Exception e) {
+            // Nothing is committed for this group; the next reload repairs the rankings
+            log.warn("Error tracking order {} in memory", event.getOrderNumber(), e);
+        }
+    }
+    
+    @Scheduled(fixedDelayString = "${catalog.sales.purge-interval-ms:3600000}",
+            initialDelayString = "${catalog.sales.purge-interval-ms:3600000}")
+    public void purgeProcessedOrders() {
+        LocalDateTime cutoff = LocalDateTime.now().minus(processedOrdersRetention);
+        int purged = 0;
+        int deleted;
+        do {
+            deleted = productBatchRepository.purgeSalesOrders(cutoff, 10_000);
+            purged += deleted;
+        } while (deleted == 10_000);
+        if (purged > 0) {
+            log.info("Purged {} processed sales orders recorded before {}", purged, cutoff);
+        }
+    }
+}
@@ -1,17 +1,30 @@
 package com.ecommerce.productservice.service.impl;
 
+import com.ecommerce.productservice.cache.AttributeDictionary;
+import com.ecommerce.productservice.cache.CatalogRankings;
+import com.ecommerce.productservice.cache.CategoryTreeCache;
+import com.ecommerce.productservice.cache.CoPurchaseGraph;
+import com.ecommerce.productservice.cache.ProductCache;
+import com.ecommerce.productservice.cache.RankedProduct;
 import com.ecommerce.productservice.dto.*;
 import com.ecommerce.productservice.entity.Category;
 import com.ecommerce.productservice.entity.Product;
 import com.ecommerce.productservice.entity.ProductAttribute;
+import com.ecommerce.productservice.entity.ProductAttributeId;
 import com.ecommerce.productservice.entity.ProductInventory;
 import com.ecommerce.productservice.event.InventoryEvent;
 import com.ecommerce.productservice.event.ProductEvent;
+import com.ecommerce.productservice.event.ProductSnapshotPublisher;
 import com.ecommerce.productservice.exception.BadRequestException;
 import com.ecommerce.productservice.exception.ResourceNotFoundException;
 import com.ecommerce.productservice.repository.CategoryRepository;
+import com.ecommerce.productservice.repository.ProductAttributeRepository;
 import com.ecommerce.productservice.repository.ProductInventoryRepository;
+import com.ecommerce.productservice.repository.ProductQueryRepository;
 import com.ecommerce.productservice.repository.ProductRepository;
+import com.ecommerce.productservice.repository.projection.ProductSummaryView;
+import com.ecommerce.productservice.repository.projection.ProductVersionView;
+import com.ecommerce.productservice.service.CategoryCountService;
 import com.ecommerce.productservice.service.ProductService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -23,12 +36,14 @@ import org.springframework.data.domain.Sort;
 import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.time.LocalDateTime;
-import java.util.HashSet;
-import java.util.List;
-import java.util.Set;
+import java.time.ZoneOffset;
+import java.util.*;
+import java.util.function.Function;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor
@@ -38,8 +53,18 @@ public class ProductServiceImpl implements ProductService {
     private final ProductRepository productRepository;
     private final CategoryRepository categoryRepository;
     private final ProductInventoryRepository inventoryRepository;
+    private final ProductAttributeRepository attributeRepository;
+    private final ProductQueryRepository productQueryRepository;
+    private final AttributeDictionary attributeDictionary;
+    private final CategoryTreeCache categoryTreeCache;
+    private final CategoryCountService categoryCountService;
+    private final ProductCache productCache;
+    private final CatalogRankings catalogRankings;
+    private final CoPurchaseGraph coPurchaseGraph;
     private final KafkaTemplate<String, ProductEvent> productKafkaTemplate;
     private final KafkaTemplate<String, InventoryEvent> inventoryKafkaTemplate;
+    private final ProductSnapshotPublisher snapshotPublisher;
+    private final TransactionTemplate transactionTemplate;
     
     @Value("${kafka.topics.product-created}")
     private String productCreatedTopic;
@@ -53,9 +78,26 @@ public class ProductServiceImpl implements ProductService {
     @Value("${kafka.topics.inventory-update}")
     private String inventoryUpdateTopic;
     
+    @Value("${product.batch.max-ids:5000}")
+    private int batchMaxIds;
+    
+    @Value("${product.batch.chunk-size:1000}")
+    private int batchChunkSize;
+    
+    @Value("${product.query.max-page-size:100}")
+    private int queryMaxPageSize;
+    
+    @Value("${product.query.debug-enabled:false}")
+    private boolean queryDebugEnabled;
+    
     @Override
-    @Transactional
     public ProductResponse createProduct(ProductRequest productRequest) {
+        // New attribute strings commit on their own first, so the product transaction never waits on a second connection
+        attributeDictionary.intern(attributesOf(productRequest));
+        return transactionTemplate.execute(status -> saveNewProduct(productRequest));
+    }
+    
+    private ProductResponse saveNewProduct(ProductRequest productRequest) {
         // Validate category
         Category category = categoryRepository.findById(productRequest.getCategoryId())
                 .orElseThrow(() -> new ResourceNotFoundException("Category", "id", productRequest.getCategoryId()));
@@ -71,19 +113,12 @@ public class ProductServiceImpl implements ProductService {
                 .attributes(new HashSet<>())
                 .build();
         
-        // Add attributes
-        if (productRequest.getAttributes() != null) {
-            Set<ProductAttribute> attributes = productRequest.getAttributes().stream()
-                    .map(dto -> ProductAttribute.builder()
-                            .product(product)
-                            .name(dto.getName())
-                            .value(dto.getValue())
-                            .build())
-                    .collect(Collectors.toSet());
-            product.setAttributes(attributes);
-        }
-        
         Product savedProduct = productRepository.save(product);
+        categoryCountService.adjust(Map.of(category.getId(), 1L));
+        
+        // Add attributes; their key includes the product id, so only once it has been generated
+        attributeDictionary.encodeInterned(savedProduct.getId(), attributesOf(productRequest))
+                .forEach(attributeId -> savedProduct.getAttributes().add(toAttribute(savedProduct, attributeId)));
         
         // Create initial inventory
         ProductInventory inventory = ProductInventory.builder()
@@ -118,13 +153,19 @@ public class ProductServiceImpl implements ProductService {
                     .build();
             inventoryKafkaTemplate.send(inventoryUpdateTopic, inventoryEvent);
         }
+        snapshotPublisher.publish(savedProduct, savedInventory);
+        catalogRankings.productSaved(toRankedProduct(savedProduct, savedInventory), true);
         
         return mapProductToResponse(savedProduct, savedInventory);
     }
     
     @Override
-    @Transactional
     public ProductResponse updateProduct(Long id, ProductRequest productRequest) {
+        attributeDictionary.intern(attributesOf(productRequest));
+        return transactionTemplate.execute(status -> saveProduct(id, productRequest));
+    }
+    
+    private ProductResponse saveProduct(Long id, ProductRequest productRequest) {
         // Fetch the product
         Product product = productRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Product", "id", id));
@@ -133,6 +174,12 @@ public class ProductServiceImpl implements ProductService {
         Category category = categoryRepository.findById(productRequest.getCategoryId())
                 .orElseThrow(() -> new ResourceNotFoundException("Category", "id", productRequest.getCategoryId()));
         
+        // Move the product between category counters
+        Long previousCategoryId = product.getCategory().getId();
+        if (product.isActive() && !previousCategoryId.equals(category.getId())) {
+            categoryCountService.adjust(Map.of(previousCategoryId, -1L, category.getId(), 1L));
+        }
+        
         // Update product
         product.setName(productRequest.getName());
         product.setDescription(productRequest.getDescription());
@@ -140,20 +187,23 @@ public class ProductServiceImpl implements ProductService {
         product.setCategory(category);
         product.setImageUrl(productRequest.getImageUrl());
         
-        // Update attributes - remove existing and add new ones
-        product.getAttributes().clear();
-        if (productRequest.getAttributes() != null) {
-            Set<ProductAttribute> attributes = productRequest.getAttributes().stream()
-                    .map(dto -> ProductAttribute.builder()
-                            .product(product)
-                            .name(dto.getName())
-                            .value(dto.getValue())
-                            .build())
-                    .collect(Collectors.toSet());
-            product.getAttributes().addAll(attributes);
+        // Update attributes - only rows that actually changed are deleted or inserted
+        Set<ProductAttributeId> wanted = attributeDictionary.encodeInterned(id, attributesOf(productRequest));
+        boolean attributesChanged = product.getAttributes().removeIf(attribute -> !wanted.contains(attribute.getId()));
+        Set<ProductAttributeId> existing = new HashSet<>(attributeIds(product.getAttributes()));
+        for (ProductAttributeId attributeId : wanted) {
+            if (!existing.contains(attributeId)) {
+                product.getAttributes().add(toAttribute(product, attributeId));
+                attributesChanged = true;
+            }
+        }
+        // Attributes live in their own table; touch the product so its ETag changes with them
+        if (attributesChanged) {
+            product.setUpdatedAt(LocalDateTime.now());
         }
         
         Product updatedProduct = productRepository.save(product);
+        productCache.evict(id);
         
         // Fetch inventory
         ProductInventory inventory = inventoryRepository.findByProductId(id)
@@ -171,6 +221,8 @@ public class ProductServiceImpl implements ProductService {
                 .eventType(ProductEvent.ProductEventType.UPDATED)
                 .build();
         productKafkaTemplate.send(productUpdatedTopic, productEvent);
+        snapshotPublisher.publish(updatedProduct, inventory);
+        catalogRankings.productSaved(toRankedProduct(updatedProduct, inventory), updatedProduct.isActive());
         
         return mapProductToResponse(updatedProduct, inventory);
     }
@@ -178,6 +230,17 @@ public class ProductServiceImpl implements ProductService {
     @Override
     @Transactional(readOnly = true)
     public ProductResponse getProductById(Long id) {
+        return getProductById(id, getProductETag(id));
+    }
+    
+    @Override
+    @Transactional(readOnly = true)
+    public ProductResponse getProductById(Long id, String etag) {
+        Optional<ProductResponse> cached = productCache.get(id, etag);
+        if (cached.isPresent()) {
+            return cached.get();
+        }
+        
         Product product = productRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Product", "id", id));
         
@@ -189,97 +252,161 @@ public class ProductServiceImpl implements ProductService {
         ProductInventory inventory = inventoryRepository.findByProductId(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Inventory", "productId", id));
         
-        return mapProductToResponse(product, inventory);
+        ProductResponse response = mapProductToResponse(product, inventory);
+        productCache.put(response, etag);
+        return response;
     }
     
     @Override
     @Transactional(readOnly = true)
-    public PagedResponse<ProductResponse> getAllProducts(int page, int size) {
-        Pageable pageable = PageRequest.of(page, size, Sort.by("createdAt").descending());
-        Page<Product> products = productRepository.findByActiveTrue(pageable);
-        
-        List<ProductResponse> content = products.stream()
-                .map(product -> {
-                    ProductInventory inventory = inventoryRepository.findByProductId(product.getId())
-                            .orElse(new ProductInventory());
-                    return mapProductToResponse(product, inventory);
-                })
+    public ProductBatchResponse getProductsByIds(List<Long> ids) {
+        if (ids == null || ids.isEmpty()) {
+            throw new BadRequestException("At least one product id is required");
+        }
+        if (ids.size() > batchMaxIds) {
+            throw new BadRequestException("At most " + batchMaxIds + " product ids can be requested at once");
+        }
+        if (ids.contains(null)) {
+            throw new BadRequestException("Product ids must not be null");
+        }
+        
+        // Versions come from one narrow query; serve what the cache holds under them and load the rest
+        Set<Long> distinctIds = new LinkedHashSet<>(ids);
+        Map<Long, String> versions = new HashMap<>();
+        List<Long> distinctList = new ArrayList<>(distinctIds);
+        for (int from = 0; from < distinctList.size(); from += batchChunkSize) {
+            productRepository.findActiveVersionsByIdIn(distinctList.subList(from, Math.min(from + batchChunkSize, distinctList.size())))
+                    .forEach(version -> versions.put(version.getId(), etagOf(version)));
+        }
+        Map<Long, ProductResponse> resolved = new HashMap<>(productCache.getAll(versions));
+        List<Long> toLoad = distinctIds.stream()
+                .filter(id -> versions.containsKey(id) && !resolved.containsKey(id))
                 .collect(Collectors.toList());
         
-        return new PagedResponse<>(
-                content,
-                products.getNumber(),
-                products.getSize(),
-                products.getTotalElements(),
-                products.getTotalPages(),
-                products.isLast()
-        );
+        for (int from = 0; from < toLoad.size(); from += batchChunkSize) {
+            List<Long> chunk = toLoad.subList(from, Math.min(from + batchChunkSize, toLoad.size()));
+            List<ProductResponse> loaded = loadProducts(chunk);
+            productCache.putAll(loaded, versions);
+            loaded.forEach(product -> resolved.put(product.getId(), product));
+        }
+        
+        List<ProductBatchResponse.Result> results = new ArrayList<>(ids.size());
+        List<Long> missingIds = new ArrayList<>();
+        for (Long id : ids) {
+            ProductResponse product = resolved.get(id);
+            if (product == null) {
+                missingIds.add(id);
+            }
+            results.add(ProductBatchResponse.Result.builder()
+                    .id(id)
+                    .found(product != null)
+                    .product(product)
+                    .build());
+        }
+        
+        return ProductBatchResponse.builder()
+                .requested(ids.size())
+                .found(ids.size() - missingIds.size())
+                .results(results)
+                .missingIds(missingIds)
+                .build();
     }
     
     @Override
     @Transactional(readOnly = true)
-    public PagedResponse<ProductResponse> getProductsByCategory(Long categoryId, int page, int size) {
-        // Validate that category exists
-        categoryRepository.findById(categoryId)
-                .orElseThrow(() -> new ResourceNotFoundException("Category", "id", categoryId));
-        
+    public String getProductETag(Long id) {
+        ProductVersionView version = productRepository.findVersionById(id)
+                .filter(view -> Boolean.TRUE.equals(view.getActive()))
+                .orElseThrow(() -> new ResourceNotFoundException("Product", "id", id));
+        return etagOf(version);
+    }
+    
+    @Override
+    @Transactional(readOnly = true)
+    public PagedResponse<ProductSummary> getAllProducts(int page, int size, Set<ProductField> fields) {
         Pageable pageable = PageRequest.of(page, size, Sort.by("createdAt").descending());
-        Page<Product> products = productRepository.findByCategoryId(categoryId, pageable);
-        
-        List<ProductResponse> content = products.stream()
-                .map(product -> {
-                    ProductInventory inventory = inventoryRepository.findByProductId(product.getId())
-                            .orElse(new ProductInventory());
-                    return mapProductToResponse(product, inventory);
-                })
-                .collect(Collectors.toList());
+        Page<ProductSummaryView> products = productRepository.findSummaries(pageable);
+        return toSummaryPage(products, fields);
+    }
+    
+    @Override
+    @Transactional(readOnly = true)
+    public PagedResponse<ProductSummary> getProductsByCategory(Long categoryId, int page, int size, Set<ProductField> fields) {
+        // Resolve the category and all of its descendants from the in-memory tree
+        Set<Long> categoryIds = categoryTreeCache.get().subtreeIdsOf(categoryId);
+        if (categoryIds.isEmpty()) {
+            throw new ResourceNotFoundException("Category", "id", categoryId);
+        }
         
-        return new PagedResponse<>(
-                content,
-                products.getNumber(),
-                products.getSize(),
-                products.getTotalElements(),
-                products.getTotalPages(),
-                products.isLast()
-        );
+        Pageable pageable = PageRequest.of(page, size, Sort.by("createdAt").descending());
+        Page<ProductSummaryView> products = productRepository.findSummariesByCategoryIdIn(categoryIds, pageable);
+        return toSummaryPage(products, fields);
     }
     
     @Override
     @Transactional(readOnly = true)
-    public PagedResponse<ProductResponse> searchProducts(String keyword, int page, int size) {
+    public PagedResponse<ProductSummary> searchProducts(String keyword, int page, int size, Set<ProductField> fields) {
         Pageable pageable = PageRequest.of(page, size, Sort.by("createdAt").descending());
-        Page<Product> products = productRepository.findByNameContainingIgnoreCaseAndActiveTrue(keyword, pageable);
-        
-        List<ProductResponse> content = products.stream()
-                .map(product -> {
-                    ProductInventory inventory = inventoryRepository.findByProductId(product.getId())
-                            .orElse(new ProductInventory());
-                    return mapProductToResponse(product, inventory);
-                })
-                .collect(Collectors.toList());
-        
-        return new PagedResponse<>(
-                content,
-                products.getNumber(),
-                products.getSize(),
-                products.getTotalElements(),
-                products.getTotalPages(),
-                products.isLast()
-        );
+        Page<ProductSummaryView> products = productRepository.searchSummaries(keyword, pageable);
+        return toSummaryPage(products, fields);
+    }
+    
+    @Override
+    @Transactional(readOnly = true)
+    public List<ProductSummary> getProductsByAttribute(String attributeName, String attributeValue, Set<ProductField> fields) {
+        List<Integer> nameIds = attributeDictionary.findNameIds(attributeName);
+        List<Integer> valueIds = nameIds.isEmpty() ? Collections.emptyList() : attributeDictionary.findValueIds(attributeValue);
+        if (valueIds.isEmpty()) {
+            return Collections.emptyList();
+        }
+        List<ProductSummaryView> products = productRepository.findSummariesByAttribute(nameIds, valueIds);
+        return mapSummaries(products, fields);
     }
     
     @Override
     @Transactional(readOnly = true)
-    public List<ProductResponse> getProductsByAttribute(String attributeName, String attributeValue) {
-        List<Product> products = productRepository.findByAttributeAndValue(attributeName, attributeValue);
+    public ProductQueryResponse queryProducts(ProductQueryCriteria criteria, int page, int size,
+                                              Set<ProductField> fields, boolean debug) {
+        if (debug && !queryDebugEnabled) {
+            throw new BadRequestException("Query plan debugging is disabled");
+        }
+        if (page < 0 || size < 1 || size > queryMaxPageSize) {
+            throw new BadRequestException("Page must be >= 0 and size between 1 and " + queryMaxPageSize);
+        }
+        if (criteria.getMinPrice() != null && criteria.getMaxPrice() != null
+                && criteria.getMinPrice().compareTo(criteria.getMaxPrice()) > 0) {
+            throw new BadRequestException("minPrice must not be greater than maxPrice");
+        }
         
-        return products.stream()
-                .map(product -> {
-                    ProductInventory inventory = inventoryRepository.findByProductId(product.getId())
-                            .orElse(new ProductInventory());
-                    return mapProductToResponse(product, inventory);
-                })
-                .collect(Collectors.toList());
+        Set<Long> categoryIds = null;
+        if (criteria.getCategoryId() != null) {
+            categoryIds = categoryTreeCache.get().subtreeIdsOf(criteria.getCategoryId());
+            if (categoryIds.isEmpty()) {
+                throw new ResourceNotFoundException("Category", "id", criteria.getCategoryId());
+            }
+        }
+        
+        ProductQueryRepository.Plan plan = productQueryRepository.plan(criteria, categoryIds);
+        Pageable pageable = PageRequest.of(page, size);
+        Page<ProductSummaryView> products = productQueryRepository.find(plan, pageable);
+        PagedResponse<ProductSummary> results = toSummaryPage(products, fields);
+        
+        return ProductQueryResponse.builder()
+                .content(results.getContent())
+                .page(results.getPage())
+                .size(results.getSize())
+                .totalElements(results.getTotalElements())
+                .totalPages(results.getTotalPages())
+                .last(results.isLast())
+                .plan(debug ? ProductQueryResponse.QueryPlan.builder()
+                        .accessPath(plan.getAccessPath())
+                        .index(plan.getIndex())
+                        .orderedByIndex(plan.isOrderedByIndex())
+                        .notes(plan.getNotes())
+                        .sql(plan.getSql())
+                        .explain(productQueryRepository.explain(plan, pageable))
+                        .build() : null)
+                .build();
     }
     
     @Override
@@ -289,8 +416,12 @@ public class ProductServiceImpl implements ProductService {
                 .orElseThrow(() -> new ResourceNotFoundException("Product", "id", id));
         
         // Soft delete - mark as inactive
+        if (product.isActive()) {
+            categoryCountService.adjust(Map.of(product.getCategory().getId(), -1L));
+        }
         product.setActive(false);
         Product deletedProduct = productRepository.save(product);
+        productCache.evict(id);
         
         // Send product deleted event
         ProductEvent productEvent = ProductEvent.builder()
@@ -300,6 +431,9 @@ public class ProductServiceImpl implements ProductService {
                 .eventType(ProductEvent.ProductEventType.DELETED)
                 .build();
         productKafkaTemplate.send(productDeletedTopic, productEvent);
+        snapshotPublisher.publish(deletedProduct, null);
+        catalogRankings.productRemoved(id);
+        coPurchaseGraph.productRemoved(id);
     }
     
     @Override
@@ -343,6 +477,7 @@ public class ProductServiceImpl implements ProductService {
         }
         
         ProductInventory updatedInventory = inventoryRepository.save(inventory);
+        productCache.evict(product.getId());
         
         // Send inventory update event
         InventoryEvent inventoryEvent = InventoryEvent.builder()
@@ -354,6 +489,8 @@ public class ProductServiceImpl implements ProductService {
                 .eventType(eventType)
                 .build();
         inventoryKafkaTemplate.send(inventoryUpdateTopic, inventoryEvent);
+        snapshotPublisher.publish(product, updatedInventory);
+        catalogRankings.stockChanged(product.getId(), updatedInventory.isInStock());
         
         return mapInventoryToDto(updatedInventory);
     }
@@ -373,22 +510,154 @@ public class ProductServiceImpl implements ProductService {
     }
     
     @Override
-    @Transactional(readOnly = true)
-    public List<ProductResponse> getNewArrivals() {
-        List<Product> products = productRepository.findTop10ByOrderByCreatedAtDesc();
+    public List<ProductSummary> getNewArrivals(Long categoryId, int limit) {
+        return catalogRankings.newArrivals(rankingScope(categoryId), limit).stream()
+                .map(this::mapRankedToSummary)
+                .collect(Collectors.toList());
+    }
+    
+    @Override
+    public List<ProductSummary> getBestSellers(Long categoryId, int limit) {
+        return catalogRankings.bestSellers(rankingScope(categoryId), limit).stream()
+                .map(this::mapRankedToSummary)
+                .collect(Collectors.toList());
+    }
+    
+    // Helper methods
+    // Null means the whole catalog; otherwise the category and all of its descendants
+    private Set<Long> rankingScope(Long categoryId) {
+        if (categoryId == null) {
+            return null;
+        }
+        Set<Long> categoryIds = categoryTreeCache.get().subtreeIdsOf(categoryId);
+        if (categoryIds.isEmpty()) {
+            throw new ResourceNotFoundException("Category", "id", categoryId);
+        }
+        return categoryIds;
+    }
+    
+    private RankedProduct toRankedProduct(Product product, ProductInventory inventory) {
+        return new RankedProduct(product.getId(), product.getName(), product.getPrice(), product.getImageUrl(),
+                product.getCategory().getId(), product.getCategory().getName(), product.getCreatedAt(),
+                inventory != null && inventory.isInStock(), 0L);
+    }
+    
+    private ProductSummary mapRankedToSummary(RankedProduct product) {
+        return ProductSummary.builder()
+                .id(product.id())
+                .name(product.name())
+                .price(product.price())
+                .imageUrl(product.imageUrl())
+                .categoryName(product.categoryName())
+                .inStock(product.inStock())
+                .build();
+    }
+    
+    private PagedResponse<ProductSummary> toSummaryPage(Page<ProductSummaryView> products, Set<ProductField> fields) {
+        return new PagedResponse<>(
+                mapSummaries(products.getContent(), fields),
+                products.getNumber(),
+                products.getSize(),
+                products.getTotalElements(),
+                products.getTotalPages(),
+                products.isLast()
+        );
+    }
+    
+    // Maps summary rows and, if requested, fills the heavier fields with one batched query per field
+    private List<ProductSummary> mapSummaries(List<ProductSummaryView> views, Set<ProductField> fields) {
+        List<ProductSummary> summaries = views.stream()
+                .map(view -> ProductSummary.builder()
+                        .id(view.getId())
+                        .name(view.getName())
+                        .price(view.getPrice())
+                        .imageUrl(view.getImageUrl())
+                        .categoryName(view.getCategoryName())
+                        .inStock(Boolean.TRUE.equals(view.getInStock()))
+                        .build())
+                .collect(Collectors.toList());
+        if (fields.isEmpty() || summaries.isEmpty()) {
+            return summaries;
+        }
+        
+        List<Long> ids = summaries.stream().map(ProductSummary::getId).collect(Collectors.toList());
+        
+        if (fields.contains(ProductField.DESCRIPTION)) {
+            Map<Long, String> descriptions = new HashMap<>();
+            productRepository.findDescriptionsByIdIn(ids)
+                    .forEach(row -> descriptions.put(row.getId(), row.getDescription()));
+            summaries.forEach(summary -> summary.setDescription(descriptions.get(summary.getId())));
+        }
+        
+        if (fields.contains(ProductField.ATTRIBUTES)) {
+            Map<Long, List<ProductAttributeDto>> attributes = attributeDictionary.decodeByProduct(
+                    attributeIds(attributeRepository.findByProductIdIn(ids)));
+            summaries.forEach(summary -> summary.setAttributes(
+                    attributes.getOrDefault(summary.getId(), new ArrayList<>())));
+        }
+        
+        if (fields.contains(ProductField.INVENTORY)) {
+            Map<Long, ProductInventoryDto> inventories = inventoryRepository.findByProductIdIn(ids).stream()
+                    .map(this::mapInventoryToDto)
+                    .collect(Collectors.toMap(ProductInventoryDto::getProductId, Function.identity()));
+            summaries.forEach(summary -> summary.setInventory(inventories.get(summary.getId())));
+        }
+        
+        return summaries;
+    }
+    
+    // One query each for products (with category), attributes and inventory, regardless of chunk size
+    private String etagOf(ProductVersionView version) {
+        // The detail response only changes when the product, its inventory or its category is written
+        LocalDateTime lastModified = Stream.of(version.getCreatedAt(), version.getUpdatedAt(),
+                        version.getInventoryUpdatedAt(), version.getCategoryUpdatedAt())
+                .filter(Objects::nonNull)
+                .max(Comparator.naturalOrder())
+                .orElse(LocalDateTime.ofEpochSecond(0, 0, ZoneOffset.UTC));
+        long micros = lastModified.toEpochSecond(ZoneOffset.UTC) * 1_000_000L + lastModified.getNano() / 1_000;
+        return "\"p" + version.getId() + "-" + Long.toString(micros, 36) + "\"";
+    }
+    
+    private List<ProductResponse> loadProducts(List<Long> ids) {
+        List<Product> products = productRepository.findActiveWithCategoryByIdIn(ids);
+        if (products.isEmpty()) {
+            return Collections.emptyList();
+        }
+        List<Long> foundIds = products.stream().map(Product::getId).collect(Collectors.toList());
+        
+        Map<Long, List<ProductAttributeDto>> attributes = attributeDictionary.decodeByProduct(
+                attributeIds(attributeRepository.findByProductIdIn(foundIds)));
+        Map<Long, ProductInventory> inventories = inventoryRepository.findByProductIdIn(foundIds).stream()
+                .collect(Collectors.toMap(inventory -> inventory.getProduct().getId(), Function.identity()));
         
         return products.stream()
-                .filter(Product::isActive)
-                .map(product -> {
-                    ProductInventory inventory = inventoryRepository.findByProductId(product.getId())
-                            .orElse(new ProductInventory());
-                    return mapProductToResponse(product, inventory);
-                })
+                .map(product -> mapProductToResponse(product,
+                        attributes.getOrDefault(product.getId(), Collections.emptyList()),
+                        inventories.get(product.getId())))
                 .collect(Collectors.toList());
     }
     
-    // Helper methods
+    private List<ProductAttributeDto> attributesOf(ProductRequest productRequest) {
+        return productRequest.getAttributes() != null ? productRequest.getAttributes() : Collections.emptyList();
+    }
+    
+    private ProductAttribute toAttribute(Product product, ProductAttributeId attributeId) {
+        return ProductAttribute.builder()
+                .id(attributeId)
+                .product(product)
+                .build();
+    }
+    
+    private List<ProductAttributeId> attributeIds(Collection<ProductAttribute> attributes) {
+        return attributes.stream().map(ProductAttribute::getId).collect(Collectors.toList());
+    }
+    
     private ProductResponse mapProductToResponse(Product product, ProductInventory inventory) {
+        return mapProductToResponse(product, attributeDictionary.decode(attributeIds(product.getAttributes())), inventory);
+    }
+    
+    private ProductResponse mapProductToResponse(Product product, List<ProductAttributeDto> attributeDtos,
+                                                 ProductInventory inventory) {
         CategoryDto categoryDto = CategoryDto.builder()
                 .id(product.getCategory().getId())
                 .name(product.getCategory().getName())
@@ -396,13 +665,6 @@ public class ProductServiceImpl implements ProductService {
                 .parentId(product.getCategory().getParent() != null ? product.getCategory().getParent().getId() : null)
                 .build();
         
-        List<ProductAttributeDto> attributeDtos = product.getAttributes().stream()
-                .map(attr -> ProductAttributeDto.builder()
-                        .name(attr.getName())
-                        .value(attr.getValue())
-                        .build())
-                .collect(Collectors.toList());
-        
         ProductInventoryDto inventoryDto = inventory != null ? mapInventoryToDto(inventory) : null;
         
         return ProductResponse.builder()
@@ -0,0 +1,93 @@
+package com.ecommerce.productservice.service.impl;
+
+import com.ecommerce.productservice.cache.CategoryTree;
+import com.ecommerce.productservice.cache.CategoryTreeCache;
+import com.ecommerce.productservice.cache.ProductPopularity;
+import com.ecommerce.productservice.cache.SuggestionIndex;
+import com.ecommerce.productservice.dto.SuggestionResponse;
+import com.ecommerce.productservice.repository.ProductRepository;
+import com.ecommerce.productservice.repository.projection.ProductNameRow;
+import com.ecommerce.productservice.service.SuggestionService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class SuggestionServiceImpl implements SuggestionService {
+
+    private final ProductRepository productRepository;
+    private final CategoryTreeCache categoryTreeCache;
+    private final ObjectProvider<ProductPopularity> productPopularity;
+
+    @Value("${catalog.suggest.max-limit:20}")
+    private int maxLimit;
+
+    @Value("${catalog.suggest.max-categories:3}")
+    private int maxCategories;
+
+    // Both indexes are swapped together so a response never mixes two generations
+    private volatile Indexes indexes = new Indexes(SuggestionIndex.empty(), SuggestionIndex.empty());
+
+    @Override
+    public SuggestionResponse suggest(String query, int limit) {
+        int productLimit = Math.max(1, Math.min(limit, maxLimit));
+        Indexes current = indexes;
+        return SuggestionResponse.builder()
+                .query(query)
+                .categories(toSuggestions(current.categories().complete(query, Math.min(productLimit, maxCategories))))
+                .products(toSuggestions(current.products().complete(query, productLimit)))
+                .build();
+    }
+
+    @Override
+    @Scheduled(fixedDelayString = "${catalog.suggest.refresh-interval-ms:300000}",
+            initialDelayString = "${catalog.suggest.initial-delay-ms:0}")
+    public void rebuildIndex() {
+        long start = System.currentTimeMillis();
+        ProductPopularity popularity = productPopularity.getIfAvailable(() -> productId -> 0L);
+
+        SuggestionIndex.Builder products = SuggestionIndex.builder();
+        for (ProductNameRow row : productRepository.findActiveNames()) {
+            products.add(row.getId(), row.getName(), popularity.scoreOf(row.getId()));
+        }
+
+        // Categories rank by how many active products their whole subtree holds
+        CategoryTree tree = categoryTreeCache.get();
+        SuggestionIndex.Builder categories = SuggestionIndex.builder();
+        for (CategoryTree.Node root : tree.getRoots()) {
+            addCategory(root, categories);
+        }
+
+        Indexes rebuilt = new Indexes(categories.build(), products.build());
+        indexes = rebuilt;
+        log.debug("Rebuilt suggestion index with {} products and {} categories in {} ms",
+                rebuilt.products().size(), rebuilt.categories().size(), System.currentTimeMillis() - start);
+    }
+
+    private void addCategory(CategoryTree.Node node, SuggestionIndex.Builder categories) {
+        for (CategoryTree.Node child : node.getChildren()) {
+            addCategory(child, categories);
+        }
+        categories.add(node.getId(), node.getName(), node.getSubtreeProductCount());
+    }
+
+    private List<SuggestionResponse.Suggestion> toSuggestions(List<SuggestionIndex.Match> matches) {
+        return matches.stream()
+                .map(match -> SuggestionResponse.Suggestion.builder()
+                        .id(match.id())
+                        .text(match.text())
+                        .build())
+                .collect(Collectors.toList());
+    }
+
+    private record Indexes(SuggestionIndex categories, SuggestionIndex products) {
+    }
+}
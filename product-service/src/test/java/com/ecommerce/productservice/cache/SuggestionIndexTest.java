@@ -0,0 +1,149 @@
+package com.ecommerce.productservice.cache;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class SuggestionIndexTest {
+
+    @Test
+    void complete_MatchesPrefixOfAnyWord() {
+        // Arrange
+        SuggestionIndex index = SuggestionIndex.builder()
+                .add(1L, "Wireless Mouse", 1)
+                .add(2L, "Gaming Mouse Pad", 1)
+                .add(3L, "Mechanical Keyboard", 1)
+                .build();
+
+        // Act
+        List<Long> ids = ids(index.complete("mou", 10));
+
+        // Assert
+        assertEquals(2, ids.size());
+        assertTrue(ids.containsAll(List.of(1L, 2L)));
+    }
+
+    @Test
+    void complete_IgnoresCaseAndPunctuation() {
+        // Arrange
+        SuggestionIndex index = SuggestionIndex.builder()
+                .add(1L, "USB-C  Charger", 1)
+                .add(2L, "USB Hub", 1)
+                .build();
+
+        // Act & Assert
+        assertEquals(List.of(1L), ids(index.complete("usb c", 10)));
+        assertEquals(List.of(1L), ids(index.complete("  CHAR", 10)));
+        assertEquals(List.of(1L), ids(index.complete("Usb-C ch", 10)));
+    }
+
+    @Test
+    void complete_RanksByWeightAndRespectsLimit() {
+        // Arrange
+        SuggestionIndex index = SuggestionIndex.builder()
+                .add(1L, "Phone Case", 5)
+                .add(2L, "Phone Charger", 50)
+                .add(3L, "Phone Stand", 20)
+                .add(4L, "Phone Holder", 1)
+                .build();
+
+        // Act & Assert
+        assertEquals(List.of(2L, 3L, 1L, 4L), ids(index.complete("phone", 10)));
+        assertEquals(List.of(2L, 3L), ids(index.complete("phone", 2)));
+    }
+
+    @Test
+    void complete_PrefersMatchAtStartOfTextOnEqualWeight() {
+        // Arrange
+        SuggestionIndex index = SuggestionIndex.builder()
+                .add(1L, "Red Apple", 10)
+                .add(2L, "Apple Juice", 10)
+                .build();
+
+        // Act & Assert
+        assertEquals(List.of(2L, 1L), ids(index.complete("app", 10)));
+    }
+
+    @Test
+    void complete_ReturnsEachItemOnce() {
+        // Arrange: every word of the first item starts with the prefix
+        SuggestionIndex index = SuggestionIndex.builder()
+                .add(1L, "Bamboo Bath Brush", 10)
+                .add(2L, "Bath Towel", 5)
+                .build();
+
+        // Act & Assert
+        assertEquals(List.of(1L, 2L), ids(index.complete("b", 10)));
+    }
+
+    @Test
+    void complete_NoMatchOrBlankQuery_ReturnsEmpty() {
+        // Arrange
+        SuggestionIndex index = SuggestionIndex.builder()
+                .add(1L, "Desk Lamp", 1)
+                .add(2L, "   ", 1)
+                .build();
+
+        // Act & Assert
+        assertEquals(1, index.size());
+        assertTrue(index.complete("chair", 10).isEmpty());
+        assertTrue(index.complete("lampshade", 10).isEmpty());
+        assertTrue(index.complete(" - ", 10).isEmpty());
+        assertTrue(index.complete("desk", 0).isEmpty());
+        assertTrue(SuggestionIndex.empty().complete("desk", 10).isEmpty());
+    }
+
+    @Test
+    void complete_RebuiltIndexReflectsRenamesRemovalsAndNewWeights() {
+        // Arrange: the index is immutable, changes arrive as a rebuilt generation
+        SuggestionIndex before = SuggestionIndex.builder()
+                .add(1L, "Coffee Grinder", 10)
+                .add(2L, "Coffee Mug", 5)
+                .add(3L, "Coffee Beans", 1)
+                .build();
+        SuggestionIndex after = SuggestionIndex.builder()
+                .add(1L, "Burr Grinder", 10)
+                .add(3L, "Coffee Beans", 50)
+                .build();
+
+        // Act & Assert
+        assertEquals(List.of(1L, 2L, 3L), ids(before.complete("coffee", 10)));
+        assertEquals(List.of(3L), ids(after.complete("coffee", 10)));
+        assertEquals(List.of(1L), ids(after.complete("burr", 10)));
+        assertTrue(after.complete("mug", 10).isEmpty());
+        assertEquals("Burr Grinder", after.complete("grind", 1).get(0).text());
+    }
+
+    @Test
+    void complete_ManyItems_ReturnsTopWeightsInOrder() {
+        // Arrange
+        SuggestionIndex.Builder builder = SuggestionIndex.builder();
+        for (int i = 0; i < 1000; i++) {
+            builder.add(i, (i % 2 == 0 ? "Item " : "Other ") + i, (i * 7919L) % 1000);
+        }
+        SuggestionIndex index = builder.build();
+
+        // Act
+        List<SuggestionIndex.Match> matches = index.complete("item", 5);
+
+        // Assert
+        assertEquals(5, matches.size());
+        for (int i = 1; i < matches.size(); i++) {
+            assertTrue(matches.get(i - 1).weight() >= matches.get(i).weight());
+        }
+        long bestEven = 0;
+        for (int i = 0; i < 1000; i += 2) {
+            bestEven = Math.max(bestEven, (i * 7919L) % 1000);
+        }
+        assertEquals(bestEven, matches.get(0).weight());
+        matches.forEach(match -> assertTrue(match.text().startsWith("Item ")));
+    }
+
+    private static List<Long> ids(List<SuggestionIndex.Match> matches) {
+        return matches.stream().map(SuggestionIndex.Match::id).collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,118 @@
+package com.ecommerce.productservice.service.impl;
+
+import com.ecommerce.productservice.cache.CategoryTree;
+import com.ecommerce.productservice.cache.CategoryTreeCache;
+import com.ecommerce.productservice.cache.ProductPopularity;
+import com.ecommerce.productservice.dto.SuggestionResponse;
+import com.ecommerce.productservice.repository.ProductRepository;
+import com.ecommerce.productservice.repository.projection.ProductNameRow;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class SuggestionServiceImplTest {
+
+    private ProductRepository productRepository;
+    private SuggestionServiceImpl suggestionService;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        productRepository = mock(ProductRepository.class);
+        CategoryTreeCache categoryTreeCache = mock(CategoryTreeCache.class);
+        when(categoryTreeCache.get()).thenReturn(CategoryTree.empty());
+
+        Map<Long, Long> scores = Map.of(1L, 30L, 2L, 20L, 3L, 10L);
+        ObjectProvider<ProductPopularity> popularity = mock(ObjectProvider.class);
+        when(popularity.getIfAvailable(any())).thenReturn(productId -> scores.getOrDefault(productId, 0L));
+
+        suggestionService = new SuggestionServiceImpl(productRepository, categoryTreeCache, popularity);
+        ReflectionTestUtils.setField(suggestionService, "maxLimit", 20);
+        ReflectionTestUtils.setField(suggestionService, "maxCategories", 3);
+    }
+
+    @Test
+    void suggest_BeforeFirstRebuild_ReturnsNothing() {
+        // Act
+        SuggestionResponse response = suggestionService.suggest("lamp", 10);
+
+        // Assert
+        assertTrue(response.getProducts().isEmpty());
+        assertTrue(response.getCategories().isEmpty());
+    }
+
+    @Test
+    void suggest_RanksProductsByPopularity() {
+        // Arrange
+        when(productRepository.findActiveNames()).thenReturn(List.of(
+                row(3L, "Desk Lamp"), row(1L, "Floor Lamp"), row(2L, "Lamp Shade")));
+        suggestionService.rebuildIndex();
+
+        // Act
+        SuggestionResponse response = suggestionService.suggest("lam", 10);
+
+        // Assert
+        assertEquals(List.of(1L, 2L, 3L), productIds(response));
+    }
+
+    @Test
+    void suggest_AfterRebuild_DropsDeactivatedAndRenamedProducts() {
+        // Arrange
+        when(productRepository.findActiveNames())
+                .thenReturn(List.of(row(1L, "Floor Lamp"), row(2L, "Lamp Shade")))
+                .thenReturn(List.of(row(2L, "Pendant Light")));
+        suggestionService.rebuildIndex();
+        assertEquals(List.of(1L, 2L), productIds(suggestionService.suggest("lamp", 10)));
+
+        // Act
+        suggestionService.rebuildIndex();
+
+        // Assert
+        assertTrue(suggestionService.suggest("lamp", 10).getProducts().isEmpty());
+        assertEquals(List.of(2L), productIds(suggestionService.suggest("pend", 10)));
+    }
+
+    @Test
+    void suggest_ClampsLimitToMaximum() {
+        // Arrange
+        ReflectionTestUtils.setField(suggestionService, "maxLimit", 2);
+        when(productRepository.findActiveNames()).thenReturn(List.of(
+                row(1L, "Lamp One"), row(2L, "Lamp Two"), row(3L, "Lamp Three")));
+        suggestionService.rebuildIndex();
+
+        // Act & Assert
+        assertEquals(2, suggestionService.suggest("lamp", 50).getProducts().size());
+        assertEquals(1, suggestionService.suggest("lamp", 0).getProducts().size());
+    }
+
+    private static List<Long> productIds(SuggestionResponse response) {
+        return response.getProducts().stream()
+                .map(SuggestionResponse.Suggestion::getId)
+                .collect(Collectors.toList());
+    }
+
+    private static ProductNameRow row(Long id, String name) {
+        return new ProductNameRow() {
+            @Override
+            public Long getId() {
+                return id;
+            }
+
+            @Override
+            public String getName() {
+                return name;
+            }
+        };
+    }
+}